@@ -17,6 +17,10 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Optional;
+
 /**
  * Interface for all devices including memory that support reading and writing bytes.
  * <br>
@@ -107,11 +111,52 @@ public interface AddressBus {
      */
     void write(final int offset, final byte value);
 
+    /**
+     * Reads length bytes starting at the offset into the given array. This default reads a single byte at a time,
+     * implementations backed by arrays should override with array copies.
+     */
+    default void read(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        for (int i = 0; i < length; i++) {
+            values[valuesOffset + i] = this.read(offset + i);
+        }
+    }
+
+    /**
+     * Writes length bytes from the given array starting at the offset. This default writes a single byte at a time,
+     * implementations backed by arrays should override with array copies.
+     */
+    default void write(final int offset,
+                       final byte[] values,
+                       final int valuesOffset,
+                       final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        for (int i = 0; i < length; i++) {
+            this.write(offset + i, values[valuesOffset + i]);
+        }
+    }
+
     /**
      * The number of values
      */
     int size();
 
+    /**
+     * Returns a read only {@link ByteBuffer} over the storage behind this {@link AddressBus} if one exists, where the
+     * byte at each index is the same as {@link #read(int)} at the same offset. The buffer is a view, so later writes
+     * are visible through it.
+     */
+    default Optional<ByteBuffer> buffer() {
+        return Optional.empty();
+    }
+
     /**
      * Creates a view of this {@link AddressBus} where reads/writes have the given base offset added.
      * This is useful to break up a large memory into smaller chunks.
@@ -19,6 +19,8 @@ package walkingkooka.emulator.c64;
 
 import walkingkooka.text.printer.TreePrintableTesting;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -32,6 +34,32 @@ public interface AddressBusTesting extends TreePrintableTesting {
         assertEquals(expected, bus.read(offset), () -> bus + " read " + Integer.toHexString(offset));
     }
 
+    /**
+     * Bulk reads the expected number of bytes into the middle of a larger array, verifying the bytes either side are
+     * untouched.
+     */
+    default void readBulkAndCheck(final AddressBus bus,
+                                  final int offset,
+                                  final byte... expected) {
+        final int length = expected.length;
+        final byte[] read = new byte[length + 2];
+        read[0] = 99;
+        read[length + 1] = 99;
+
+        bus.read(offset, read, 1, length);
+
+        final byte[] expected2 = new byte[length + 2];
+        expected2[0] = 99;
+        System.arraycopy(expected, 0, expected2, 1, length);
+        expected2[length + 1] = 99;
+
+        assertEquals(
+            Arrays.toString(expected2),
+            Arrays.toString(read),
+            () -> bus + " read " + Integer.toHexString(offset) + " length " + length
+        );
+    }
+
     default void writeAndReadCheck(final AddressBus bus,
                                    final int offset,
                                    final byte value) {
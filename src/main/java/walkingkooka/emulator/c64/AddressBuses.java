@@ -17,11 +17,10 @@
 package walkingkooka.emulator.c64;
 
 import walkingkooka.reflect.PublicStaticHelper;
-import walkingkooka.text.CharSequences;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
@@ -45,7 +44,7 @@ public final class AddressBuses implements PublicStaticHelper {
      */
     public static AddressBus basicRom(final AddressBus write) {
         return rom(
-            loadRom("basic.901226-01.bin"),
+            RomImage.basic(),
             write
         );
     }
@@ -58,7 +57,7 @@ public final class AddressBuses implements PublicStaticHelper {
      */
     public static AddressBus characterGenerator(final AddressBus write) {
         return rom(
-            loadRom("characters.901225-01.bin"),
+            RomImage.characterGenerator(),
             write
         );
     }
@@ -114,7 +113,7 @@ public final class AddressBuses implements PublicStaticHelper {
      */
     public static AddressBus kernalRom(final AddressBus write) {
         return rom(
-            loadRom("kernal.901227-03.bin"),
+            RomImage.kernal(),
             write
         );
     }
@@ -123,7 +122,21 @@ public final class AddressBuses implements PublicStaticHelper {
      * {@see Memory}
      */
     public static AddressBus memory(final int size) {
-        return Memory.with(size);
+        return memory(
+            size,
+            false
+        );
+    }
+
+    /**
+     * Creates memory on the java heap, {@link Memory}, or outside it in a direct buffer, {@link DirectMemory}. Both
+     * mask offsets and apply a base offset in the same way.
+     */
+    public static AddressBus memory(final int size,
+                                    final boolean offHeap) {
+        return offHeap ?
+            DirectMemory.with(size) :
+            Memory.with(size);
     }
 
     /**
@@ -133,6 +146,28 @@ public final class AddressBuses implements PublicStaticHelper {
         return PagedAddressBus.with(pages);
     }
 
+    /**
+     * Returns a copy of the given ROM with the bytes at the given offsets replaced, writes continue to be passed to the
+     * given ROM. This is useful to patch a {@link CpuInstructions#trap()} over a routine implemented by the host.
+     */
+    public static AddressBus patchedRom(final AddressBus rom,
+                                        final Map<Integer, Byte> patches) {
+        Objects.requireNonNull(rom, "rom");
+        Objects.requireNonNull(patches, "patches");
+
+        final int size = rom.size();
+        final byte[] values = new byte[size];
+        rom.read(0, values, 0, size);
+
+        return rom(
+            RomImage.with(
+                rom.toString(),
+                values
+            ).patch(patches),
+            rom
+        );
+    }
+
     /**
      * {@see Rom}
      */
@@ -141,18 +176,12 @@ public final class AddressBuses implements PublicStaticHelper {
         return Rom.with(values, write);
     }
 
-    private static byte[] loadRom(final String name) {
-        try {
-            final InputStream inputStream = AddressBuses.class.getResourceAsStream(
-                "/walkingkooka/emulator/c64/" + name
-            );
-            if (null == inputStream) {
-                throw new IllegalStateException("Unable to load ROM file " + CharSequences.quote(name));
-            }
-            return inputStream.readAllBytes();
-        } catch (final IOException cause) {
-            throw new IllegalStateException("Reading ROM file " + CharSequences.quote(name) + " failed: " + cause.getMessage(), cause);
-        }
+    /**
+     * ROM sharing the bytes of the given {@link RomImage}, passing all writes to the given {@link AddressBus}.
+     */
+    public static AddressBus rom(final RomImage image,
+                                 final AddressBus write) {
+        return Rom.with(image, write);
     }
 
     // ................................................................................................................
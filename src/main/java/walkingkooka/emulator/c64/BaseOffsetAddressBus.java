@@ -50,6 +50,28 @@ final class BaseOffsetAddressBus implements AddressBus {
             value);
     }
 
+    @Override
+    public void read(final int offset,
+                     final byte[] values,
+                     final int valuesOffset,
+                     final int length) {
+        this.bus.read(this.baseOffset + offset,
+            values,
+            valuesOffset,
+            length);
+    }
+
+    @Override
+    public void write(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        this.bus.write(this.baseOffset + offset,
+            values,
+            valuesOffset,
+            length);
+    }
+
     @Override
     public int size() {
         return this.bus.size();
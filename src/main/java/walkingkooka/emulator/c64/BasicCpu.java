@@ -27,9 +27,21 @@ import java.util.Objects;
  */
 final class BasicCpu implements Cpu, Numbers {
 
+    /**
+     * Creates a {@link BasicCpu} for the given instructions. All {@link CpuInstructions#all()} share a single instance,
+     * along with its instruction table, as nothing else in a {@link BasicCpu} is mutable.
+     */
     static BasicCpu with(final Collection<CpuInstruction> instructions) {
-        return new BasicCpu(
-            Objects.requireNonNull(instructions, "instructions")
+        Objects.requireNonNull(instructions, "instructions");
+
+        return CpuInstructions.all() == instructions ?
+            All.INSTANCE :
+            new BasicCpu(instructions);
+    }
+
+    private static class All {
+        final static BasicCpu INSTANCE = new BasicCpu(
+            CpuInstructions.all()
         );
     }
 
@@ -124,7 +136,7 @@ final class BasicCpu implements Cpu, Numbers {
     }
 
     @Override
-    public void step(final CpuContext context) {
+    public int step(final CpuContext context) {
         context.handleBreakpoints();
 
         // breakpoints above might have changed pc - so load it again
@@ -134,7 +146,61 @@ final class BasicCpu implements Cpu, Numbers {
             (short) (pc + 1)
         );
 
-        this.instructions[mask(opcode)].execute(context);
+        final long before = context.cycles();
+
+        final CpuInstruction instruction = this.instructions[mask(opcode)];
+        instruction.execute(context);
+        context.addCycles(
+            instruction.cycles()
+        );
+
+        // includes any page crossing or taken branch cycles added by the instruction
+        return (int) (context.cycles() - before);
+    }
+
+    @Override
+    public long run(final CpuContext context,
+                    final long cycleBudget) {
+        Objects.requireNonNull(context, "context");
+        if (cycleBudget < 0) {
+            throw new IllegalArgumentException("Invalid cycleBudget " + cycleBudget + " < 0");
+        }
+
+        final CpuInstruction[] instructions = this.instructions;
+
+        final long start = context.cycles();
+        final long end = start + cycleBudget;
+        long cycles = start;
+
+        while (cycles < end) {
+            if (context.isInterruptPending()) {
+                context.handleInterrupts();
+            }
+
+            final boolean breakpoint = context.handleBreakpoints();
+
+            // breakpoints above might have changed pc - so load it again
+            final short pc = context.pc();
+            final byte opcode = context.readByte(pc);
+            context.setPc(
+                (short) (pc + 1)
+            );
+
+            final CpuInstruction instruction = instructions[mask(opcode)];
+            instruction.execute(context);
+            context.addCycles(
+                instruction.cycles()
+            );
+
+            cycles = context.cycles();
+
+            // give the caller a chance to react to whatever the breakpoint watcher did
+            if (breakpoint) {
+                break;
+            }
+        }
+
+        return cycles - start;
     }
 
     private final CpuInstruction[] instructions;
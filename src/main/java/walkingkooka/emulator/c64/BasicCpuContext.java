@@ -17,15 +17,19 @@
 
 package walkingkooka.emulator.c64;
 
-import walkingkooka.collect.set.SortedSets;
+import walkingkooka.Cast;
+import walkingkooka.collect.map.Maps;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 final class BasicCpuContext implements CpuContext,
-    Numbers {
+    Numbers,
+    Snapshotable {
 
     static BasicCpuContext with(final AddressBus addressBus,
                                 final Function<Short, Optional<String>> addressSymbols) {
@@ -83,11 +87,13 @@ final class BasicCpuContext implements CpuContext,
 
     @Override
     public byte flags() {
-        return this.flags.value();
+        return this.materializedFlags()
+            .value();
     }
 
     @Override
     public void setFlags(final byte flags) {
+        this.minusAndZeroPending = false;
         this.flags.setValue(flags);
     }
 
@@ -133,12 +139,15 @@ final class BasicCpuContext implements CpuContext,
 
     @Override
     public boolean isMinus() {
-        return this.flags.isMinus();
+        return this.minusAndZeroPending ?
+            this.minusAndZero < 0 :
+            this.flags.isMinus();
     }
 
     @Override
     public void setMinus(final boolean minus) {
-        this.flags.setMinus(minus);
+        this.materializedFlags()
+            .setMinus(minus);
     }
 
     @Override
@@ -153,16 +162,53 @@ final class BasicCpuContext implements CpuContext,
 
     @Override
     public boolean isZero() {
-        return this.flags.isZero();
+        return this.minusAndZeroPending ?
+            0 == this.minusAndZero :
+            this.flags.isZero();
     }
 
     @Override
     public void setZero(final boolean zero) {
-        this.flags.setZero(zero);
+        this.materializedFlags()
+            .setZero(zero);
+    }
+
+    /**
+     * Records the result that N and Z are computed from, deferring the update of {@link #flags} until something
+     * actually reads them. Most instructions overwrite N and Z before they are read.
+     */
+    @Override
+    public void setMinusAndZero(final byte value) {
+        this.minusAndZero = value;
+        this.minusAndZeroPending = true;
+    }
+
+    /**
+     * Copies any pending N and Z into {@link #flags} and returns it.
+     */
+    private CpuFlags materializedFlags() {
+        final CpuFlags flags = this.flags;
+
+        if (this.minusAndZeroPending) {
+            final byte value = this.minusAndZero;
+            flags.setZero(0 == value);
+            flags.setMinus(value < 0);
+
+            this.minusAndZeroPending = false;
+        }
+
+        return flags;
     }
 
     private final CpuFlags flags = CpuFlags.create();
 
+    /**
+     * The last result passed to {@link #setMinusAndZero(byte)}, only valid when {@link #minusAndZeroPending} is true.
+     */
+    private byte minusAndZero;
+
+    private boolean minusAndZeroPending;
+
     @Override
     public byte stackPointer() {
         return this.stackPointer;
@@ -187,6 +233,18 @@ final class BasicCpuContext implements CpuContext,
 
     private short pc;
 
+    @Override
+    public long cycles() {
+        return this.cycles;
+    }
+
+    @Override
+    public void addCycles(final int cycles) {
+        this.cycles += cycles;
+    }
+
+    private long cycles;
+
     @Override
     public byte readByte(final short address) {
         return this.addressBus.read(
@@ -298,6 +356,11 @@ final class BasicCpuContext implements CpuContext,
         this.mode = this.mode | IRQ;
     }
 
+    @Override
+    public boolean isInterruptPending() {
+        return NONE != this.mode;
+    }
+
     @Override
     public void handleInterrupts() {
         int mode = this.mode;
@@ -317,6 +380,7 @@ final class BasicCpuContext implements CpuContext,
                 this.setPc(
                     this.readAddress(RESET_VECTOR)
                 );
+                this.cycles += INTERRUPT_CYCLES;
                 this.mode = NONE;
             }
 
@@ -340,6 +404,7 @@ final class BasicCpuContext implements CpuContext,
                 this.setPc(
                     this.readAddress(NMI_VECTOR)
                 );
+                this.cycles += INTERRUPT_CYCLES;
 
                 this.mode = mode & ~NMI;
             }
@@ -365,12 +430,18 @@ final class BasicCpuContext implements CpuContext,
                     );
 
                     this.setInterruptDisabled(true); // disable interrupts
+                    this.cycles += INTERRUPT_CYCLES;
                     this.mode = mode & ~IRQ;
                 }
             }
         }
     }
 
+    /**
+     * The number of cycles taken to push the pc and flags and load the interrupt vector.
+     */
+    private final static int INTERRUPT_CYCLES = 7;
+
     private final static int NONE = 0;
     private final static int RESET = 1;
     private final static int NMI = 2;
@@ -379,10 +450,20 @@ final class BasicCpuContext implements CpuContext,
     private int mode = NONE;
 
     @Override
-    public void handleBreakpoints() {
-        if (this.breakpoints.contains(this.pc)) {
-            this.watchers.onBreakpoint(this);
+    public boolean handleBreakpoints() {
+        boolean breakpoint = false;
+
+        // most of the time there are no breakpoints so skip the bitmap test
+        if (0 != this.breakpointCount) {
+            final int pc = mask(this.pc);
+
+            breakpoint = 0 != (this.breakpoints[pc >> 6] & (1L << pc));
+            if (breakpoint) {
+                this.watchers.onBreakpoint(this);
+            }
         }
+
+        return breakpoint;
     }
 
     @Override
@@ -402,12 +483,126 @@ final class BasicCpuContext implements CpuContext,
 
     @Override
     public Runnable addBreakpoint(final short address) {
-        this.breakpoints.add(address);
+        final Integer count = this.breakpointRegistrations.get(address);
+        if (null == count) {
+            long[] breakpoints = this.breakpoints;
+            if (null == breakpoints) {
+                breakpoints = new long[64 * 1024 / 64];
+                this.breakpoints = breakpoints;
+            }
+
+            final int a = mask(address);
+            breakpoints[a >> 6] |= 1L << a;
+            this.breakpointCount++;
+
+            this.breakpointRegistrations.put(
+                address,
+                1
+            );
+        } else {
+            this.breakpointRegistrations.put(
+                address,
+                count + 1
+            );
+        }
+
+        return new Runnable() {
+            @Override
+            public void run() {
+                // ignore repeated removes so they don't remove another registration for the same address
+                if (false == this.removed) {
+                    this.removed = true;
+                    BasicCpuContext.this.removeBreakpoint(address);
+                }
+            }
+
+            private boolean removed;
+        };
+    }
+
+    private void removeBreakpoint(final short address) {
+        final int count = this.breakpointRegistrations.get(address);
+        if (1 == count) {
+            final int a = mask(address);
+            this.breakpoints[a >> 6] &= ~(1L << a);
+            this.breakpointCount--;
+
+            this.breakpointRegistrations.remove(address);
+        } else {
+            this.breakpointRegistrations.put(
+                address,
+                count - 1
+            );
+        }
+    }
+
+    /**
+     * A bit for every address in the 64k address space, tested by {@link #handleBreakpoints()} before every instruction.
+     * Only allocated when the first breakpoint is added, as most contexts never have any.
+     */
+    private long[] breakpoints;
+
+    /**
+     * The number of distinct addresses with a breakpoint, when zero the bitmap is not tested.
+     */
+    private int breakpointCount;
+
+    /**
+     * The number of times a breakpoint was added for an address, only used when adding or removing breakpoints.
+     */
+    private final Map<Short, Integer> breakpointRegistrations = Maps.hash();
+
+    @Override
+    public void handleTrap(final byte trap) {
+        final Consumer<CpuContext>[] traps = this.traps;
+        final Consumer<CpuContext> handler = null != traps ?
+            traps[mask(trap)] :
+            null;
+        if (null == handler) {
+            // step back over the trap number, leaving the pc after the JAM opcode like any other invalid opcode
+            this.pc = (short) (this.pc - 1);
+            this.handleInvalidOpcode();
+        } else {
+            handler.accept(this);
+        }
+    }
 
-        return () -> this.breakpoints.remove(address);
+    @Override
+    public Runnable addTrap(final byte trap,
+                            final Consumer<CpuContext> handler) {
+        Objects.requireNonNull(handler, "handler");
+
+        Consumer<CpuContext>[] traps = this.traps;
+        if (null == traps) {
+            traps = Cast.to(new Consumer[256]);
+            this.traps = traps;
+        }
+
+        final int index = mask(trap);
+        if (null != traps[index]) {
+            throw new IllegalArgumentException("Trap " + hexByte(trap) + " already has a handler");
+        }
+        traps[index] = handler;
+
+        return new Runnable() {
+            @Override
+            public void run() {
+                // ignore repeated removes so they don't remove a handler added later for the same trap
+                if (false == this.removed) {
+                    this.removed = true;
+                    BasicCpuContext.this.traps[index] = null;
+                }
+            }
+
+            private boolean removed;
+        };
     }
 
-    private final Set<Short> breakpoints = SortedSets.tree();
+    /**
+     * The handler for each trap number, indexed by the byte following the trap opcode. Only allocated when the first
+     * trap is added.
+     */
+    private Consumer<CpuContext>[] traps;
 
     @Override
     public Runnable addWatcher(final CpuWatcher watcher) {
@@ -426,6 +621,39 @@ final class BasicCpuContext implements CpuContext,
 
     private final Function<Short, Optional<String>> addressSymbols;
 
+    // Snapshotable.....................................................................................................
+
+    /**
+     * Saves the registers, cycles and any pending interrupts. Breakpoints, traps and watchers belong to whoever added
+     * them and are not saved.
+     */
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.put(this.a);
+        buffer.put(this.x);
+        buffer.put(this.y);
+        buffer.put(this.flags());
+        buffer.put(this.stackPointer);
+        buffer.putShort(this.pc);
+        buffer.putLong(this.cycles);
+        buffer.putInt(this.mode);
+    }
+
+    /**
+     * Restores the registers, cycles and any pending interrupts saved by {@link #save(ByteBuffer)}.
+     */
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        this.a = buffer.get();
+        this.x = buffer.get();
+        this.y = buffer.get();
+        this.setFlags(buffer.get());
+        this.stackPointer = buffer.get();
+        this.pc = buffer.getShort();
+        this.cycles = buffer.getLong();
+        this.mode = buffer.getInt();
+    }
+
     // helpers..........................................................................................................
 
     private static int fromByte(final byte value) {
@@ -445,6 +673,6 @@ final class BasicCpuContext implements CpuContext,
             ", X: " + hexByte(this.x) +
             ", Y: " + hexByte(this.y) +
             ", SP: " + hexByte(this.stackPointer) +
-            ", SR: " + this.flags;
+            ", SR: " + this.materializedFlags();
     }
 }
@@ -0,0 +1,745 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * A complete C64, composing the RAM, ROMs, IO devices and CPU. The IO area at $D000-$DFFF is dispatched by 256 byte
+ * page to the VIC, SID, colour RAM and both CIAs. Devices are clocked from the actual CPU cycles using a
+ * {@link CycleScheduler}, so timer interrupts arrive on the exact cycle they are due.
+ */
+public final class C64 {
+
+    /**
+     * Creates a new PAL {@link C64} which has not yet been reset. Any kernal patches are applied to a copy of the kernal
+     * ROM shared by every machine with the same patches, with the key being the offset within the ROM, so a patch to
+     * the CPU address $FFD2 has the key $1FD2. An {@link IllegalArgumentException} is thrown for any key outside the
+     * 8k ROM.
+     */
+    public static C64 with(final Cpu cpu,
+                           final Map<Integer, Byte> kernalPatches,
+                           final Function<Short, Optional<String>> addressSymbols) {
+        return with(
+            cpu,
+            kernalPatches,
+            VicModel.PAL,
+            addressSymbols
+        );
+    }
+
+    /**
+     * Creates a new {@link C64} with a PAL or NTSC VIC which has not yet been reset.
+     */
+    public static C64 with(final Cpu cpu,
+                           final Map<Integer, Byte> kernalPatches,
+                           final VicModel vicModel,
+                           final Function<Short, Optional<String>> addressSymbols) {
+        Objects.requireNonNull(cpu, "cpu");
+        Objects.requireNonNull(kernalPatches, "kernalPatches");
+        Objects.requireNonNull(vicModel, "vicModel");
+        Objects.requireNonNull(addressSymbols, "addressSymbols");
+
+        return new C64(
+            cpu,
+            kernal(kernalPatches),
+            vicModel,
+            addressSymbols,
+            CopyOnWriteMemory.with(256 * 256),
+            null
+        );
+    }
+
+    /**
+     * Creates a {@link C64} whose RAM is mapped onto the given file, with the CPU and device state kept in a header
+     * file alongside it, named by appending {@link #HEADER_SUFFIX}. When the header exists the machine resumes where it
+     * was at the last {@link #force()}, with RAM only read from the file as it is touched, otherwise the machine has
+     * not yet been reset. The RAM file always holds the latest writes, so a consistent resume requires {@link #force()}
+     * after the machine last ran.
+     */
+    public static C64 mapped(final Cpu cpu,
+                             final Map<Integer, Byte> kernalPatches,
+                             final VicModel vicModel,
+                             final Function<Short, Optional<String>> addressSymbols,
+                             final Path ram) throws IOException {
+        Objects.requireNonNull(cpu, "cpu");
+        Objects.requireNonNull(kernalPatches, "kernalPatches");
+        Objects.requireNonNull(vicModel, "vicModel");
+        Objects.requireNonNull(addressSymbols, "addressSymbols");
+        Objects.requireNonNull(ram, "ram");
+
+        final Path header = ram.resolveSibling(ram.getFileName() + HEADER_SUFFIX);
+
+        final C64 c64 = new C64(
+            cpu,
+            kernal(kernalPatches),
+            vicModel,
+            addressSymbols,
+            DirectMemory.map(ram, 256 * 256),
+            header
+        );
+        if (Files.exists(header)) {
+            c64.restore(
+                C64Snapshot.load(header),
+                c64.devicesExceptRam()
+            );
+        }
+        return c64;
+    }
+
+    /**
+     * Appended to the RAM file name given to {@link #mapped(Cpu, Map, VicModel, Function, Path)} to name the file
+     * holding the CPU and device state.
+     */
+    public final static String HEADER_SUFFIX = ".header";
+
+    /**
+     * Returns the KERNAL with the given patches applied, sharing a single patched copy for each distinct set of
+     * patches so machines created with the same patches do not each hold their own 8k copy.
+     */
+    private static RomImage kernal(final Map<Integer, Byte> patches) {
+        final RomImage kernal = RomImage.kernal();
+
+        final RomImage patched;
+        if (patches.isEmpty()) {
+            patched = kernal;
+        } else {
+            final Map<Integer, Byte> copy = Maps.sorted();
+            copy.putAll(patches);
+
+            patched = PATCHED_KERNALS.computeIfAbsent(
+                copy,
+                kernal::patch
+            );
+        }
+        return patched;
+    }
+
+    /**
+     * Patched KERNALs by patches. Entries are never evicted, so this grows with each distinct set of patches for the
+     * life of the process. This is expected to be a handful of sets fixed by the application, each costing 8k.
+     */
+    private final static Map<Map<Integer, Byte>, RomImage> PATCHED_KERNALS = new ConcurrentHashMap<>();
+
+    private C64(final Cpu cpu,
+                final RomImage kernal,
+                final VicModel vicModel,
+                final Function<Short, Optional<String>> addressSymbols,
+                final RamAddressBus ram,
+                final Path header) {
+        super();
+
+        this.kernal = kernal;
+        this.addressSymbols = addressSymbols;
+        this.ram = ram;
+        this.header = header;
+
+        final AddressBus characters = AddressBuses.characterGenerator(
+            AddressBuses.baseOffset(
+                AddressBus.CHARACTER_GENERATOR_BASE,
+                ram
+            ) // write
+        );
+
+        final Memory colour = Memory.with(1024);
+        this.colour = colour;
+
+        final Vic vic = Vic.with(
+            vicModel,
+            this::cycles,
+            colour,
+            this::irq
+        );
+        this.vic = vic;
+
+        final Memory sid = Memory.with(32);
+        this.sid = sid;
+
+        final Ciaa ciaa = Ciaa.with(
+            this::setKeyPress,
+            this::setKeyRelease,
+            this::irq
+        );
+        this.ciaa = ciaa;
+
+        final VicMapper vicMapper = VicMapper.with(
+            characters,
+            ram,
+            vic::setAddressBus
+        );
+        this.vicMapper = vicMapper;
+
+        final Ciab ciab = Ciab.with(
+            vicMapper,
+            this::nmi
+        );
+        this.ciab = ciab;
+
+        // no cartridge is attached so IO1 and IO2 are not connected
+        final Memory io1 = Memory.with(256);
+        this.io1 = io1;
+
+        final Memory io2 = Memory.with(256);
+        this.io2 = io2;
+
+        final AddressBus kernalRom = AddressBuses.rom(
+            kernal,
+            AddressBuses.baseOffset(
+                AddressBus.KERNAL_BASE,
+                ram
+            ) // write
+        );
+
+        final CpuAddressBus addressBus = CpuAddressBus.with(
+            ram,
+            AddressBuses.basicRom(
+                AddressBuses.baseOffset(
+                    AddressBus.BASIC_BASE,
+                    ram
+                ) // write
+            ),
+            characters,
+            AddressBuses.paged(
+                Lists.of(
+                    vic, // $D000
+                    vic,
+                    vic,
+                    vic,
+                    sid, // $D400
+                    sid,
+                    sid,
+                    sid,
+                    colour, // $D800
+                    colour,
+                    colour,
+                    colour,
+                    ciaa, // $DC00
+                    ciab, // $DD00
+                    io1, // $DE00
+                    io2 // $DF00
+                )
+            ),
+            kernalRom
+        );
+        this.addressBus = addressBus;
+
+        final BasicCpuContext context = BasicCpuContext.with(
+            addressBus,
+            addressSymbols
+        );
+        this.context = context;
+        this.cpu = cpu;
+
+        final CycleScheduler scheduler = CycleScheduler.with(context::cycles);
+        ciaa.schedule(scheduler);
+        ciab.schedule(scheduler);
+        vic.schedule(scheduler);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Initializes the CPU port and resets the CPU, which will start executing the KERNAL reset routine on the next
+     * run.
+     */
+    public void reset() {
+        final CpuContext context = this.context;
+        context.writeByte(
+            (short) 0,
+            AddressBus.DEFAULT_CPU_DATA_DIRECTION
+        );
+        context.writeByte(
+            (short) 1,
+            AddressBus.DEFAULT_CPU_PORT
+        );
+        context.reset();
+    }
+
+    /**
+     * Resets and runs the KERNAL reset routine, stopping when it is about to hand over to BASIC. At that point the
+     * RAM test and IO initialization are complete but nothing has been printed, making it an ideal state to
+     * {@link #snapshot()}.
+     */
+    public void boot() {
+        this.boot(false);
+    }
+
+    /**
+     * Performs the same work as {@link #boot()} but skips emulating the KERNAL RAMTAS routine, which spends nearly
+     * all of the two million cycles of a reset testing each byte of RAM. Its results are written directly instead,
+     * and the cycles it would have taken are still counted, so the machine finishes in exactly the same state,
+     * cycle count and device timers included. The CIA timers catch up on those cycles in one update, counting every
+     * underflow that would have happened while RAMTAS ran.
+     */
+    public void fastBoot() {
+        this.boot(true);
+    }
+
+    private void boot(final boolean fast) {
+        this.reset();
+
+        final CpuContext context = this.context;
+        final Runnable removeBreakpoint = context.addBreakpoint(KERNAL_RESET_CLI);
+        final Runnable removeRamtasBreakpoint = fast ?
+            context.addBreakpoint(KERNAL_RAMTAS) :
+            null;
+        final Runnable removeWatcher = context.addWatcher(
+            new CpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext context) {
+                    final short pc = context.pc();
+                    if (KERNAL_RESET_CLI == pc) {
+                        C64.this.booted = true;
+                        C64.this.stop();
+                    }
+                    if (fast && KERNAL_RAMTAS == pc) {
+                        C64.this.ramtas();
+                    }
+                }
+
+                @Override
+                public void onInvalidOpcode(final CpuContext context) {
+                    // nop
+                }
+
+                @Override
+                public void onNmi(final CpuContext context) {
+                    // nop
+                }
+
+                @Override
+                public void onReset(final CpuContext context) {
+                    // nop
+                }
+            }
+        );
+
+        try {
+            this.booted = false;
+            while (false == this.booted) {
+                this.runFrame();
+            }
+        } finally {
+            removeWatcher.run();
+            if (null != removeRamtasBreakpoint) {
+                removeRamtasBreakpoint.run();
+            }
+            removeBreakpoint.run();
+        }
+    }
+
+    /**
+     * The CLI that enables interrupts at the end of the KERNAL reset routine, immediately followed by a JMP ($A000)
+     * to BASIC.
+     */
+    private final static short KERNAL_RESET_CLI = (short) 0xFCFE;
+
+    /**
+     * The KERNAL RAMTAS routine, which clears pages 0, 2 and 3, sets the tape buffer pointer and then tests every
+     * byte from $0400 until it reaches the BASIC ROM at $A000.
+     */
+    private final static short KERNAL_RAMTAS = (short) 0xFD50;
+
+    /**
+     * The number of cycles taken by RAMTAS from its first instruction to the instruction following the JSR that
+     * called it. The RAM test always stops at $A000 and restores every byte it tests, so this never varies.
+     */
+    final static int KERNAL_RAMTAS_CYCLES = 2003107;
+
+    /**
+     * Writes the results of RAMTAS and returns to its caller, leaving the registers, flags, stack and cycles exactly
+     * as if it had been executed.
+     */
+    private void ramtas() {
+        final CpuContext context = this.context;
+
+        for (int i = 0; i < 256; i++) {
+            context.writeByte((short) (0x0002 + i), (byte) 0);
+            context.writeByte((short) (0x0200 + i), (byte) 0);
+            context.writeByte((short) (0x0300 + i), (byte) 0);
+        }
+
+        // tape buffer pointer
+        context.writeByte((short) 0xb2, (byte) 0x3c);
+        context.writeByte((short) 0xb3, (byte) 0x03);
+
+        // the RAM test pointer is left at $A000 where the test failed, after writing $55 to the RAM under the BASIC ROM
+        context.writeByte((short) 0xc2, (byte) 0xa0);
+        context.writeByte((short) 0xa000, (byte) 0x55);
+
+        // JSR MEMTOP with carry clear leaves its return address below the stack pointer
+        final int stackPointer = context.stackPointer() & 0xff;
+        context.writeByte((short) (0x100 | stackPointer), (byte) 0xfd);
+        context.writeByte((short) (0x100 | ((stackPointer - 1) & 0xff)), (byte) 0x8f);
+
+        // top of memory, bottom of memory and screen page
+        context.writeByte((short) 0x283, (byte) 0x00);
+        context.writeByte((short) 0x284, (byte) 0xa0);
+        context.writeByte((short) 0x282, (byte) 0x08);
+        context.writeByte((short) 0x288, (byte) 0x04);
+
+        context.setA((byte) 0x04);
+        context.setX((byte) 0x00);
+        context.setY((byte) 0xa0);
+        context.setCarry(false);
+        context.setMinusAndZero((byte) 0x04);
+
+        // RTS
+        final int lo = context.pop() & 0xff;
+        final int hi = context.pop() & 0xff;
+        context.setPc((short) (((hi << 8) | lo) + 1));
+
+        context.addCycles(KERNAL_RAMTAS_CYCLES);
+    }
+
+    private boolean booted;
+
+    /**
+     * Runs the CPU until the end of the current frame, returning the actual cycles executed.
+     */
+    public long runFrame() {
+        final int cyclesPerFrame = this.vic.model()
+            .cyclesPerFrame;
+        return this.runCycles(
+            cyclesPerFrame - this.cycles() % cyclesPerFrame
+        );
+    }
+
+    /**
+     * Runs the CPU for at least the given cycles, firing any device events as they fall due. The actual cycles
+     * executed are returned, which may overshoot by a few cycles as instructions are never split.
+     */
+    public long runCycles(final long cycles) {
+        return this.scheduler.run(
+            this.cpu,
+            this.context,
+            cycles
+        );
+    }
+
+    /**
+     * May be called by a breakpoint {@link CpuWatcher} to return from {@link #runCycles(long)} or {@link #runFrame()}
+     * immediately after the breakpoint instruction.
+     */
+    public void stop() {
+        this.scheduler.stop();
+    }
+
+    /**
+     * The total number of CPU cycles executed since this machine was created.
+     */
+    public long cycles() {
+        return this.context.cycles();
+    }
+
+    public Cpu cpu() {
+        return this.cpu;
+    }
+
+    private final Cpu cpu;
+
+    public CpuContext context() {
+        return this.context;
+    }
+
+    private final BasicCpuContext context;
+
+    private final CpuAddressBus addressBus;
+
+    private final CycleScheduler scheduler;
+
+    /**
+     * All 64k of RAM, which is always written to, even when a ROM is visible at the same address.
+     */
+    public AddressBus ram() {
+        return this.ram;
+    }
+
+    private final RamAddressBus ram;
+
+    /**
+     * Passes the number of each 256 byte page of RAM written since the last {@link #clearDirtyRamPages()} in ascending
+     * order to the given {@link IntConsumer}. Restoring a snapshot marks every page as written.
+     */
+    public void forEachDirtyRamPage(final IntConsumer pages) {
+        Objects.requireNonNull(pages, "pages");
+
+        this.ram.dirtyPages()
+            .forEach(pages);
+    }
+
+    /**
+     * Marks all RAM pages as clean, typically after saving or sending the pages reported by
+     * {@link #forEachDirtyRamPage(IntConsumer)}.
+     */
+    public void clearDirtyRamPages() {
+        this.ram.dirtyPages()
+            .clear();
+    }
+
+    private final Memory colour;
+
+    /**
+     * Whether the VIC is a PAL or NTSC chip, which also gives the size of the {@link #frame()}.
+     */
+    public VicModel vicModel() {
+        return this.vic.model();
+    }
+
+    /**
+     * Returns the screen as {@link VicModel#width()} by {@link VicModel#height()} ARGB pixels including the border,
+     * rendered up to the current raster line. The same array is returned every time and updated as the machine runs,
+     * so calling this after each {@link #runFrame()} gives every frame without any allocation.
+     */
+    public int[] frame() {
+        return this.vic.pixels();
+    }
+
+    private final Memory sid;
+
+    private final Memory io1;
+
+    private final Memory io2;
+
+    private final Vic vic;
+
+    private final VicMapper vicMapper;
+
+    private final Ciaa ciaa;
+
+    private final Ciab ciab;
+
+    // snapshot.........................................................................................................
+
+    /**
+     * Captures the state of the CPU, memory and all devices. Breakpoints, traps and watchers are not captured.
+     */
+    public C64Snapshot snapshot() {
+        final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_CAPACITY);
+
+        for (final Snapshotable device : this.devices()) {
+            device.save(buffer);
+        }
+
+        return C64Snapshot.with(
+            Arrays.copyOf(
+                buffer.array(),
+                buffer.position()
+            )
+        );
+    }
+
+    /**
+     * Restores a {@link C64Snapshot} taken from this or any other {@link C64} with the same ROMs. The memory is
+     * restored by array copies, so this is far cheaper than repeating the work that produced the snapshot.
+     */
+    public void restore(final C64Snapshot snapshot) {
+        Objects.requireNonNull(snapshot, "snapshot");
+
+        this.restore(
+            snapshot,
+            this.devices()
+        );
+    }
+
+    private void restore(final C64Snapshot snapshot,
+                         final Snapshotable[] devices) {
+        final ByteBuffer buffer = snapshot.buffer();
+        try {
+            for (final Snapshotable device : devices) {
+                device.restore(buffer);
+            }
+        } catch (final BufferUnderflowException cause) {
+            throw new IllegalArgumentException("Invalid snapshot, too short");
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Invalid snapshot, " + buffer.remaining() + " unexpected bytes");
+        }
+    }
+
+    /**
+     * The devices in the order they are saved. The {@link BasicCpuContext} comes first, so the cycle count is restored
+     * before the CIAs reschedule their timers.
+     */
+    private Snapshotable[] devices() {
+        return new Snapshotable[]{
+            this.context,
+            this.addressBus,
+            this.ram,
+            this.colour,
+            this.sid,
+            this.io1,
+            this.io2,
+            this.vic,
+            this.vicMapper,
+            this.ciaa,
+            this.ciab
+        };
+    }
+
+    /**
+     * Returns an independent copy of this machine, in the same state as if a {@link #snapshot()} had been restored
+     * into a new machine. RAM pages are shared with this machine and only copied by whichever machine writes them
+     * first, so forking is cheap even when thousands of variants are run from the same state. Breakpoints, traps and
+     * watchers are not copied.
+     */
+    public C64 fork() {
+        final C64 fork = new C64(
+            this.cpu,
+            this.kernal,
+            this.vic.model(),
+            this.addressSymbols,
+            this.ram.fork(),
+            null
+        );
+
+        final ByteBuffer buffer = this.saveExceptRam();
+        for (final Snapshotable device : fork.devicesExceptRam()) {
+            device.restore(buffer);
+        }
+
+        return fork;
+    }
+
+    /**
+     * Saves the state of everything but the RAM, returning the buffer ready to be read.
+     */
+    private ByteBuffer saveExceptRam() {
+        final ByteBuffer buffer = ByteBuffer.allocate(FORK_CAPACITY);
+        for (final Snapshotable device : this.devicesExceptRam()) {
+            device.save(buffer);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private Snapshotable[] devicesExceptRam() {
+        return new Snapshotable[]{
+            this.context,
+            this.addressBus,
+            this.colour,
+            this.sid,
+            this.io1,
+            this.io2,
+            this.vic,
+            this.vicMapper,
+            this.ciaa,
+            this.ciab
+        };
+    }
+
+    // mapped...........................................................................................................
+
+    /**
+     * For a machine created by {@link #mapped(Cpu, Map, VicModel, Function, Path)}, writes any RAM changes to its file
+     * and replaces the header with the current CPU and device state. Does nothing for any other machine.
+     */
+    public void force() throws IOException {
+        final Path header = this.header;
+        if (null != header) {
+            this.ram.force();
+
+            final ByteBuffer buffer = this.saveExceptRam();
+            C64Snapshot.with(
+                Arrays.copyOf(
+                    buffer.array(),
+                    buffer.limit()
+                )
+            ).save(header);
+        }
+    }
+
+    /**
+     * The file holding the CPU and device state of a mapped machine, or null.
+     */
+    private final Path header;
+
+    private final RomImage kernal;
+
+    private final Function<Short, Optional<String>> addressSymbols;
+
+    /**
+     * Large enough for all memory and the much smaller device state.
+     */
+    private final static int SNAPSHOT_CAPACITY = 256 * 256 + 1024 + 32 + 256 + 256 + 1024;
+
+    /**
+     * Large enough for everything but the RAM.
+     */
+    private final static int FORK_CAPACITY = SNAPSHOT_CAPACITY - 256 * 256;
+
+    // interrupts.......................................................................................................
+
+    private void irq() {
+        this.context.irq();
+    }
+
+    private void nmi() {
+        this.context.nmi();
+    }
+
+    // keyboard.........................................................................................................
+
+    /**
+     * Presses the given key, which will remain down until it is released.
+     */
+    void keyPress(final HardwareMatrixKey key) {
+        this.keyPress.accept(key);
+    }
+
+    private void setKeyPress(final Consumer<HardwareMatrixKey> keyPress) {
+        this.keyPress = keyPress;
+    }
+
+    private Consumer<HardwareMatrixKey> keyPress;
+
+    /**
+     * Releases a previously pressed key.
+     */
+    void keyRelease(final HardwareMatrixKey key) {
+        this.keyRelease.accept(key);
+    }
+
+    private void setKeyRelease(final Consumer<HardwareMatrixKey> keyRelease) {
+        this.keyRelease = keyRelease;
+    }
+
+    private Consumer<HardwareMatrixKey> keyRelease;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context + " " + this.vic + " " + this.ciaa + " " + this.ciab;
+    }
+}
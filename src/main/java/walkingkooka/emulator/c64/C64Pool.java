@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A bounded pool of {@link C64} for each configuration key. The first {@link C64} for a key is created and booted by
+ * the factory and its {@link C64Snapshot} kept. Every later {@link #borrow(Object)} restores an idle {@link C64} from
+ * that snapshot, which is only a few array copies rather than a complete boot.
+ */
+public final class C64Pool<K> {
+
+    /**
+     * Creates a new empty pool, that will keep at most size idle {@link C64} for each key.
+     */
+    public static <K> C64Pool<K> with(final int size,
+                                      final Function<K, C64> factory) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid size " + size + " <= 0");
+        }
+        Objects.requireNonNull(factory, "factory");
+
+        return new C64Pool<>(
+            size,
+            factory
+        );
+    }
+
+    private C64Pool(final int size,
+                    final Function<K, C64> factory) {
+        super();
+        this.size = size;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns a {@link C64} in the pristine state produced by the factory for the given key. Idle machines are
+     * restored from the snapshot, otherwise a new one is created.
+     */
+    public C64 borrow(final K key) {
+        Objects.requireNonNull(key, "key");
+
+        C64 c64;
+        C64Snapshot snapshot;
+
+        synchronized (this) {
+            final Deque<C64> idle = this.idle.get(key);
+            c64 = null != idle ?
+                idle.poll() :
+                null;
+            snapshot = this.snapshots.get(key);
+        }
+
+        if (null != c64) {
+            c64.restore(snapshot);
+        } else {
+            // boot outside the lock, a newly created machine is already pristine
+            c64 = this.factory.apply(key);
+            if (null == snapshot) {
+                snapshot = c64.snapshot();
+
+                synchronized (this) {
+                    this.snapshots.putIfAbsent(
+                        key,
+                        snapshot
+                    );
+                }
+            }
+        }
+
+        return c64;
+    }
+
+    /**
+     * Returns a {@link C64} previously borrowed with the same key, which is discarded if the pool for that key is
+     * already full.
+     */
+    public void release(final K key,
+                        final C64 c64) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(c64, "c64");
+
+        synchronized (this) {
+            if (false == this.snapshots.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown key " + key);
+            }
+
+            final Deque<C64> idle = this.idle.computeIfAbsent(
+                key,
+                (k) -> new ArrayDeque<>()
+            );
+            if (idle.size() < this.size) {
+                idle.push(c64);
+            }
+        }
+    }
+
+    /**
+     * The number of idle {@link C64} kept for each key.
+     */
+    private final int size;
+
+    private final Function<K, C64> factory;
+
+    private final Map<K, Deque<C64>> idle = Maps.hash();
+
+    /**
+     * The snapshot of the first {@link C64} created for each key.
+     */
+    private final Map<K, C64Snapshot> snapshots = Maps.hash();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "C64Pool size=" + this.size + " " + this.idle;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * The captured state of a {@link C64}, which may be restored any number of times into the same or another
+ * {@link C64} with the same ROMs.
+ * <br>
+ * Snapshots are written with a small header holding a magic number, format version, length and CRC32 of the state
+ * that follows. All values are big endian, so a snapshot saved on one machine may be loaded on any other.
+ */
+public final class C64Snapshot {
+
+    /**
+     * Marks the start of a snapshot, the ASCII characters "C64S".
+     */
+    final static int MAGIC = 0x43363453;
+
+    /**
+     * Bumped whenever the order or size of any saved device state changes.
+     */
+    final static short VERSION = 1;
+
+    /**
+     * MAGIC, VERSION, length and CRC32.
+     */
+    final static int HEADER_SIZE = 4 + 2 + 4 + 4;
+
+    /**
+     * Refuses to allocate anything larger when reading a corrupt length.
+     */
+    final static int MAX_SIZE = 1024 * 1024;
+
+    /**
+     * Reads a snapshot previously saved by {@link #save(Path)}.
+     */
+    public static C64Snapshot load(final Path path) throws IOException {
+        Objects.requireNonNull(path, "path");
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * Reads a snapshot including its header from the given {@link ReadableByteChannel}, verifying the magic, version
+     * and checksum.
+     */
+    public static C64Snapshot read(final ReadableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel, "channel");
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header);
+
+        final int magic = header.getInt();
+        if (MAGIC != magic) {
+            throw new IllegalArgumentException("Invalid snapshot magic 0x" + Integer.toHexString(magic));
+        }
+        final short version = header.getShort();
+        if (VERSION != version) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version + " expected " + VERSION);
+        }
+        final int size = header.getInt();
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid snapshot size " + size);
+        }
+        final int crc = header.getInt();
+
+        final byte[] bytes = new byte[size];
+        readFully(channel, ByteBuffer.wrap(bytes));
+
+        final int actual = crc(bytes);
+        if (crc != actual) {
+            throw new IllegalArgumentException("Invalid snapshot checksum 0x" + Integer.toHexString(actual) + " expected 0x" + Integer.toHexString(crc));
+        }
+        return new C64Snapshot(bytes);
+    }
+
+    private static void readFully(final ReadableByteChannel channel,
+                                  final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (-1 == channel.read(buffer)) {
+                throw new EOFException("Snapshot truncated, missing " + buffer.remaining() + " bytes");
+            }
+        }
+        buffer.flip();
+    }
+
+    static C64Snapshot with(final byte[] bytes) {
+        return new C64Snapshot(bytes);
+    }
+
+    private C64Snapshot(final byte[] bytes) {
+        super();
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns a read only {@link ByteBuffer} positioned at the start of the snapshot.
+     */
+    ByteBuffer buffer() {
+        return ByteBuffer.wrap(this.bytes)
+            .asReadOnlyBuffer();
+    }
+
+    /**
+     * The number of bytes in this snapshot.
+     */
+    public int size() {
+        return this.bytes.length;
+    }
+
+    /**
+     * Saves this snapshot to the given file, replacing any previous content.
+     */
+    public void save(final Path path) throws IOException {
+        Objects.requireNonNull(path, "path");
+
+        try (final FileChannel channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+            this.write(channel);
+        }
+    }
+
+    /**
+     * Writes the header followed by the snapshot to the given {@link WritableByteChannel}.
+     */
+    public void write(final WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel, "channel");
+
+        final byte[] bytes = this.bytes;
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(MAGIC)
+            .putShort(VERSION)
+            .putInt(bytes.length)
+            .putInt(crc(bytes))
+            .flip();
+
+        writeFully(channel, header);
+        writeFully(channel, ByteBuffer.wrap(bytes));
+    }
+
+    private static void writeFully(final WritableByteChannel channel,
+                                   final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int crc(final byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Never modified after creation, so a snapshot may be shared by many machines.
+     */
+    private final byte[] bytes;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "C64Snapshot " + this.bytes.length + " bytes";
+    }
+}
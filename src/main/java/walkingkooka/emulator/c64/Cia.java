@@ -20,12 +20,15 @@ package walkingkooka.emulator.c64;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.ToStringBuilderOption;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /**
  * Base class for both CIA chips, capturing common stuff, such as the direction ports, timers and clock and interrupts.
  * <br>
  * <a href="https://www.c64-wiki.com/wiki/CIA>CIA</a>
  */
-abstract class Cia implements AddressBus, Updatable {
+abstract class Cia implements AddressBus, Updatable, Snapshotable {
 
     Cia(final Runnable interrupt) {
         super();
@@ -43,11 +46,11 @@ abstract class Cia implements AddressBus, Updatable {
     final static int DDRA = 2;
     final static int DDRB = 3;
 
-    final static int TA_HI = 4;
-    final static int TA_LO = TA_HI + 1;
+    final static int TA_LO = 4;
+    final static int TA_HI = TA_LO + 1;
 
-    final static int TB_HI = 6;
-    final static int TB_LO = TB_HI + 1;
+    final static int TB_LO = 6;
+    final static int TB_HI = TB_LO + 1;
 
     final static int TOD_10TH = 8;
     final static int TOD_SEC = TOD_10TH + 1;
@@ -64,6 +67,8 @@ abstract class Cia implements AddressBus, Updatable {
 
     @Override
     public byte read(final int offset) {
+        this.sync();
+
         byte value;
 
         switch (offset & MASK) {
@@ -130,6 +135,16 @@ abstract class Cia implements AddressBus, Updatable {
     @Override
     public void write(final int offset,
                       final byte value) {
+        this.sync();
+        this.write0(
+            offset,
+            value
+        );
+        this.reschedule();
+    }
+
+    private void write0(final int offset,
+                        final byte value) {
         switch (offset & MASK) {
             case PRA:
                 this.writeDataPortA(value);
@@ -286,7 +301,7 @@ abstract class Cia implements AddressBus, Updatable {
      */
     final static Bit TIMER_START = Bit.BIT0;
     final static Bit TIMER_LOAD_LATCH = Bit.BIT4;
-    final static Bit TIMER_RESTART_AFTER_UNDERFLOW = Bit.BIT3;
+    final static Bit TIMER_STOP_AFTER_UNDERFLOW = Bit.BIT3;
 
     private byte readCra() {
         return this.cra;
@@ -310,7 +325,7 @@ abstract class Cia implements AddressBus, Updatable {
             "",
             "",
             "TIMER_LOAD_LATCH",
-            "TIMER_RESTART_AFTER_UNDERFLOW",
+            "TIMER_STOP_AFTER_UNDERFLOW",
             "",
             "",
             "TIMER_START");
@@ -325,12 +340,12 @@ abstract class Cia implements AddressBus, Updatable {
     }
 
     private void writeTimerALo(final byte value) {
-        this.timerALatch = (this.timerALatch & 0xff00) + value;
+        this.timerALatch = (this.timerALatch & 0xff00) | (value & 0xff);
         this.timerA.setLatch(this.timerALatch);
     }
 
     private void writeTimerAHi(final byte value) {
-        this.timerALatch = value << 8 + (this.timerALatch & 0xff);
+        this.timerALatch = ((value & 0xff) << 8) | (this.timerALatch & 0xff);
         this.timerA.setLatch(this.timerALatch);
     }
 
@@ -350,13 +365,18 @@ abstract class Cia implements AddressBus, Updatable {
         this.icrMask = TIMERA_UNDERFLOW.set(this.icrMask);
 
         // Bit 3: 0 = Timer-restart after underflow (latch will be reloaded), 1 = Timer stops after underflow..
-        if (TIMER_RESTART_AFTER_UNDERFLOW.read(this.cra)) {
+        if (false == TIMER_STOP_AFTER_UNDERFLOW.read(this.cra)) {
             this.timerA.loadLatch();
         }
 
         if (TIMERA_UNDERFLOW.read(this.icrEnabled)) {
             this.interrupt.run();
         }
+
+        // Bit 6 of CRB: timer B counts one for every timer A underflow
+        if (this.timerBStart && TIMER_COUNT_TIMERA.read(this.crb)) {
+            this.timerB.update(1);
+        }
     }
 
     // timerB...........................................................................................................
@@ -375,9 +395,11 @@ abstract class Cia implements AddressBus, Updatable {
      *  %11 = Timer counts underflow of timer A if the CNT-pin is high
      * Bit 7: 0 = Writing into the TOD register sets the clock time, 1 = Writing into the TOD register sets the alarm time.
      * </pre>
-     * TODO BIT1, BIT2, BIT5, BIT6
+     * The CNT-pin is not emulated and is treated as always high, so both %10 and %11 count timer A underflows.
+     * TODO BIT1, BIT2, BIT5
      */
     final static Bit ALARM_WRITE = Bit.BIT7;
+    final static Bit TIMER_COUNT_TIMERA = Bit.BIT6;
 
     private byte readCrb() {
         return this.crb;
@@ -403,10 +425,10 @@ abstract class Cia implements AddressBus, Updatable {
     private String crbToString() {
         return Bit.byteText(this.crb,
             "ALARM_WRITE",
-            "",
+            "TIMER_COUNT_TIMERA",
             "",
             "TIMER_LOAD_LATCH",
-            "TIMER_RESTART_AFTER_UNDERFLOW",
+            "TIMER_STOP_AFTER_UNDERFLOW",
             "",
             "",
             "TIMER_START");
@@ -421,23 +443,30 @@ abstract class Cia implements AddressBus, Updatable {
     }
 
     private void writeTimerBLo(final byte value) {
-        this.timerBLatch = (this.timerBLatch & 0xff00) + value;
+        this.timerBLatch = (this.timerBLatch & 0xff00) | (value & 0xff);
         this.timerB.setLatch(this.timerBLatch);
     }
 
     private void writeTimerBHi(final byte value) {
-        this.timerBLatch = value << 8 + (this.timerBLatch & 0xff);
+        this.timerBLatch = ((value & 0xff) << 8) | (this.timerBLatch & 0xff);
         this.timerB.setLatch(this.timerBLatch);
     }
 
     private int timerBLatch = 0;
 
     private void updateTimerB(final int cycles) {
-        if (this.timerBStart) {
+        if (this.timerBCountsCycles()) {
             this.timerB.update(cycles);
         }
     }
 
+    /**
+     * Timer B counts system cycles when started unless bit 6 selects counting timer A underflows.
+     */
+    private boolean timerBCountsCycles() {
+        return this.timerBStart && false == TIMER_COUNT_TIMERA.read(this.crb);
+    }
+
     private boolean timerBStart; // BIT0
 
     final Timer timerB = Timer.with(this::timerBUnderflow);
@@ -446,7 +475,7 @@ abstract class Cia implements AddressBus, Updatable {
         this.icrMask = TIMERB_UNDERFLOW.set(this.icrMask);
 
         // Bit 3: 0 = Timer-restart after underflow (latch will be reloaded), 1 = Timer stops after underflow..
-        if (TIMER_RESTART_AFTER_UNDERFLOW.read(this.crb)) {
+        if (false == TIMER_STOP_AFTER_UNDERFLOW.read(this.crb)) {
             this.timerB.loadLatch();
         }
 
@@ -636,6 +665,192 @@ abstract class Cia implements AddressBus, Updatable {
         this.updateClock(cycles);
     }
 
+    // CycleScheduler...................................................................................................
+
+    /**
+     * Attaches this CIA to the given {@link CycleScheduler}. From then on the timers and clock are only brought up to
+     * date from {@link CycleScheduler#now()} when a register is accessed or the next underflow or alarm is due, rather
+     * than by calling {@link #update(int)} after every instruction.
+     */
+    final void schedule(final CycleScheduler scheduler) {
+        Objects.requireNonNull(scheduler, "scheduler");
+        if (null != this.scheduler) {
+            throw new IllegalStateException("CIA already scheduled");
+        }
+
+        this.scheduler = scheduler;
+        this.event = scheduler.register(this::scheduledEvent);
+        this.synced = scheduler.now();
+
+        this.reschedule();
+    }
+
+    /**
+     * Updates the timers and clock by the cycles that have passed since they were last updated.
+     */
+    private void sync() {
+        final CycleScheduler scheduler = this.scheduler;
+        if (null != scheduler) {
+            final long now = scheduler.now();
+            final long cycles = now - this.synced;
+            if (cycles > 0) {
+                this.synced = now;
+                this.update(
+                    (int) Math.min(
+                        cycles,
+                        Integer.MAX_VALUE
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Schedules the event for the earliest timer underflow or clock alarm, or cancels it if neither can happen.
+     */
+    private void reschedule() {
+        final CycleScheduler scheduler = this.scheduler;
+        if (null != scheduler) {
+            long next = Long.MAX_VALUE;
+
+            if (this.timerAStart) {
+                next = earliest(
+                    next,
+                    this.timerA.cyclesUntilUnderflow()
+                );
+            }
+            // timer B counting timer A underflows can only underflow when timer A does
+            if (this.timerBCountsCycles()) {
+                next = earliest(
+                    next,
+                    this.timerB.cyclesUntilUnderflow()
+                );
+            }
+            if (this.clockRunning) {
+                next = earliest(
+                    next,
+                    this.clock.ticksUntilAlarm()
+                );
+            }
+
+            if (Long.MAX_VALUE == next) {
+                scheduler.cancel(this.event);
+            } else {
+                scheduler.schedule(
+                    this.event,
+                    this.synced + next
+                );
+            }
+        }
+    }
+
+    private static long earliest(final long next,
+                                 final long cycles) {
+        return cycles < 0 ?
+            next :
+            Math.min(
+                next,
+                cycles
+            );
+    }
+
+    private void scheduledEvent() {
+        this.sync();
+        this.reschedule();
+    }
+
+    private CycleScheduler scheduler;
+
+    private int event;
+
+    /**
+     * The scheduler cycle the timers and clock were last updated.
+     */
+    private long synced;
+
+    // Snapshotable.....................................................................................................
+
+    @Override
+    public final void save(final ByteBuffer buffer) {
+        this.sync();
+
+        buffer.put(this.dataDirectionPortA);
+        buffer.put(this.dataDirectionPortB);
+        this.savePorts(buffer);
+
+        buffer.put(this.icrMask);
+        buffer.put(this.icrEnabled);
+
+        buffer.put(this.cra);
+        buffer.putInt(this.timerALatch);
+        Snapshotable.putBoolean(buffer, this.timerAStart);
+        this.timerA.save(buffer);
+
+        buffer.put(this.crb);
+        buffer.putInt(this.timerBLatch);
+        Snapshotable.putBoolean(buffer, this.timerBStart);
+        this.timerB.save(buffer);
+
+        buffer.put(this.readTod10th);
+        buffer.put(this.readTodSec);
+        buffer.put(this.readTodMin);
+        buffer.put(this.readTodHr);
+        Snapshotable.putBoolean(buffer, this.todReadBuffered);
+        buffer.put(this.writeHours);
+        buffer.put(this.writeMinutes);
+        buffer.put(this.writeSeconds);
+        Snapshotable.putBoolean(buffer, this.clockRunning);
+        this.clock.save(buffer);
+    }
+
+    /**
+     * Restores all registers, timers and the clock, rescheduling any pending underflow or alarm from the current
+     * {@link CycleScheduler#now()}, which should already have been restored.
+     */
+    @Override
+    public final void restore(final ByteBuffer buffer) {
+        this.dataDirectionPortA = buffer.get();
+        this.dataDirectionPortB = buffer.get();
+        this.restorePorts(buffer);
+
+        this.icrMask = buffer.get();
+        this.icrEnabled = buffer.get();
+
+        this.cra = buffer.get();
+        this.timerALatch = buffer.getInt();
+        this.timerAStart = Snapshotable.getBoolean(buffer);
+        this.timerA.restore(buffer);
+
+        this.crb = buffer.get();
+        this.timerBLatch = buffer.getInt();
+        this.timerBStart = Snapshotable.getBoolean(buffer);
+        this.timerB.restore(buffer);
+
+        this.readTod10th = buffer.get();
+        this.readTodSec = buffer.get();
+        this.readTodMin = buffer.get();
+        this.readTodHr = buffer.get();
+        this.todReadBuffered = Snapshotable.getBoolean(buffer);
+        this.writeHours = buffer.get();
+        this.writeMinutes = buffer.get();
+        this.writeSeconds = buffer.get();
+        this.clockRunning = Snapshotable.getBoolean(buffer);
+        this.clock.restore(buffer);
+
+        final CycleScheduler scheduler = this.scheduler;
+        if (null != scheduler) {
+            this.synced = scheduler.now();
+            this.reschedule();
+        }
+    }
+
+    /**
+     * Saves the data ports and any other state belonging to the sub class.
+     */
+    abstract void savePorts(final ByteBuffer buffer);
+
+    abstract void restorePorts(final ByteBuffer buffer);
+
     // ToString.........................................................................................................
 
     @Override
@@ -17,6 +17,7 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
 import java.util.EnumSet;
 import java.util.Objects;
 import java.util.Set;
@@ -135,4 +136,33 @@ final class Ciaa extends Cia {
      * A true selects that bit for output, and false for input
      */
     private byte dataPortB;
+
+    /**
+     * Saves the ports and the keys that are down, one bit for each {@link HardwareMatrixKey}.
+     */
+    @Override
+    void savePorts(final ByteBuffer buffer) {
+        buffer.put(this.dataPortA);
+        buffer.put(this.dataPortB);
+
+        long keysDown = 0;
+        for (final HardwareMatrixKey key : this.keysDown) {
+            keysDown |= 1L << key.ordinal();
+        }
+        buffer.putLong(keysDown);
+    }
+
+    @Override
+    void restorePorts(final ByteBuffer buffer) {
+        this.dataPortA = buffer.get();
+        this.dataPortB = buffer.get();
+
+        final long keysDown = buffer.getLong();
+        this.keysDown.clear();
+        for (final HardwareMatrixKey key : HardwareMatrixKey.values()) {
+            if (0 != (keysDown & (1L << key.ordinal()))) {
+                this.keysDown.add(key);
+            }
+        }
+    }
 }
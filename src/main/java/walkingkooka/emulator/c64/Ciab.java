@@ -17,6 +17,7 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
@@ -63,7 +64,12 @@ final class Ciab extends Cia {
     void writeDataPortA(final byte value) {
         this.portA = value;
 
-        this.mapper.setBank(VicBank.fromDataPortByte(value));
+        // only bits 0-1 select the bank, the remaining bits drive the serial bus and RS232
+        this.mapper.setBank(
+            VicBank.fromDataPortByte(
+                (byte) (value & 0b11)
+            )
+        );
     }
 
     @Override
@@ -74,5 +80,20 @@ final class Ciab extends Cia {
     private byte portA;
     private byte portB;
 
+    /**
+     * The VIC bank is saved separately by the {@link VicMapper}, as it may differ from port A before it is written.
+     */
+    @Override
+    void savePorts(final ByteBuffer buffer) {
+        buffer.put(this.portA);
+        buffer.put(this.portB);
+    }
+
+    @Override
+    void restorePorts(final ByteBuffer buffer) {
+        this.portA = buffer.get();
+        this.portB = buffer.get();
+    }
+
     private final VicMapper mapper;
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Read/write memory held as 256 byte pages, which may be shared with other {@link CopyOnWriteMemory} created by
+ * {@link #fork()}. A shared page is only copied when first written, so a fork costs one reference per page and
+ * each copy thereafter is limited to the pages actually touched.
+ * Note the offset will be masked, just like {@link Memory}.
+ */
+final class CopyOnWriteMemory implements RamAddressBus {
+
+    /**
+     * Creates some memory. The size should be a power of two and at least a single page. Every page starts out
+     * sharing the same page of zeros.
+     */
+    static CopyOnWriteMemory with(final int size) {
+        if (size < PAGE_SIZE) {
+            throw new IllegalArgumentException("Size " + size + " < " + PAGE_SIZE);
+        }
+
+        final int pageCount = size / PAGE_SIZE;
+        final byte[][] pages = new byte[pageCount][];
+        final byte[] zeros = new byte[PAGE_SIZE];
+        for (int i = 0; i < pageCount; i++) {
+            pages[i] = zeros;
+        }
+
+        return new CopyOnWriteMemory(
+            pages,
+            shared(pageCount),
+            size - 1,
+            DirtyPages.with(pageCount)
+        );
+    }
+
+    private static boolean[] shared(final int pageCount) {
+        final boolean[] shared = new boolean[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            shared[i] = true;
+        }
+        return shared;
+    }
+
+    private CopyOnWriteMemory(final byte[][] pages,
+                              final boolean[] shared,
+                              final int mask,
+                              final DirtyPages dirtyPages) {
+        super();
+        this.pages = pages;
+        this.shared = shared;
+        this.mask = mask;
+        this.dirtyPages = dirtyPages;
+    }
+
+    @Override
+    public byte read(final int offset) {
+        final int masked = offset & this.mask;
+        return this.pages[masked >> 8][masked & 0xff];
+    }
+
+    @Override
+    public void write(final int offset, final byte value) {
+        final int masked = offset & this.mask;
+        final int page = masked >> 8;
+
+        byte[] values = this.pages[page];
+        if (this.shared[page]) {
+            values = values.clone();
+            this.pages[page] = values;
+            this.shared[page] = false;
+        }
+        values[masked & 0xff] = value;
+        this.dirtyPages.mark(page);
+    }
+
+    /**
+     * Copies the bytes a page at a time.
+     */
+    @Override
+    public void read(final int offset,
+                     final byte[] values,
+                     final int valuesOffset,
+                     final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final byte[][] pages = this.pages;
+        final int mask = this.mask;
+        int from = offset;
+        int to = valuesOffset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = from & mask;
+            final int pageOffset = masked & 0xff;
+            final int count = Math.min(remaining, PAGE_SIZE - pageOffset);
+            System.arraycopy(pages[masked >> 8], pageOffset, values, to, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Copies the bytes a page at a time, copying any shared page first.
+     */
+    @Override
+    public void write(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final byte[][] pages = this.pages;
+        final boolean[] shared = this.shared;
+        final int mask = this.mask;
+        int from = valuesOffset;
+        int to = offset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = to & mask;
+            final int page = masked >> 8;
+            final int pageOffset = masked & 0xff;
+            final int count = Math.min(remaining, PAGE_SIZE - pageOffset);
+
+            if (shared[page]) {
+                pages[page] = pages[page].clone();
+                shared[page] = false;
+            }
+            System.arraycopy(values, from, pages[page], pageOffset, count);
+            this.dirtyPages.mark(page);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Returns an independent copy of this memory. All pages become shared by both, and are copied by whichever
+     * writes to them first. The fork starts with the same {@link DirtyPages} as this memory.
+     */
+    @Override
+    public CopyOnWriteMemory fork() {
+        final boolean[] shared = this.shared;
+        final int pageCount = shared.length;
+        for (int i = 0; i < pageCount; i++) {
+            shared[i] = true;
+        }
+
+        return new CopyOnWriteMemory(
+            this.pages.clone(),
+            shared(pageCount),
+            this.mask,
+            this.dirtyPages.copy()
+        );
+    }
+
+    @Override
+    public DirtyPages dirtyPages() {
+        return this.dirtyPages;
+    }
+
+    /**
+     * Nothing to write, as every page is held by the process.
+     */
+    @Override
+    public void force() {
+        // nop
+    }
+
+    private final DirtyPages dirtyPages;
+
+    /**
+     * Tests if the page holding the given offset is still shared and has not been written since this memory was
+     * created or forked.
+     */
+    boolean isShared(final int offset) {
+        return this.shared[(offset & this.mask) >> 8];
+    }
+
+    private final static int PAGE_SIZE = 256;
+
+    /**
+     * The pages of memory, some of which may be shared with other {@link CopyOnWriteMemory}.
+     */
+    private final byte[][] pages;
+
+    /**
+     * When true the page at the same index must be copied before it is written.
+     */
+    private final boolean[] shared;
+
+    /**
+     * Mask used to mask out unnecessary offset bits.
+     */
+    private final int mask;
+
+    // Snapshotable.....................................................................................................
+
+    @Override
+    public void save(final ByteBuffer buffer) {
+        for (final byte[] page : this.pages) {
+            buffer.put(page);
+        }
+    }
+
+    /**
+     * Shared pages are replaced rather than overwritten, as they may still belong to another memory.
+     */
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        final byte[][] pages = this.pages;
+        final boolean[] shared = this.shared;
+
+        for (int i = 0; i < pages.length; i++) {
+            if (shared[i]) {
+                pages[i] = new byte[PAGE_SIZE];
+                shared[i] = false;
+            }
+            buffer.get(pages[i]);
+        }
+        this.dirtyPages.markAll();
+    }
+
+    /**
+     * Reports memory and the read/write mask.
+     */
+    @Override
+    public String toString() {
+        return "CopyOnWriteMemory 0x" + Integer.toHexString(this.mask);
+    }
+}
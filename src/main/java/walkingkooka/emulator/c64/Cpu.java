@@ -25,5 +25,17 @@ public interface Cpu {
 
     String disassemble(final CpuContext context);
 
-    void step(final CpuContext context);
+    /**
+     * Executes a single instruction, returning the number of cycles it consumed including any page crossing or
+     * taken branch penalties.
+     */
+    int step(final CpuContext context);
+
+    /**
+     * Executes instructions until at least the given number of cycles have been consumed, returning the actual
+     * number of cycles used. Pending interrupts are handled between instructions, and execution returns early after
+     * the instruction at a breakpoint so the caller may check any state changed by a {@link CpuWatcher}.
+     */
+    long run(final CpuContext context,
+             final long cycleBudget);
 }
@@ -17,6 +17,7 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
@@ -52,7 +53,7 @@ import java.util.Objects;
  * CHAREN (bit 2, weight 4) is a control line which banks the 4 kByte character generator ROM in or out of the CPU address space. From the CPU point of view, the character generator ROM occupies the same address space as the I/O devices ($D000-$DFFF). When the CHAREN line is set to 1 (as is normal), the I/O devices appear in the CPU address space, and the character generator ROM is not accessible. When the CHAREN bit is cleared to 0, the character generator ROM appears in the CPU address space, and the I/O devices are not accessible. The CPU only needs to access the character generator ROM when downloading the character set from ROM to RAM. CHAREN can be overridden by other control lines in certain memory configurations. CHAREN will have no effect on any memory configuration without I/O devices. RAM will appear from $D000-$DFFF instead.
  * </pre>
  */
-final class CpuAddressBus implements AddressBus {
+final class CpuAddressBus implements AddressBus, Snapshotable {
 
     static CpuAddressBus with(final AddressBus memory,
                               final AddressBus basic,
@@ -97,6 +98,8 @@ final class CpuAddressBus implements AddressBus {
         this.chargen = chargen;
         this.ioDevices = ioDevices;
         this.kernal = kernal;
+
+        this.mapPages();
     }
 
     final static int BASIC_ROM_BEGIN = 0xFFFF & BASIC_BASE;
@@ -110,56 +113,27 @@ final class CpuAddressBus implements AddressBus {
 
     @Override
     public byte read(final int offset) {
-        final byte value;
-
-        if (this.basicRomMapped && offset >= BASIC_ROM_BEGIN && offset <= BASIC_ROM_END) {
-            value = this.basic.read(offset);
-        } else {
-            if (offset >= IO_DEVICES_BEGIN && offset <= IO_DEVICES_END) {
-                value = this.ioDevicesMapped ?
-                    this.ioDevices.read(offset) :
-                    this.chargen.read(offset);
-            } else {
-                if (this.kernalRomMapped && offset >= KERNAL_ROM_BEGIN && offset <= KERNAL_ROM_END) {
-                    value = this.kernal.read(offset);
-                } else {
-                    // default read from memory...
-                    value = this.memory.read(offset);
-                }
-            }
-        }
-
-        return value;
+        final int masked = offset & MASK;
+        return this.reads[masked >> 8].read(masked);
     }
 
     /**
-     * If offset is within IODEVICE range and iodevices are mapped in write to the devices, otherwise
-     * write to memory with a special case for the PORT1 (BANK control).
+     * Writes are dispatched to the target for the page, which is memory for any page under a ROM, with a special case
+     * for the PORT1 (BANK control).
      */
     @Override
     public void write(final int offset,
                       final byte value) {
         final int masked = offset & MASK;
-        if (masked >= IO_DEVICES_BEGIN & masked <= IO_DEVICES_END) {
-            if (this.ioDevicesMapped) {
-                this.ioDevices.write(masked, value);
+        if (masked <= PORT) {
+            if (DATA_DIRECTION == masked) {
+                this.writeDataDirection(value);
             } else {
-                this.chargen.write(masked, value); // assumes writing to CHARGEN eventually writes to memory
-            }
-        } else {
-            switch (masked) {
-                case DATA_DIRECTION:
-                    this.writeDataDirection(value);
-                    break;
-                case PORT:
-                    this.writePort(value);
-                    break;
-                default:
-                    break;
+                this.writePort(value);
             }
-
-            this.memory.write(masked, value);
         }
+
+        this.writes[masked >> 8].write(masked, value);
     }
 
     final static int MASK = 0xffff;
@@ -168,32 +142,119 @@ final class CpuAddressBus implements AddressBus {
     final static int PORT = 1;
 
     private void writeDataDirection(final byte value) {
-        this.basicRomOutput = LORAM.read(value);
-        this.ioDevicesOutput = CHAREN.read(value);
-        this.kernalRomOutput = HIRAM.read(value);
+        this.dataDirection = value;
 
         this.writePort(this.port);
     }
 
+    /**
+     * <pre>
+     * Bit+-------------+-----------+------------+
+     * 210| $8000-$BFFF |$D000-$DFFF|$E000-$FFFF |
+     * +---+---+-------------+-----------+------------+
+     * | 7 |111| Cart.+Basic |    I/O    | Kernal ROM |
+     * | 6 |110|     RAM     |    I/O    | Kernal ROM |
+     * | 5 |101|     RAM     |    I/O    |    RAM     |
+     * | 4 |100|     RAM     |    RAM    |    RAM     |
+     * | 3 |011| Cart.+Basic | Char. ROM | Kernal ROM |
+     * | 2 |010|     RAM     | Char. ROM | Kernal ROM |
+     * | 1 |001|     RAM     | Char. ROM |    RAM     |
+     * | 0 |000|     RAM     |    RAM    |    RAM     |
+     * +---+---+-------------+-----------+------------+
+     * </pre>
+     * Bits configured as inputs by the data direction register are treated as 0.
+     */
     private void writePort(final byte value) {
-        this.basicRomMapped = this.basicRomOutput &&
-            LORAM.read(value);
-        this.ioDevicesMapped = this.ioDevicesOutput &&
-            CHAREN.read(value);
-        this.kernalRomMapped = this.kernalRomOutput &&
-            HIRAM.read(value);
+        final byte outputs = (byte) (value & this.dataDirection);
+
+        final boolean loram = LORAM.read(outputs);
+        final boolean hiram = HIRAM.read(outputs);
+        final boolean charen = CHAREN.read(outputs);
+
+        final boolean basicRomMapped = loram && hiram;
+        final boolean kernalRomMapped = hiram;
+        final boolean ioDevicesMapped = (loram || hiram) && charen;
+        final boolean chargenMapped = (loram || hiram) && false == charen;
+
+        // only rebuild the page tables when the banking actually changes
+        if (basicRomMapped != this.basicRomMapped ||
+            kernalRomMapped != this.kernalRomMapped ||
+            ioDevicesMapped != this.ioDevicesMapped ||
+            chargenMapped != this.chargenMapped) {
+            this.basicRomMapped = basicRomMapped;
+            this.kernalRomMapped = kernalRomMapped;
+            this.ioDevicesMapped = ioDevicesMapped;
+            this.chargenMapped = chargenMapped;
+
+            this.mapPages();
+        }
 
         this.port = value;
     }
 
-    boolean basicRomOutput;
-    boolean ioDevicesOutput;
-    boolean kernalRomOutput;
+    /**
+     * Rebuilds the {@link #reads} and {@link #writes} page tables from the mapped flags. Writes to a page with a ROM
+     * always go to the memory beneath.
+     */
+    void mapPages() {
+        final AddressBus memory = this.memory;
+        final AddressBus[] reads = this.reads;
+        final AddressBus[] writes = this.writes;
+
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            final int offset = page << 8;
+
+            AddressBus read = memory;
+            AddressBus write = memory;
+
+            if (offset >= BASIC_ROM_BEGIN && offset <= BASIC_ROM_END) {
+                if (this.basicRomMapped) {
+                    read = this.basic;
+                }
+            } else {
+                if (offset >= IO_DEVICES_BEGIN && offset <= IO_DEVICES_END) {
+                    if (this.ioDevicesMapped) {
+                        read = this.ioDevices;
+                        write = this.ioDevices;
+                    } else {
+                        if (this.chargenMapped) {
+                            read = this.chargen;
+                        }
+                    }
+                } else {
+                    if (offset >= KERNAL_ROM_BEGIN && this.kernalRomMapped) {
+                        read = this.kernal;
+                    }
+                }
+            }
+
+            reads[page] = read;
+            writes[page] = write;
+        }
+    }
+
+    private final static int PAGE_COUNT = 256;
+
+    /**
+     * The {@link AddressBus} that handles reads for each page.
+     */
+    private final AddressBus[] reads = new AddressBus[PAGE_COUNT];
+
+    /**
+     * The {@link AddressBus} that handles writes for each page.
+     */
+    private final AddressBus[] writes = new AddressBus[PAGE_COUNT];
 
     boolean basicRomMapped;
     boolean ioDevicesMapped;
+    boolean chargenMapped;
     boolean kernalRomMapped;
 
+    /**
+     * Cached local copy of the 6510 data direction register (memory 0x0)
+     */
+    byte dataDirection;
+
     /**
      * Cached local copy of the 6510 port register (memory 0x1)
      */
@@ -243,6 +304,23 @@ final class CpuAddressBus implements AddressBus {
     private final AddressBus ioDevices;
     private final AddressBus kernal;
 
+    // Snapshotable.....................................................................................................
+
+    /**
+     * Saves the 6510 port which selects the banking, the RAM, ROMs and devices are saved separately.
+     */
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.put(this.dataDirection);
+        buffer.put(this.port);
+    }
+
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        this.dataDirection = buffer.get();
+        this.writePort(buffer.get());
+    }
+
     @Override
     public String toString() {
         final StringBuilder toString = new StringBuilder();
@@ -251,13 +329,15 @@ final class CpuAddressBus implements AddressBus {
             toString.append("BASIC");
         }
 
-        if (toString.length() > 0) {
-            toString.append(" ");
-        }
-        if (this.ioDevicesMapped) {
-            toString.append("IO");
-        } else {
-            toString.append("CHARGEN");
+        if (this.ioDevicesMapped || this.chargenMapped) {
+            if (toString.length() > 0) {
+                toString.append(" ");
+            }
+            toString.append(
+                this.ioDevicesMapped ?
+                    "IO" :
+                    "CHARGEN"
+            );
         }
 
         if (this.kernalRomMapped) {
@@ -267,6 +347,8 @@ final class CpuAddressBus implements AddressBus {
             toString.append("KERNAL");
         }
 
-        return toString.toString();
+        return toString.length() > 0 ?
+            toString.toString() :
+            "RAM";
     }
 }
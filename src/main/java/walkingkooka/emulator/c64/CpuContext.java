@@ -19,6 +19,8 @@ package walkingkooka.emulator.c64;
 
 import walkingkooka.Context;
 
+import java.util.function.Consumer;
+
 public interface CpuContext extends Context {
 
     byte a();
@@ -65,6 +67,14 @@ public interface CpuContext extends Context {
 
     void setZero(final boolean zero);
 
+    /**
+     * Sets the N and Z flags from the given result. Implementations may defer the flag update until a flag is read.
+     */
+    default void setMinusAndZero(final byte value) {
+        this.setZero(0 == value);
+        this.setMinus(value < 0);
+    }
+
     byte stackPointer();
 
     void setStackPointer(final byte stackPointer);
@@ -73,6 +83,16 @@ public interface CpuContext extends Context {
 
     void setPc(final short pc);
 
+    /**
+     * The running count of cycles consumed by executed instructions and serviced interrupts.
+     */
+    long cycles();
+
+    /**
+     * Adds the given number of cycles to the running count.
+     */
+    void addCycles(final int cycles);
+
     byte readByte(final short address);
 
     void writeByte(final short address,
@@ -106,6 +126,11 @@ public interface CpuContext extends Context {
 
     void irq();
 
+    /**
+     * Returns true if a RESET, NMI or IRQ is waiting to be handled by {@link #handleInterrupts()}.
+     */
+    boolean isInterruptPending();
+
     void handleInterrupts();
 
     void handleInvalidOpcode();
@@ -114,10 +139,27 @@ public interface CpuContext extends Context {
 
     void handleReset();
 
-    void handleBreakpoints();
+    /**
+     * Fires any watchers if the current pc has a breakpoint, returning true if a breakpoint was fired.
+     */
+    boolean handleBreakpoints();
 
     Runnable addBreakpoint(final short address);
 
+    /**
+     * Invoked by {@link CpuInstructions#trap()} with the pc after the trap number, calls the handler added for the trap
+     * number. If there is none the pc is moved back to just after the JAM opcode and {@link #handleInvalidOpcode()}
+     * is called, just as an unpatched JAM would.
+     */
+    void handleTrap(final byte trap);
+
+    /**
+     * Adds the handler for the given trap number, returning a {@link Runnable} that removes it. Only one handler may
+     * be added for each trap number.
+     */
+    Runnable addTrap(final byte trap,
+                     final Consumer<CpuContext> handler);
+
     Runnable addWatcher(final CpuWatcher watcher);
 
     /**
@@ -32,6 +32,12 @@ public interface CpuInstruction {
      */
     int length();
 
+    /**
+     * The number of cycles taken to execute this instruction, excluding any extra cycles taken when an indexed read
+     * crosses a page or a branch is taken, which are added to the {@link CpuContext} by {@link #execute(CpuContext)}.
+     */
+    int cycles();
+
     /**
      * Execute this instruction, advancing pc, updating memory or flags etc, ready for the next instruction to be executed.<br>
      * Note this assumes the {@link CpuContext#pc()} has been advanced to the byte following the opcode
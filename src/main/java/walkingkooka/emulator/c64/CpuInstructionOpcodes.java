@@ -313,6 +313,11 @@ public interface CpuInstructionOpcodes {
 
     byte TAY = (byte) 0xA8;
 
+    /**
+     * One of the JAM opcodes, which halt a real 6510, reserved for {@link CpuInstructionSharedTrap}.
+     */
+    byte TRAP = (byte) 0x02;
+
     byte TSX = (byte) 0xBA;
 
     byte TXA = (byte) 0x8A;
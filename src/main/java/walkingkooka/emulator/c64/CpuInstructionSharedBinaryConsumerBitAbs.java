@@ -58,6 +58,11 @@ final class CpuInstructionSharedBinaryConsumerBitAbs extends CpuInstructionShare
         return BITABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
@@ -58,6 +58,11 @@ final class CpuInstructionSharedBinaryConsumerBitZp extends CpuInstructionShared
         return BITZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpAbs extends CpuInstructi
         return CMPABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
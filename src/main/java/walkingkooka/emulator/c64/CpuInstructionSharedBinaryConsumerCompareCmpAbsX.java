@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpAbsX extends CpuInstruct
         return CMPABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpAbsY extends CpuInstruct
         return CMPABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSY;
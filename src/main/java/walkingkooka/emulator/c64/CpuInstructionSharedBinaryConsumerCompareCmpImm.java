@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpImm extends CpuInstructi
         return CMPIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
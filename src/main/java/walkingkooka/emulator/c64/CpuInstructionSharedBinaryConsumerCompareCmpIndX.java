@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpIndX extends CpuInstruct
         return CMPINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpIndY extends CpuInstruct
         return CMPINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDY;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpZp extends CpuInstructio
         return CMPZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCmpZpX extends CpuInstructi
         return CMPZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZPX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCpxAbs extends CpuInstructi
         return CPXABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
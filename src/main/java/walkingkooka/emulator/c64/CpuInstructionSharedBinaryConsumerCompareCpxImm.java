@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCpxImm extends CpuInstructi
         return CPXIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
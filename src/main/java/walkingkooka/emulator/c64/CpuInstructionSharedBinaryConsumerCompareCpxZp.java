@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCpxZp extends CpuInstructio
         return CPXZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
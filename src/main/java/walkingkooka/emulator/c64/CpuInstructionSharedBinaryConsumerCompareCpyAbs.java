@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCpyAbs extends CpuInstructi
         return CPYABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCpyImm extends CpuInstructi
         return CPYIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryConsumerCompareCpyZp extends CpuInstructio
         return CPYZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
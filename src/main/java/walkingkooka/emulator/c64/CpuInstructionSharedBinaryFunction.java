@@ -49,58 +49,119 @@ abstract class CpuInstructionSharedBinaryFunction extends CpuInstructionSharedBi
     final byte add(final byte left,
                    final byte right,
                    final CpuContext context) {
-        final byte value;
-        if (context.isDecimalMode()) {
-            value = decimalMode(
-                left,
-                right,
-                context
-            );
-        } else {
-            value = binaryMode(
-                left,
-                right,
-                context
-            );
-        }
-
-        return value;
+        return result(
+            (context.isDecimalMode() ?
+                DECIMAL_ADD :
+                BINARY_ADD)[index(left, right, context.isCarry())],
+            context
+        );
     }
 
-    private byte binaryMode(final byte left,
-                            final byte right,
-                            final CpuContext context) {
-        final int value = (0xff & left) +
-            (0xff & right) +
-            carryToUnit(context);
-
-        final byte byteValue = (byte) value;
+    /**
+     * Results of binary mode ADC indexed by {@link #index(byte, byte, boolean)}, shared by all CPUs.
+     * SBC in binary mode reuses this table with the operand inverted.
+     */
+    private final static short[] BINARY_ADD = table(CpuInstructionSharedBinaryFunction::binaryMode);
+
+    /**
+     * Results of decimal mode ADC indexed by {@link #index(byte, byte, boolean)}, shared by all CPUs.
+     */
+    private final static short[] DECIMAL_ADD = table(CpuInstructionSharedBinaryFunction::decimalMode);
+
+    /**
+     * Bit set in a table entry when the carry flag should be set.
+     */
+    final static int RESULT_CARRY = 0x100;
+
+    /**
+     * Bit set in a table entry when the overflow flag should be set.
+     */
+    final static int RESULT_OVERFLOW = 0x200;
+
+    /**
+     * Computes the table index for the register value, operand and carry flag.
+     */
+    static int index(final byte left,
+                     final byte right,
+                     final boolean carry) {
+        return (carry ? 0x10000 : 0) |
+            (0xff00 & (left << 8)) |
+            (0xff & right);
+    }
 
-        setMinusAndZero(
-            byteValue,
-            context
-        );
+    /**
+     * Updates the N, Z, C and V flags from a table entry returning the result byte.
+     */
+    static byte result(final short entry,
+                       final CpuContext context) {
+        final byte value = (byte) entry;
 
+        context.setMinusAndZero(value);
         context.setCarry(
-            (value & 0x100) != 0
+            0 != (entry & RESULT_CARRY)
         );
-
-        // http://6502.org/tutorials/vflag.html
         context.setOverflow(
-            (
-                (left ^ value) &
-                    (right ^ value) &
-                    0x80
-            ) != 0
+            0 != (entry & RESULT_OVERFLOW)
         );
 
-        return byteValue;
+        return value;
     }
 
-    private byte decimalMode(final byte left,
-                             final byte right,
-                             final CpuContext context) {
-        int units = units(left) + units(right) + carryToUnit(context);
+    /**
+     * Generates a table holding every result of the given function.
+     */
+    static short[] table(final ResultFunction function) {
+        final short[] table = new short[2 * 256 * 256];
+
+        for (int carry = 0; carry < 2; carry++) {
+            for (int left = 0; left < 256; left++) {
+                for (int right = 0; right < 256; right++) {
+                    table[index((byte) left, (byte) right, 1 == carry)] = (short) function.apply(
+                        (byte) left,
+                        (byte) right,
+                        1 == carry
+                    );
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Computes a result byte along with {@link #RESULT_CARRY} and {@link #RESULT_OVERFLOW}, used to generate tables.
+     */
+    interface ResultFunction {
+        int apply(final byte left,
+                  final byte right,
+                  final boolean carry);
+    }
+
+    private static int binaryMode(final byte left,
+                                  final byte right,
+                                  final boolean carry) {
+        final int value = (0xff & left) +
+            (0xff & right) +
+            (carry ? 1 : 0);
+
+        return (0xff & value) |
+            ((value & 0x100) != 0 ? RESULT_CARRY : 0) |
+            (
+                // http://6502.org/tutorials/vflag.html
+                (
+                    (left ^ value) &
+                        (right ^ value) &
+                        0x80
+                ) != 0 ?
+                    RESULT_OVERFLOW :
+                    0
+            );
+    }
+
+    private static int decimalMode(final byte left,
+                                   final byte right,
+                                   final boolean carryIn) {
+        int units = units(left) + units(right) + (carryIn ? 1 : 0);
         if (units > 9) {
             units = units + 6;
         }
@@ -118,24 +179,9 @@ abstract class CpuInstructionSharedBinaryFunction extends CpuInstructionSharedBi
 
         final int value = (tens << 4) + (units & 0xf);
 
-        final byte byteValue = (byte) value;
-
-        setMinusAndZero(
-            byteValue,
-            context
-        );
-
-        context.setCarry(carry);
-
-        context.setOverflow(false); // never sets overflow, always clears
-
-        return byteValue;
-    }
-
-    private static int carryToUnit(final CpuContext context) {
-        return context.isCarry() ?
-            1 :
-            0;
+        // never sets overflow, always clears
+        return (0xff & value) |
+            (carry ? RESULT_CARRY : 0);
     }
 
     static int units(final byte value) {
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcAbs extends CpuInstructionShare
         return ADCABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcAbsX extends CpuInstructionShar
         return ADCABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSX;
@@ -51,6 +51,11 @@ final class CpuInstructionSharedBinaryFunctionAdcAbsY extends CpuInstructionShar
         return ADCABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSY;
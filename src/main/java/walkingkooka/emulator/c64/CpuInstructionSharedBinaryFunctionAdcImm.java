@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcImm extends CpuInstructionShare
         return ADCIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
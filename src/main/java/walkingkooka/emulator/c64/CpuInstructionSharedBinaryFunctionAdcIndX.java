@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcIndX extends CpuInstructionShar
         return ADCINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcIndY extends CpuInstructionShar
         return ADCINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDY;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcZp extends CpuInstructionShared
         return ADCZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
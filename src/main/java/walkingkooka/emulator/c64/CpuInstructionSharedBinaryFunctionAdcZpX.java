@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAdcZpX extends CpuInstructionShare
         return ADCZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZPX;
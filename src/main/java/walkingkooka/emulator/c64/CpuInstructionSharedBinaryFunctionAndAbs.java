@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndAbs extends CpuInstructionShare
         return ANDABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
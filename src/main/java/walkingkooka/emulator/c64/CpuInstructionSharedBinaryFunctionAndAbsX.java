@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndAbsX extends CpuInstructionShar
         return ANDABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndAbsY extends CpuInstructionShar
         return ANDABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSY;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndImm extends CpuInstructionShare
         return ANDIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
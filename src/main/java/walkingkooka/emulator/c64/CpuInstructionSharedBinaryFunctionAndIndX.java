@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndIndX extends CpuInstructionShar
         return ANDINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndIndY extends CpuInstructionShar
         return ANDINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDY;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndZp extends CpuInstructionShared
         return ANDZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionAndZpX extends CpuInstructionShare
         return ANDZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZPX;
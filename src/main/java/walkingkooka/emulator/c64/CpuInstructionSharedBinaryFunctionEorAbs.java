@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorAbs extends CpuInstructionShare
         return EORABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorAbsX extends CpuInstructionShar
         return EORABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorAbsY extends CpuInstructionShar
         return EORABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSY;
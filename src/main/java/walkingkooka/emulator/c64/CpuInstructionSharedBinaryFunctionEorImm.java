@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorImm extends CpuInstructionShare
         return EORIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
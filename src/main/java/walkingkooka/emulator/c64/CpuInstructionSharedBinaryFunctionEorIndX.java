@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorIndX extends CpuInstructionShar
         return EORINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorIndY extends CpuInstructionShar
         return EORINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDY;
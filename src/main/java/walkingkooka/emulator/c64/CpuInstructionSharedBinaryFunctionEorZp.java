@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorZp extends CpuInstructionShared
         return EORZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionEorZpX extends CpuInstructionShare
         return EORZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZPX;
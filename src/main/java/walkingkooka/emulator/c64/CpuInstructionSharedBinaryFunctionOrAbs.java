@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrAbs extends CpuInstructionShared
         return ORABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
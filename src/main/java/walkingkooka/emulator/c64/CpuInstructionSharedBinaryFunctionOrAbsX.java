@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrAbsX extends CpuInstructionShare
         return ORABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrAbsY extends CpuInstructionShare
         return ORABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSY;
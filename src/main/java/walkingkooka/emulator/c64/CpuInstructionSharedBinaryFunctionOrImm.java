@@ -51,6 +51,11 @@ final class CpuInstructionSharedBinaryFunctionOrImm extends CpuInstructionShared
         return ORIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrIndX extends CpuInstructionShare
         return ORINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrIndY extends CpuInstructionShare
         return ORINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDY;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrZp extends CpuInstructionSharedB
         return ORZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
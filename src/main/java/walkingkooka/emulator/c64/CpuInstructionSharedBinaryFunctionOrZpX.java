@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionOrZpX extends CpuInstructionShared
         return ORZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZPX;
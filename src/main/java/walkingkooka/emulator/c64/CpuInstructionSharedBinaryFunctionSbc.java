@@ -32,28 +32,27 @@ abstract class CpuInstructionSharedBinaryFunctionSbc extends CpuInstructionShare
     final byte handle(final byte left,
                       final byte right,
                       final CpuContext context) {
-        final byte value;
-        if (context.isDecimalMode()) {
-            value = this.decimalMode(
-                left,
-                right,
+        return context.isDecimalMode() ?
+            result(
+                DECIMAL_SUBTRACT[index(left, right, context.isCarry())],
                 context
-            );
-        } else {
-            value = this.add(
+            ) :
+            this.add(
                 left,
                 (byte) ~right,
                 context
             );
-        }
-
-        return value;
     }
 
-    private byte decimalMode(final byte left,
-                             final byte right,
-                             final CpuContext context) {
-        int units = units(left) - units(right) - carryToUnit(context);
+    /**
+     * Results of decimal mode SBC, shared by all CPUs.
+     */
+    private final static short[] DECIMAL_SUBTRACT = table(CpuInstructionSharedBinaryFunctionSbc::decimalMode);
+
+    private static int decimalMode(final byte left,
+                                   final byte right,
+                                   final boolean carryIn) {
+        int units = units(left) - units(right) - (carryIn ? 0 : 1);
         int tens = tens(left) - tens(right);
 
         if (units < 0) {
@@ -69,24 +68,9 @@ abstract class CpuInstructionSharedBinaryFunctionSbc extends CpuInstructionShare
 
         final int value = (tens << 4) | (units & 0xf);
 
-        final byte byteValue = (byte) value;
-
-        setMinusAndZero(
-            byteValue,
-            context
-        );
-
-        context.setCarry(carry);
-
-        context.setOverflow(false); // never sets overflow, always clears
-
-        return byteValue;
-    }
-
-    private static int carryToUnit(final CpuContext context) {
-        return context.isCarry() ?
-            0 :
-            1;
+        // never sets overflow, always clears
+        return (0xff & value) |
+            (carry ? RESULT_CARRY : 0);
     }
 
     @Override //
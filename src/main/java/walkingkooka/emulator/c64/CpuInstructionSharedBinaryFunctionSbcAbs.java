@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcAbs extends CpuInstructionShare
         return SBCABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABS;
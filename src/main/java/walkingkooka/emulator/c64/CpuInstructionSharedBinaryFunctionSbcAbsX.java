@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcAbsX extends CpuInstructionShar
         return SBCABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcAbsY extends CpuInstructionShar
         return SBCABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ABSY;
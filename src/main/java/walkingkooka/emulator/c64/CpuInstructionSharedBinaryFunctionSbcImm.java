@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcImm extends CpuInstructionShare
         return SBCIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.IMMEDIATE;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcIndX extends CpuInstructionShar
         return SBCINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDX;
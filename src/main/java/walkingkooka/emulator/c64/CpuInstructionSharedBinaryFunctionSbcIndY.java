@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcIndY extends CpuInstructionShar
         return SBCINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.INDY;
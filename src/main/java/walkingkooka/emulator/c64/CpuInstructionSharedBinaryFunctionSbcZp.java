@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcZp extends CpuInstructionShared
         return SBCZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedBinaryFunctionSbcZpX extends CpuInstructionShare
         return SBCZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory memory() {
         return CpuInstructionSharedOperand.ZPX;
@@ -34,12 +34,18 @@ abstract class CpuInstructionSharedBranch extends CpuInstructionShared {
             (context.pc() + 1);
 
         if (this.testFlag(context)) {
-            context.setPc(
-                (short)
-                    (nextInstructionPc + context.readByte(
-                        (short) (nextInstructionPc - 1)
-                    ))
+            final short target = (short)
+                (nextInstructionPc + context.readByte(
+                    (short) (nextInstructionPc - 1)
+                ));
+
+            // taken branches take an extra cycle and another if the target is in a different page
+            context.addCycles(
+                ((nextInstructionPc ^ target) & 0xff00) != 0 ?
+                    2 :
+                    1
             );
+            context.setPc(target);
         } else {
             context.setPc(nextInstructionPc);
         }
@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBcc extends CpuInstructionSharedBranch {
         return BCC;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return false == context.isCarry();
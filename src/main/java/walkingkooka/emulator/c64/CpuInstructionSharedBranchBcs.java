@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBcs extends CpuInstructionSharedBranch {
         return BCS;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return context.isCarry();
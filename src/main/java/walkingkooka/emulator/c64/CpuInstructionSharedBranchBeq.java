@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBeq extends CpuInstructionSharedBranch {
         return BEQ;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return context.isZero();
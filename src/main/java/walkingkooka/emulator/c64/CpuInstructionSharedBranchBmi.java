@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBmi extends CpuInstructionSharedBranch {
         return BMI;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return context.isMinus();
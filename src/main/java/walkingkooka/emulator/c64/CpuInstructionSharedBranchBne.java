@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBne extends CpuInstructionSharedBranch {
         return BNE;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return false == context.isZero();
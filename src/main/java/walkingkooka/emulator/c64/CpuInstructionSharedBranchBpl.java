@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBpl extends CpuInstructionSharedBranch {
         return BPL;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return false == context.isMinus();
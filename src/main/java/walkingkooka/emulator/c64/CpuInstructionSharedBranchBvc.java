@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBvc extends CpuInstructionSharedBranch {
         return BVC;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return false == context.isOverflow();
@@ -37,6 +37,11 @@ final class CpuInstructionSharedBranchBvs extends CpuInstructionSharedBranch {
         return BVS;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     boolean testFlag(final CpuContext context) {
         return context.isOverflow();
@@ -39,6 +39,11 @@ final class CpuInstructionSharedBrk extends CpuInstructionShared {
         return BRK;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     public int length() {
         return 1;
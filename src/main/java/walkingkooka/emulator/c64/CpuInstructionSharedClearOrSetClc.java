@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetClc extends CpuInstructionSharedClearO
         return CLC;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setCarry(false);
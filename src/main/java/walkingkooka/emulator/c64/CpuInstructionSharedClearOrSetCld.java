@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetCld extends CpuInstructionSharedClearO
         return CLD;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setDecimalMode(false);
@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetCli extends CpuInstructionSharedClearO
         return CLI;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setInterruptDisabled(false);
@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetClv extends CpuInstructionSharedClearO
         return CLV;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setOverflow(false);
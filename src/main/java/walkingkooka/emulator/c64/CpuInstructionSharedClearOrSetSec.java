@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetSec extends CpuInstructionSharedClearO
         return SEC;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setCarry(true);
@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetSed extends CpuInstructionSharedClearO
         return SED;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setDecimalMode(true);
@@ -39,6 +39,11 @@ final class CpuInstructionSharedClearOrSetSei extends CpuInstructionSharedClearO
         return SEI;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         context.setInterruptDisabled(true);
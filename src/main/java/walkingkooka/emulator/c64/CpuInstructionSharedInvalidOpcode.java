@@ -58,6 +58,14 @@ final class CpuInstructionSharedInvalidOpcode extends CpuInstructionShared {
         return 1;
     }
 
+    /**
+     * Invalid opcodes are treated as taking the minimum of two cycles.
+     */
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public void execute(final CpuContext context) {
         Objects.requireNonNull(context, "context");
@@ -39,6 +39,11 @@ final class CpuInstructionSharedJmpAbs extends CpuInstructionShared {
         return JMP_ABS;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     public int length() {
         return 3;
@@ -39,6 +39,11 @@ final class CpuInstructionSharedJmpIndirect extends CpuInstructionShared {
         return JMP_IND;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     public int length() {
         return 3;
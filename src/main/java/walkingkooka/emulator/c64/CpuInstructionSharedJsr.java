@@ -39,6 +39,11 @@ final class CpuInstructionSharedJsr extends CpuInstructionShared {
         return JSR;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     public int length() {
         return 3;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaAbs extends CpuInstructionSharedLoadA {
         return LDAABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaAbsX extends CpuInstructionSharedLoadA {
         return LDAABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaAbsY extends CpuInstructionSharedLoadA {
         return LDAABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABSY;
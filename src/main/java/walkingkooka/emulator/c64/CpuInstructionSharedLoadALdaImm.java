@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaImm extends CpuInstructionSharedLoadA {
         return LDAIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.IMMEDIATE;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaIndX extends CpuInstructionSharedLoadA {
         return LDAINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.INDX;
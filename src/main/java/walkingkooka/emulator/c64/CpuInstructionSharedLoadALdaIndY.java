@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaIndY extends CpuInstructionSharedLoadA {
         return LDAINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.INDY;
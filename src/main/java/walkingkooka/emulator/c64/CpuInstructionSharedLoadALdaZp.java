@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaZp extends CpuInstructionSharedLoadA {
         return LDAZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadALdaZpX extends CpuInstructionSharedLoadA {
         return LDAZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ZPX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadXLdxAbs extends CpuInstructionSharedLoadX {
         return LDXABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadXLdxAbsY extends CpuInstructionSharedLoadX {
         return LDXABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABSY;
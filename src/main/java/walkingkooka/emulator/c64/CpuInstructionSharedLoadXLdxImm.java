@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadXLdxImm extends CpuInstructionSharedLoadX {
         return LDXIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.IMMEDIATE;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadXLdxZp extends CpuInstructionSharedLoadX {
         return LDXZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ZP;
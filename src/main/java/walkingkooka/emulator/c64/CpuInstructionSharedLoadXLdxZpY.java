@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadXLdxZpY extends CpuInstructionSharedLoadX {
         return LDXZPY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ZPY;
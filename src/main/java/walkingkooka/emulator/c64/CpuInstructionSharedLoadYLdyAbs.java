@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadYLdyAbs extends CpuInstructionSharedLoadY {
         return LDYABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadYLdyAbsX extends CpuInstructionSharedLoadY {
         return LDYABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadYLdyImm extends CpuInstructionSharedLoadY {
         return LDYIMM;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.IMMEDIATE;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadYLdyZp extends CpuInstructionSharedLoadY {
         return LDYZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedLoadYLdyZpX extends CpuInstructionSharedLoadY {
         return LDYZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory source() {
         return CpuInstructionSharedOperandMemory.ZPX;
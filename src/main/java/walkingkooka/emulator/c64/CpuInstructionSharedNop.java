@@ -39,6 +39,11 @@ final class CpuInstructionSharedNop extends CpuInstructionShared {
         return NOP;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     public int length() {
         return 1;
@@ -45,10 +45,18 @@ abstract class CpuInstructionSharedOperandMemory extends CpuInstructionSharedOpe
      */
     abstract short operandAddress(final CpuContext context);
 
+    /**
+     * Reads the operand address for an instruction that only reads its operand, advancing the PC. Indexed addressing
+     * modes override this to add the extra cycle taken when the index crosses a page boundary.
+     */
+    short readOperandAddress(final CpuContext context) {
+        return this.operandAddress(context);
+    }
+
     @Override //
     final byte readValue(final CpuContext context) {
         return context.readByte(
-            this.operandAddress(context)
+            this.readOperandAddress(context)
         );
     }
 
@@ -90,4 +98,16 @@ abstract class CpuInstructionSharedOperandMemory extends CpuInstructionSharedOpe
             (address + ((0xff) & offset))
         );
     }
+
+    /**
+     * Adds the extra cycle taken by an indexed read when the base and indexed address are in different pages.
+     */
+    static short addPageCrossingCycle(final short base,
+                                      final short address,
+                                      final CpuContext context) {
+        if (((base ^ address) & 0xff00) != 0) {
+            context.addCycles(1);
+        }
+        return address;
+    }
 }
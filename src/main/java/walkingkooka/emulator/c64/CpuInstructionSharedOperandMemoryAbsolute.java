@@ -41,6 +41,22 @@ abstract class CpuInstructionSharedOperandMemoryAbsolute extends CpuInstructionS
         );
     }
 
+    @Override //
+    final short readOperandAddress(final CpuContext context) {
+        final short base = this.readPcAddress(
+            context
+        );
+
+        return addPageCrossingCycle(
+            base,
+            address(
+                base,
+                this.operandAddressIndex(context)
+            ),
+            context
+        );
+    }
+
     /**
      * Only ABS,X and ABS,Y will return either the X or Y register, plain ABS will return 0
      */
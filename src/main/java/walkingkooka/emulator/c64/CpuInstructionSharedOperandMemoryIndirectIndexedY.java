@@ -59,6 +59,22 @@ final class CpuInstructionSharedOperandMemoryIndirectIndexedY extends CpuInstruc
         );
     }
 
+    @Override
+    short readOperandAddress(final CpuContext context) {
+        final short base = context.readZeroPageAddress(
+            readPcByte(context)
+        );
+
+        return addPageCrossingCycle(
+            base,
+            address(
+                base,
+                context.y()
+            ),
+            context
+        );
+    }
+
     @Override
     String disassemble(final CpuContext context) {
         final byte zeroPageOffset = readPcByte(context);
@@ -39,6 +39,11 @@ final class CpuInstructionSharedRti extends CpuInstructionShared {
         return RTI;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     public int length() {
         return 1;
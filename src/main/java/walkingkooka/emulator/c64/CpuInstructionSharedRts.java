@@ -39,6 +39,11 @@ final class CpuInstructionSharedRts extends CpuInstructionShared {
         return RTS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     public int length() {
         return 1;
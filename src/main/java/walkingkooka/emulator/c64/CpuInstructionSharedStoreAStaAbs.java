@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaAbs extends CpuInstructionSharedStoreA
         return STAABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaAbsX extends CpuInstructionSharedStoreA
         return STAABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaAbsY extends CpuInstructionSharedStoreA
         return STAABSY;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ABSY;
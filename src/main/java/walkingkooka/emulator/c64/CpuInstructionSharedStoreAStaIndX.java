@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaIndX extends CpuInstructionSharedStoreA
         return STAINDX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.INDX;
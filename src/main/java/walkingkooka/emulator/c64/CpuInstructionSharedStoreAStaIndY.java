@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaIndY extends CpuInstructionSharedStoreA
         return STAINDY;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.INDY;
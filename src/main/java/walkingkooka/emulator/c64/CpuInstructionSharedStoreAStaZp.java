@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaZp extends CpuInstructionSharedStoreA {
         return STAZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ZP;
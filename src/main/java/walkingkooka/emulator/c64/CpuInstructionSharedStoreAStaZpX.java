@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreAStaZpX extends CpuInstructionSharedStoreA
         return STAZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ZPX;
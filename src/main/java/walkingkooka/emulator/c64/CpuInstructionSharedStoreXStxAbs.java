@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreXStxAbs extends CpuInstructionSharedStoreX
         return STXABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreXStxZp extends CpuInstructionSharedStoreX {
         return STXZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ZP;
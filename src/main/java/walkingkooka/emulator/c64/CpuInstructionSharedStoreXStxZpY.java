@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreXStxZpY extends CpuInstructionSharedStoreX
         return STXZPY;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ZPY;
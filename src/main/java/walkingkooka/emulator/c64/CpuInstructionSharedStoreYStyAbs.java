@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreYStyAbs extends CpuInstructionSharedStoreY
         return STYABS;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ABS;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreYStyZp extends CpuInstructionSharedStoreY {
         return STYZP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedStoreYStyZpX extends CpuInstructionSharedStoreY
         return STYZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     CpuInstructionSharedOperandMemory destination() {
         return CpuInstructionSharedOperandMemory.ZPX;
@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferPha extends CpuInstructionSharedTransfer
         return PHA;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.a();
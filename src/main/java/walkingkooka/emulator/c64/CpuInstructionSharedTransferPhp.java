@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferPhp extends CpuInstructionSharedTransfer
         return PHP;
     }
 
+    @Override
+    public int cycles() {
+        return 3;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.flags();
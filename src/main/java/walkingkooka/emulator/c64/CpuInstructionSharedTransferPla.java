@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferPla extends CpuInstructionSharedTransfer
         return PLA;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.pop();
@@ -53,6 +53,11 @@ final class CpuInstructionSharedTransferPlp extends CpuInstructionSharedTransfer
         return PLP;
     }
 
+    @Override
+    public int cycles() {
+        return 4;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.pop();
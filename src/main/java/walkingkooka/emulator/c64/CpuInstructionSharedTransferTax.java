@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferTax extends CpuInstructionSharedTransfer
         return TAX;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.a();
@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferTay extends CpuInstructionSharedTransfer
         return TAY;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.a();
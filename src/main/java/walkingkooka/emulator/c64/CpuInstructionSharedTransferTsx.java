@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferTsx extends CpuInstructionSharedTransfer
         return TSX;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.stackPointer();
@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferTxa extends CpuInstructionSharedTransfer
         return TXA;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.x();
@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferTxs extends CpuInstructionSharedTransfer
         return TXS;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.x();
@@ -37,6 +37,11 @@ final class CpuInstructionSharedTransferTya extends CpuInstructionSharedTransfer
         return TYA;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     byte read(final CpuContext context) {
         return context.y();
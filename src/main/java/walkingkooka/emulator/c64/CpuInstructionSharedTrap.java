@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.util.Objects;
+
+/**
+ * A {@link CpuInstruction} using the JAM opcode $02 followed by a trap number, that when executed skips the trap number
+ * and invokes {@link CpuContext#handleTrap(byte)}. Patching this instruction into a ROM overlay replaces a routine with
+ * a host handler without testing every instruction for a breakpoint.
+ */
+final class CpuInstructionSharedTrap extends CpuInstructionShared {
+
+    static CpuInstructionSharedTrap instance() {
+        if (null == INSTANCE) {
+            INSTANCE = new CpuInstructionSharedTrap();
+        }
+        return INSTANCE;
+    }
+
+    private static CpuInstructionSharedTrap INSTANCE;
+
+    private CpuInstructionSharedTrap() {
+        super();
+    }
+
+    @Override
+    public byte opcode() {
+        return TRAP;
+    }
+
+    /**
+     * The trap itself is charged the minimum of two cycles, any time spent by the handler is not counted.
+     */
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
+    @Override
+    public int length() {
+        return 2;
+    }
+
+    @Override
+    public void execute(final CpuContext context) {
+        Objects.requireNonNull(context, "context");
+
+        final short pc = context.pc();
+        final byte trap = context.readByte(pc);
+
+        context.setPc(
+            add(pc, 1)
+        );
+
+        context.handleTrap(trap);
+    }
+
+    @Override
+    public String disassemble(final CpuContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return "TRAP " +
+            hexByte(
+                context.readByte(
+                    context.pc()
+                )
+            );
+    }
+}
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryAslA extends CpuInstructionSharedUnaryAsl {
         return ASLA;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.A;
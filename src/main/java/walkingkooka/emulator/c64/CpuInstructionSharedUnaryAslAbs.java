@@ -48,6 +48,11 @@ final class CpuInstructionSharedUnaryAslAbs extends CpuInstructionSharedUnaryAsl
         return ASLABS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABS;
@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryAslAbsX extends CpuInstructionSharedUnaryAs
         return ASLABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryAslZp extends CpuInstructionSharedUnaryAsl
         return ASLZP;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryAslZpX extends CpuInstructionSharedUnaryAsl
         return ASLZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZPX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryDecAbs extends CpuInstructionSharedUnaryDec
         return DECABS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABS;
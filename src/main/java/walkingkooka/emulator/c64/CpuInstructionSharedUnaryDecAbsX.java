@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryDecAbsX extends CpuInstructionSharedUnaryDe
         return DECABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABSX;
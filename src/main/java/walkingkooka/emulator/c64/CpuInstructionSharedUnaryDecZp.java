@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryDecZp extends CpuInstructionSharedUnaryDec
         return DECZP;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryDecZpX extends CpuInstructionSharedUnaryDec
         return DECZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZPX;
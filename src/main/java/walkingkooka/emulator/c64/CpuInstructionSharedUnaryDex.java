@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryDex extends CpuInstructionSharedUnaryDec {
         return DEX;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.X;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryDey extends CpuInstructionSharedUnaryDec {
         return DEY;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.Y;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryIncAbs extends CpuInstructionSharedUnaryInc
         return INCABS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABS;
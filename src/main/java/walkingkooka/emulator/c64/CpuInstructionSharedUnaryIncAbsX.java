@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryIncAbsX extends CpuInstructionSharedUnaryIn
         return INCABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABSX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryIncZp extends CpuInstructionSharedUnaryInc
         return INCZP;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryIncZpX extends CpuInstructionSharedUnaryInc
         return INCZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZPX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryInx extends CpuInstructionSharedUnaryInc {
         return INX;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.X;
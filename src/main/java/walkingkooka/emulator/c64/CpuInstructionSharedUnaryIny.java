@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryIny extends CpuInstructionSharedUnaryInc {
         return INY;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.Y;
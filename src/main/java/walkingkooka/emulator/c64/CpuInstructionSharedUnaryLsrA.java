@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryLsrA extends CpuInstructionSharedUnaryLsr {
         return LSRA;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.A;
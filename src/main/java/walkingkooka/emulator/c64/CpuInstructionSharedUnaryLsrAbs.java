@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryLsrAbs extends CpuInstructionSharedUnaryLsr
         return LSRABS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABS;
@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryLsrAbsX extends CpuInstructionSharedUnaryLs
         return LSRABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABSX;
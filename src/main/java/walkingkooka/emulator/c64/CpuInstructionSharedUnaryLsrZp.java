@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryLsrZp extends CpuInstructionSharedUnaryLsr
         return LSRZP;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZP;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryLsrZpX extends CpuInstructionSharedUnaryLsr
         return LSRZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZPX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRolA extends CpuInstructionSharedUnaryRol {
         return ROLA;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.A;
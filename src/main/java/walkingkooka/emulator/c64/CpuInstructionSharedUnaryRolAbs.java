@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRolAbs extends CpuInstructionSharedUnaryRol
         return ROLABS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABS;
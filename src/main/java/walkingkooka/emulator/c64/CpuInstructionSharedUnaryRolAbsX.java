@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryRolAbsX extends CpuInstructionSharedUnaryRo
         return ROLABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABSX;
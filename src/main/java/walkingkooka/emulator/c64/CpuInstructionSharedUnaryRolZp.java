@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRolZp extends CpuInstructionSharedUnaryRol
         return ROLZP;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZP;
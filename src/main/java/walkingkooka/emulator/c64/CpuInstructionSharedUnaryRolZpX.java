@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRolZpX extends CpuInstructionSharedUnaryRol
         return ROLZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZPX;
@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRorA extends CpuInstructionSharedUnaryRor {
         return RORA;
     }
 
+    @Override
+    public int cycles() {
+        return 2;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.A;
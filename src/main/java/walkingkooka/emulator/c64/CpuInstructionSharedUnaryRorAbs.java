@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRorAbs extends CpuInstructionSharedUnaryRor
         return RORABS;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABS;
@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryRorAbsX extends CpuInstructionSharedUnaryRo
         return RORABSX;
     }
 
+    @Override
+    public int cycles() {
+        return 7;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ABSX;
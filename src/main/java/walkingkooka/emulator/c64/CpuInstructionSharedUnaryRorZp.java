@@ -50,6 +50,11 @@ final class CpuInstructionSharedUnaryRorZp extends CpuInstructionSharedUnaryRor
         return RORZP;
     }
 
+    @Override
+    public int cycles() {
+        return 5;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZP;
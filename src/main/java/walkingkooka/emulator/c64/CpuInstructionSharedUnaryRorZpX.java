@@ -49,6 +49,11 @@ final class CpuInstructionSharedUnaryRorZpX extends CpuInstructionSharedUnaryRor
         return RORZPX;
     }
 
+    @Override
+    public int cycles() {
+        return 6;
+    }
+
     @Override
     CpuInstructionSharedOperand operand() {
         return CpuInstructionSharedOperand.ZPX;
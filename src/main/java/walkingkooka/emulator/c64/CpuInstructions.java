@@ -216,6 +216,7 @@ public final class CpuInstructions implements PublicStaticHelper {
             
             all.add(tax());
             all.add(tay());
+            all.add(trap());
             all.add(tsx());
             all.add(txa());
             all.add(txs());
@@ -1271,6 +1272,13 @@ public final class CpuInstructions implements PublicStaticHelper {
         return CpuInstructionSharedTransferTay.instance();
     }
 
+    /**
+     * {@see CpuInstructionSharedTrap}
+     */
+    public static CpuInstruction trap() {
+        return CpuInstructionSharedTrap.instance();
+    }
+
     /**
      * {@see CpuInstructionSharedTransferTsx}
      */
@@ -55,6 +55,30 @@ public interface CpuTesting<C extends Cpu> extends TreePrintableTesting,
         );
     }
 
+    @Test
+    default void testRunWithNullContextFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createCpu()
+                .run(
+                    null,
+                    1
+                )
+        );
+    }
+
+    @Test
+    default void testRunWithNegativeCycleBudgetFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createCpu()
+                .run(
+                    this.createCpuContext(),
+                    -1
+                )
+        );
+    }
+
     C createCpu();
 
     CpuContext createCpuContext();
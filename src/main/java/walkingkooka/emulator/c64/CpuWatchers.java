@@ -17,12 +17,15 @@
 
 package walkingkooka.emulator.c64;
 
-import walkingkooka.watch.Watchers;
-
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A collection of {@link CpuWatcher} with support for firing different types of events.
+ * The registered watchers are held in an array that is replaced on every add or remove, so firing an event
+ * calls each {@link CpuWatcher} directly without allocating. Any {@link RuntimeException} thrown by a watcher is
+ * logged and does not stop the remaining watchers being called.
  */
 public class CpuWatchers implements CpuWatcher {
 
@@ -34,54 +37,109 @@ public class CpuWatchers implements CpuWatcher {
         super();
     }
 
-    public final Runnable add(final CpuWatcher watcher) {
+    public final synchronized Runnable add(final CpuWatcher watcher) {
         Objects.requireNonNull(watcher, "watcher");
 
-        return this.watchers.add(
-            (e) -> e.accept(watcher)
+        final CpuWatcher[] watchers = this.watchers;
+        final int count = watchers.length;
+
+        final CpuWatcher[] added = Arrays.copyOf(
+            watchers,
+            count + 1
         );
+        added[count] = watcher;
+        this.watchers = added;
+
+        final AtomicBoolean removed = new AtomicBoolean();
+        return () -> {
+            if (false == removed.getAndSet(true)) {
+                this.remove(watcher);
+            }
+        };
+    }
+
+    private synchronized void remove(final CpuWatcher watcher) {
+        final CpuWatcher[] watchers = this.watchers;
+        final int count = watchers.length;
+
+        for (int i = 0; i < count; i++) {
+            if (watcher == watchers[i]) {
+                final CpuWatcher[] removed = new CpuWatcher[count - 1];
+                System.arraycopy(watchers, 0, removed, 0, i);
+                System.arraycopy(watchers, i + 1, removed, i, count - i - 1);
+
+                this.watchers = removed;
+                break;
+            }
+        }
     }
 
     // CpuWatcher.......................................................................................................
 
     @Override
     public void onBreakpoint(final CpuContext context) {
-        this.fire(
-            CpuWatcherEvent.breakpoint(context)
-        );
+        for (final CpuWatcher watcher : this.watchers) {
+            try {
+                watcher.onBreakpoint(context);
+            } catch (final RuntimeException cause) {
+                failed(cause);
+            }
+        }
     }
 
     @Override
     public void onInvalidOpcode(final CpuContext context) {
-        this.fire(
-            CpuWatcherEvent.invalidOpcode(context)
-        );
+        for (final CpuWatcher watcher : this.watchers) {
+            try {
+                watcher.onInvalidOpcode(context);
+            } catch (final RuntimeException cause) {
+                failed(cause);
+            }
+        }
     }
 
     @Override
     public void onNmi(final CpuContext context) {
-        this.fire(
-            CpuWatcherEvent.nmi(context)
-        );
+        for (final CpuWatcher watcher : this.watchers) {
+            try {
+                watcher.onNmi(context);
+            } catch (final RuntimeException cause) {
+                failed(cause);
+            }
+        }
     }
 
     @Override
     public void onReset(final CpuContext context) {
-        this.fire(
-            CpuWatcherEvent.reset(context)
-        );
+        for (final CpuWatcher watcher : this.watchers) {
+            try {
+                watcher.onReset(context);
+            } catch (final RuntimeException cause) {
+                failed(cause);
+            }
+        }
     }
 
-    final void fire(final CpuWatcherEvent event) {
-        this.watchers.accept(event);
+    /**
+     * Matches the walkingkooka Watchers this replaced, a failing {@link CpuWatcher} is logged and the remaining
+     * watchers are still called.
+     */
+    private static void failed(final RuntimeException cause) {
+        cause.printStackTrace();
     }
 
-    private final Watchers<CpuWatcherEvent> watchers = Watchers.empty();
+    /**
+     * A snapshot of the registered watchers, never modified after it is assigned. Only replaced by the synchronized
+     * {@link #add(CpuWatcher)} and {@link #remove(CpuWatcher)} so concurrent changes are not lost.
+     */
+    private volatile CpuWatcher[] watchers = EMPTY;
+
+    private final static CpuWatcher[] EMPTY = new CpuWatcher[0];
 
     // Object...........................................................................................................
 
     @Override
     public final String toString() {
-        return this.watchers.toString();
+        return Arrays.toString(this.watchers);
     }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Schedules device events against the global cycle counter, so devices only do work when something is due rather than
+ * being updated after every instruction. Pending events are held in a binary min-heap of primitive cycles, each event
+ * may be scheduled at most once, scheduling it again moves it.
+ */
+final class CycleScheduler {
+
+    /**
+     * The value returned by {@link #next()} when nothing is scheduled.
+     */
+    final static long NONE = Long.MAX_VALUE;
+
+    static CycleScheduler with(final LongSupplier clock) {
+        return new CycleScheduler(
+            Objects.requireNonNull(clock, "clock")
+        );
+    }
+
+    private CycleScheduler(final LongSupplier clock) {
+        super();
+        this.clock = clock;
+    }
+
+    /**
+     * The current cycle, usually {@link CpuContext#cycles()}.
+     */
+    long now() {
+        return this.clock.getAsLong();
+    }
+
+    private final LongSupplier clock;
+
+    /**
+     * Registers a new event returning its number, the event is not scheduled.
+     */
+    int register(final Runnable event) {
+        Objects.requireNonNull(event, "event");
+
+        final int number = this.eventCount;
+        if (number == this.events.length) {
+            this.events = Arrays.copyOf(this.events, number * 2);
+            this.positions = Arrays.copyOf(this.positions, number * 2);
+            this.heapCycles = Arrays.copyOf(this.heapCycles, number * 2);
+            this.heapEvents = Arrays.copyOf(this.heapEvents, number * 2);
+        }
+        this.events[number] = event;
+        this.positions[number] = NOT_SCHEDULED;
+        this.eventCount = number + 1;
+
+        return number;
+    }
+
+    /**
+     * Schedules or moves the event so it fires once the clock reaches the given cycle.
+     */
+    void schedule(final int event,
+                  final long cycle) {
+        this.checkEvent(event);
+
+        int position = this.positions[event];
+        if (NOT_SCHEDULED == position) {
+            position = this.size;
+            this.size = position + 1;
+            this.heapEvents[position] = event;
+            this.positions[event] = position;
+        }
+        this.heapCycles[position] = cycle;
+
+        this.siftDown(
+            this.siftUp(position)
+        );
+    }
+
+    /**
+     * Removes the event if it is scheduled.
+     */
+    void cancel(final int event) {
+        this.checkEvent(event);
+
+        final int position = this.positions[event];
+        if (NOT_SCHEDULED != position) {
+            this.remove(position);
+        }
+    }
+
+    /**
+     * Returns the cycle of the earliest scheduled event or {@link #NONE}.
+     */
+    long next() {
+        return 0 == this.size ?
+            NONE :
+            this.heapCycles[0];
+    }
+
+    /**
+     * Fires every event scheduled at or before the current cycle in cycle order. Each event is removed before it is
+     * fired so it may schedule itself again.
+     */
+    void fire() {
+        final long now = this.now();
+
+        while (0 != this.size && this.heapCycles[0] <= now) {
+            final int event = this.heapEvents[0];
+            this.remove(0);
+            this.events[event].run();
+        }
+    }
+
+    /**
+     * Executes at least the given number of cycles, only leaving the {@link Cpu#run(CpuContext, long)} loop when an
+     * event is due, returning the number of cycles executed. Execution finishes early if {@link #stop()} is called.
+     */
+    long run(final Cpu cpu,
+             final CpuContext context,
+             final long cycles) {
+        Objects.requireNonNull(cpu, "cpu");
+        Objects.requireNonNull(context, "context");
+        if (cycles < 0) {
+            throw new IllegalArgumentException("Invalid cycles " + cycles + " < 0");
+        }
+
+        final long start = context.cycles();
+        final long end = start + cycles;
+
+        this.stopped = false;
+
+        long now = start;
+        while (now < end && false == this.stopped) {
+            // an event may already be due if it was scheduled for the current cycle
+            cpu.run(
+                context,
+                Math.max(
+                    Math.min(end, this.next()) - now,
+                    0
+                )
+            );
+            this.fire();
+
+            now = context.cycles();
+        }
+
+        return now - start;
+    }
+
+    /**
+     * Requests {@link #run(Cpu, CpuContext, long)} to return as soon as the {@link Cpu} returns, which is immediately
+     * after an instruction with a breakpoint or when the next event is due.
+     */
+    void stop() {
+        this.stopped = true;
+    }
+
+    private boolean stopped;
+
+    private void checkEvent(final int event) {
+        if (event < 0 || event >= this.eventCount) {
+            throw new IllegalArgumentException("Unknown event " + event);
+        }
+    }
+
+    // heap.............................................................................................................
+
+    private void remove(final int position) {
+        final int event = this.heapEvents[position];
+        final int last = this.size - 1;
+
+        this.size = last;
+        this.positions[event] = NOT_SCHEDULED;
+
+        if (position != last) {
+            this.move(last, position);
+            this.siftDown(
+                this.siftUp(position)
+            );
+        }
+    }
+
+    private int siftUp(final int position) {
+        final long[] heapCycles = this.heapCycles;
+        int child = position;
+
+        while (child > 0) {
+            final int parent = (child - 1) >> 1;
+            if (heapCycles[parent] <= heapCycles[child]) {
+                break;
+            }
+            this.swap(parent, child);
+            child = parent;
+        }
+
+        return child;
+    }
+
+    private void siftDown(final int position) {
+        final long[] heapCycles = this.heapCycles;
+        final int size = this.size;
+        int parent = position;
+
+        for (; ; ) {
+            final int left = 2 * parent + 1;
+            if (left >= size) {
+                break;
+            }
+            final int right = left + 1;
+            final int smallest = right < size && heapCycles[right] < heapCycles[left] ?
+                right :
+                left;
+            if (heapCycles[parent] <= heapCycles[smallest]) {
+                break;
+            }
+            this.swap(parent, smallest);
+            parent = smallest;
+        }
+    }
+
+    private void swap(final int i,
+                      final int j) {
+        final long cycle = this.heapCycles[i];
+        final int event = this.heapEvents[i];
+
+        this.move(j, i);
+
+        this.heapCycles[j] = cycle;
+        this.heapEvents[j] = event;
+        this.positions[event] = j;
+    }
+
+    private void move(final int from,
+                      final int to) {
+        final int event = this.heapEvents[from];
+
+        this.heapCycles[to] = this.heapCycles[from];
+        this.heapEvents[to] = event;
+        this.positions[event] = to;
+    }
+
+    private final static int NOT_SCHEDULED = -1;
+
+    private final static int INITIAL_CAPACITY = 8;
+
+    /**
+     * The registered events indexed by event number.
+     */
+    private Runnable[] events = new Runnable[INITIAL_CAPACITY];
+
+    private int eventCount;
+
+    /**
+     * The position of each event within the heap or {@link #NOT_SCHEDULED}.
+     */
+    private int[] positions = new int[INITIAL_CAPACITY];
+
+    /**
+     * The cycle of each heap entry, the earliest is always at index 0.
+     */
+    private long[] heapCycles = new long[INITIAL_CAPACITY];
+
+    /**
+     * The event number of each heap entry.
+     */
+    private int[] heapEvents = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        b.append('[');
+
+        String separator = "";
+        for (int i = 0; i < this.size; i++) {
+            b.append(separator)
+                .append(this.heapEvents[i])
+                .append('@')
+                .append(this.heapCycles[i]);
+            separator = ", ";
+        }
+
+        return b.append(']')
+            .toString();
+    }
+}
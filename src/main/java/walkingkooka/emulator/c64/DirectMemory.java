@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Holds a block of read/write memory outside the java heap, in a direct {@link ByteBuffer}.
+ * Offsets are masked and base offsets applied exactly like {@link Memory}, and the read only {@link #buffer()}
+ * view may be handed to channels without copying. Memory created by {@link #map(Path, int)} is a view of a file,
+ * with the operating system reading pages when they are first accessed and writing changed pages back.
+ */
+final class DirectMemory implements RamAddressBus {
+
+    /**
+     * Creates some direct memory. The size should be a power of two.
+     */
+    static DirectMemory with(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size " + size + " <= 0");
+        }
+        return new DirectMemory(ByteBuffer.allocateDirect(size),
+            size - 1,
+            0,
+            DirtyPages.with((size + 255) >> 8));
+    }
+
+    /**
+     * Creates memory mapped to the start of the given file, which is created or extended with zeros if necessary.
+     * Nothing is read until a byte is first accessed, and writes reach the file without any explicit save, although
+     * only {@link #force()} guarantees they are on disk.
+     */
+    static DirectMemory map(final Path path,
+                            final int size) throws IOException {
+        Objects.requireNonNull(path, "path");
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size " + size + " <= 0");
+        }
+
+        // the mapping remains valid after the channel is closed
+        try (final FileChannel channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        )) {
+            return new DirectMemory(channel.map(FileChannel.MapMode.READ_WRITE, 0, size),
+                size - 1,
+                0,
+                DirtyPages.with((size + 255) >> 8));
+        }
+    }
+
+    private DirectMemory(final ByteBuffer values,
+                         final int mask,
+                         final int baseOffset,
+                         final DirtyPages dirtyPages) {
+        super();
+        this.values = values;
+        this.mask = mask;
+        this.baseOffset = baseOffset;
+        this.dirtyPages = dirtyPages;
+    }
+
+    @Override
+    public byte read(final int offset) {
+        return this.values.get(this.offset(offset));
+    }
+
+    @Override
+    public void write(final int offset, final byte value) {
+        final int masked = this.offset(offset);
+        this.values.put(masked, value);
+        this.dirtyPages.mark(masked >> 8);
+    }
+
+    /**
+     * Copies the bytes with at most two bulk gets, the second when the range wraps around the end of the memory.
+     */
+    @Override
+    public void read(final int offset,
+                     final byte[] values,
+                     final int valuesOffset,
+                     final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final ByteBuffer memory = this.values.duplicate();
+        int from = offset;
+        int to = valuesOffset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = this.offset(from);
+            final int count = Math.min(remaining, memory.capacity() - masked);
+            memory.position(masked);
+            memory.get(values, to, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public void write(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final ByteBuffer memory = this.values.duplicate();
+        final DirtyPages dirtyPages = this.dirtyPages;
+        int from = valuesOffset;
+        int to = offset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = this.offset(to);
+            final int count = Math.min(remaining, memory.capacity() - masked);
+            memory.position(masked);
+            memory.put(values, from, count);
+
+            final int lastPage = (masked + count - 1) >> 8;
+            for (int page = masked >> 8; page <= lastPage; page++) {
+                dirtyPages.mark(page);
+            }
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.values.capacity();
+    }
+
+    /**
+     * Only memory without a base offset has a buffer, as offsets would not match buffer indices.
+     */
+    @Override
+    public Optional<ByteBuffer> buffer() {
+        return 0 == this.baseOffset ?
+            Optional.of(
+                this.values.asReadOnlyBuffer()
+            ) :
+            Optional.empty();
+    }
+
+    /**
+     * Returns a copy held in new direct memory, so writes to a copy of memory created by {@link #map(Path, int)}
+     * never reach the file.
+     */
+    @Override
+    public DirectMemory fork() {
+        final ByteBuffer values = ByteBuffer.allocateDirect(this.size());
+        values.put(this.values.duplicate())
+            .clear();
+
+        return new DirectMemory(
+            values,
+            this.mask,
+            this.baseOffset,
+            this.dirtyPages.copy()
+        );
+    }
+
+    /**
+     * Writes any changes to memory created by {@link #map(Path, int)} to its file, doing nothing for other memory.
+     */
+    @Override
+    public void force() {
+        final ByteBuffer values = this.values;
+        if (values instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) values).force();
+        }
+    }
+
+    /**
+     * The memory value, only ever accessed using absolute gets and puts or through duplicates so the position
+     * is always zero.
+     */
+    private final ByteBuffer values;
+
+    private int offset(final int offset) {
+        return (this.baseOffset + offset) & this.mask;
+    }
+
+    /**
+     * Mask used to mask out unnecessary offset bits.
+     */
+    private final int mask;
+
+    /**
+     * THe base offset added to the read/write offset before masking.
+     */
+    private final int baseOffset;
+
+    @Override
+    public DirectMemory setBaseOffset(final int offset) {
+        return 0 == offset ?
+            this :
+            new DirectMemory(this.values, this.mask, offset - this.baseOffset, this.dirtyPages);
+    }
+
+    /**
+     * The pages written since the last {@link DirtyPages#clear()}, shared with any views created by
+     * {@link #setBaseOffset(int)}.
+     */
+    @Override
+    public DirtyPages dirtyPages() {
+        return this.dirtyPages;
+    }
+
+    private final DirtyPages dirtyPages;
+
+    // Snapshotable.....................................................................................................
+
+    /**
+     * Saves all the memory, including bytes not visible through the base offset.
+     */
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.put(this.values.duplicate());
+    }
+
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        final int size = this.size();
+
+        // same as Memory, where ByteBuffer.get(byte[]) checks before copying anything
+        if (buffer.remaining() < size) {
+            throw new BufferUnderflowException();
+        }
+
+        final ByteBuffer source = buffer.slice();
+        source.limit(size);
+
+        this.values.duplicate()
+            .put(source);
+        buffer.position(buffer.position() + size);
+        this.dirtyPages.markAll();
+    }
+
+    /**
+     * Reports direct memory and the read/write mask.
+     */
+    @Override
+    public String toString() {
+        return "DirectMemory 0x" + Integer.toHexString(this.mask);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A bitmap with a bit for each 256 byte page of a memory, set whenever any byte in that page is written. Marking a
+ * page is a single bit set, and enumerating only visits the words with bits set, so consumers never need to scan the
+ * memory itself for changes.
+ */
+final class DirtyPages {
+
+    static DirtyPages with(final int pageCount) {
+        if (pageCount <= 0) {
+            throw new IllegalArgumentException("Page count " + pageCount + " <= 0");
+        }
+        return new DirtyPages(pageCount);
+    }
+
+    private DirtyPages(final int pageCount) {
+        super();
+        this.pageCount = pageCount;
+        this.bits = new long[(pageCount + 63) >> 6];
+    }
+
+    /**
+     * Marks the given page as dirty.
+     */
+    void mark(final int page) {
+        this.bits[page >> 6] |= 1L << page;
+    }
+
+    /**
+     * Marks every page as dirty, useful when the entire memory has been replaced.
+     */
+    void markAll() {
+        for (int i = 0; i < this.pageCount; i++) {
+            this.mark(i);
+        }
+    }
+
+    /**
+     * Tests if the given page was written since the last {@link #clear()}.
+     */
+    boolean isDirty(final int page) {
+        return 0 != (this.bits[page >> 6] & (1L << page));
+    }
+
+    /**
+     * Passes each dirty page number in ascending order to the given {@link IntConsumer}.
+     */
+    void forEach(final IntConsumer pages) {
+        final long[] bits = this.bits;
+
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            while (0 != word) {
+                pages.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Counts the dirty pages.
+     */
+    int count() {
+        int count = 0;
+        for (final long word : this.bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Marks all pages as clean, typically after a checkpoint.
+     */
+    void clear() {
+        final long[] bits = this.bits;
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = 0;
+        }
+    }
+
+    /**
+     * Returns an independent copy with the same pages dirty.
+     */
+    DirtyPages copy() {
+        final DirtyPages copy = new DirtyPages(this.pageCount);
+        System.arraycopy(
+            this.bits,
+            0,
+            copy.bits,
+            0,
+            this.bits.length
+        );
+        return copy;
+    }
+
+    private final int pageCount;
+
+    private final long[] bits;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        this.forEach(
+            (p) -> {
+                if (b.length() > 0) {
+                    b.append(',');
+                }
+                b.append(p);
+            }
+        );
+        return b.toString();
+    }
+}
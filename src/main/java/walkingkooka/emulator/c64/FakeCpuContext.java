@@ -17,6 +17,8 @@
 
 package walkingkooka.emulator.c64;
 
+import java.util.function.Consumer;
+
 public class FakeCpuContext implements CpuContext {
     
     public FakeCpuContext() {
@@ -153,6 +155,16 @@ public class FakeCpuContext implements CpuContext {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public long cycles() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addCycles(final int cycles) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public byte readByte(final short address) {
         throw new UnsupportedOperationException();
@@ -201,6 +213,11 @@ public class FakeCpuContext implements CpuContext {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean isInterruptPending() {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void handleInterrupts() {
         throw new UnsupportedOperationException();
@@ -222,7 +239,7 @@ public class FakeCpuContext implements CpuContext {
     }
 
     @Override
-    public void handleBreakpoints() {
+    public boolean handleBreakpoints() {
         throw new UnsupportedOperationException();
     }
 
@@ -246,6 +263,17 @@ public class FakeCpuContext implements CpuContext {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void handleTrap(final byte trap) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Runnable addTrap(final byte trap,
+                            final Consumer<CpuContext> handler) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Runnable addWatcher(final CpuWatcher watcher) {
         throw new UnsupportedOperationException();
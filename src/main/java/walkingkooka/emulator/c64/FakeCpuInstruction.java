@@ -33,6 +33,11 @@ public class FakeCpuInstruction implements CpuInstruction {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public int cycles() {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void execute(final CpuContext context) {
         throw new UnsupportedOperationException();
@@ -17,12 +17,15 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Holds a block of read/write memory.
  * Note the offset will be masked and only the bottom 8 bits used to identify the memory byte.
  */
-final class Memory implements AddressBus {
+final class Memory implements AddressBus, Snapshotable {
 
     /**
      * Creates some memory. The size should be a power of two.
@@ -33,16 +36,19 @@ final class Memory implements AddressBus {
         }
         return new Memory(new byte[size],
             size - 1,
-            0);
+            0,
+            DirtyPages.with((size + 255) >> 8));
     }
 
     private Memory(final byte[] values,
                    final int mask,
-                   final int baseOffset) {
+                   final int baseOffset,
+                   final DirtyPages dirtyPages) {
         super();
         this.values = values;
         this.mask = mask;
         this.baseOffset = baseOffset;
+        this.dirtyPages = dirtyPages;
     }
 
     @Override
@@ -52,7 +58,66 @@ final class Memory implements AddressBus {
 
     @Override
     public void write(final int offset, final byte value) {
-        this.values[this.offset(offset)] = value;
+        final int masked = this.offset(offset);
+        this.values[masked] = value;
+        this.dirtyPages.mark(masked >> 8);
+    }
+
+    /**
+     * Copies the bytes with at most two array copies, the second when the range wraps around the end of the memory.
+     */
+    @Override
+    public void read(final int offset,
+                     final byte[] values,
+                     final int valuesOffset,
+                     final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final byte[] memory = this.values;
+        int from = offset;
+        int to = valuesOffset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = this.offset(from);
+            final int count = Math.min(remaining, memory.length - masked);
+            System.arraycopy(memory, masked, values, to, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public void write(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final byte[] memory = this.values;
+        final DirtyPages dirtyPages = this.dirtyPages;
+        int from = valuesOffset;
+        int to = offset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = this.offset(to);
+            final int count = Math.min(remaining, memory.length - masked);
+            System.arraycopy(values, from, memory, masked, count);
+
+            final int lastPage = (masked + count - 1) >> 8;
+            for (int page = masked >> 8; page <= lastPage; page++) {
+                dirtyPages.mark(page);
+            }
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
     }
 
     @Override
@@ -60,6 +125,19 @@ final class Memory implements AddressBus {
         return this.values.length;
     }
 
+    /**
+     * Only memory without a base offset has a buffer, as offsets would not match buffer indices.
+     */
+    @Override
+    public Optional<ByteBuffer> buffer() {
+        return 0 == this.baseOffset ?
+            Optional.of(
+                ByteBuffer.wrap(this.values)
+                    .asReadOnlyBuffer()
+            ) :
+            Optional.empty();
+    }
+
     /**
      * The memory value.
      */
@@ -83,7 +161,33 @@ final class Memory implements AddressBus {
     public Memory setBaseOffset(final int offset) {
         return 0 == offset ?
             this :
-            new Memory(this.values, this.mask, offset - this.baseOffset);
+            new Memory(this.values, this.mask, offset - this.baseOffset, this.dirtyPages);
+    }
+
+    /**
+     * The pages written since the last {@link DirtyPages#clear()}, shared with any views created by
+     * {@link #setBaseOffset(int)}.
+     */
+    DirtyPages dirtyPages() {
+        return this.dirtyPages;
+    }
+
+    private final DirtyPages dirtyPages;
+
+    // Snapshotable.....................................................................................................
+
+    /**
+     * Saves all the memory, including bytes not visible through the base offset.
+     */
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.put(this.values);
+    }
+
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        buffer.get(this.values);
+        this.dirtyPages.markAll();
     }
 
     /**
@@ -65,7 +65,6 @@ interface Numbers {
 
     default void setMinusAndZero(final byte value,
                                  final CpuContext context) {
-        context.setZero(0 == value);
-        context.setMinus(value < 0);
+        context.setMinusAndZero(value);
     }
 }
@@ -52,6 +52,56 @@ final class PagedAddressBus implements AddressBus {
         this.page(offset).write(offset, value);
     }
 
+    /**
+     * Splits the read at page boundaries, passing each part to the page in a single bulk read.
+     */
+    @Override
+    public void read(final int offset,
+                     final byte[] values,
+                     final int valuesOffset,
+                     final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        int from = offset;
+        int to = valuesOffset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int count = Math.min(remaining, 256 - (from & 0xff));
+            this.page(from).read(from, values, to, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Splits the write at page boundaries, passing each part to the page in a single bulk write.
+     */
+    @Override
+    public void write(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        int from = valuesOffset;
+        int to = offset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int count = Math.min(remaining, 256 - (to & 0xff));
+            this.page(to).write(to, values, from, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
     /**
      * Fetches the {@link AddressBus} at the given page.
      */
@@ -64,7 +114,7 @@ final class PagedAddressBus implements AddressBus {
 
     @Override
     public int size() {
-        return 256 * 256;
+        return this.pages.length * 256;
     }
 
     @Override
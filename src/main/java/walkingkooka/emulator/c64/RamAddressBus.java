@@ -17,25 +17,24 @@
 
 package walkingkooka.emulator.c64;
 
-final class CpuWatcherEventReset extends CpuWatcherEvent {
-
-    static CpuWatcherEventReset with(final CpuContext context) {
-        return new CpuWatcherEventReset(context);
-    }
-
-    private CpuWatcherEventReset(final CpuContext context) {
-        super(context);
-    }
+/**
+ * The RAM of a {@link C64}, which may be held in the heap by {@link CopyOnWriteMemory} or mapped onto a file by
+ * {@link DirectMemory#map(java.nio.file.Path, int)}.
+ */
+interface RamAddressBus extends AddressBus, Snapshotable {
 
-    @Override
-    void fire(final CpuWatcher watcher) {
-        watcher.onReset(this.context);
-    }
+    /**
+     * The pages written since the last {@link DirtyPages#clear()}.
+     */
+    DirtyPages dirtyPages();
 
-    // Object...........................................................................................................
+    /**
+     * Returns an independent copy of this memory, starting with the same {@link DirtyPages}.
+     */
+    RamAddressBus fork();
 
-    @Override
-    public String toString() {
-        return this.getClass().getSimpleName();
-    }
+    /**
+     * Writes any changes to the file backing this memory, doing nothing for memory only held by the process.
+     */
+    void force();
 }
@@ -20,26 +20,42 @@ package walkingkooka.emulator.c64;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.ToStringBuilderOption;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * An {@link AddressBus} that provides read only memory, passing all writes to another {@link AddressBus}.
  */
 final class Rom implements AddressBus {
 
+    /**
+     * Creates a {@link Rom} with a copy of the given values.
+     */
     static Rom with(final byte[] values,
                     final AddressBus write) {
         Objects.requireNonNull(values, "values");
         Objects.requireNonNull(write, "write");
 
-        return new Rom(values, write, 0);
+        return new Rom(values.clone(), write, 0);
+    }
+
+    /**
+     * Creates a {@link Rom} sharing the bytes of the given {@link RomImage}.
+     */
+    static Rom with(final RomImage image,
+                    final AddressBus write) {
+        Objects.requireNonNull(image, "image");
+        Objects.requireNonNull(write, "write");
+
+        return new Rom(image.values(), write, 0);
     }
 
     private Rom(final byte[] values,
                 final AddressBus write,
                 final int baseOffset) {
         super();
-        this.values = values.clone();
+        this.values = values;
         this.mask = values.length - 1;
         this.write = write;
 
@@ -52,7 +68,34 @@ final class Rom implements AddressBus {
     }
 
     /**
-     * The read only memory.
+     * Copies the bytes with at most two array copies, the second when the range wraps around the end of the ROM.
+     */
+    @Override
+    public void read(final int offset,
+                     final byte[] values,
+                     final int valuesOffset,
+                     final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final byte[] rom = this.values;
+        int from = offset;
+        int to = valuesOffset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = this.offset(from);
+            final int count = Math.min(remaining, rom.length - masked);
+            System.arraycopy(rom, masked, values, to, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * The read only memory, which may be shared with other {@link Rom} and must never be modified.
      */
     private final byte[] values;
 
@@ -66,6 +109,34 @@ final class Rom implements AddressBus {
         this.write.write(this.offset(offset), value);
     }
 
+    /**
+     * Passes the bytes to the write {@link AddressBus} in at most two bulk writes, splitting where the range wraps
+     * around the end of the ROM.
+     */
+    @Override
+    public void write(final int offset,
+                      final byte[] values,
+                      final int valuesOffset,
+                      final int length) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(valuesOffset, length, values.length);
+
+        final int size = this.values.length;
+        int from = valuesOffset;
+        int to = offset;
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int masked = this.offset(to);
+            final int count = Math.min(remaining, size - masked);
+            this.write.write(masked, values, from, count);
+
+            from += count;
+            to += count;
+            remaining -= count;
+        }
+    }
+
     private final AddressBus write;
 
     private int offset(final int offset) {
@@ -79,6 +150,19 @@ final class Rom implements AddressBus {
         return this.values.length;
     }
 
+    /**
+     * Only a ROM without a base offset has a buffer, as offsets would not match buffer indices.
+     */
+    @Override
+    public Optional<ByteBuffer> buffer() {
+        return 0 == this.baseOffset ?
+            Optional.of(
+                ByteBuffer.wrap(this.values)
+                    .asReadOnlyBuffer()
+            ) :
+            Optional.empty();
+    }
+
     @Override
     public Rom setBaseOffset(final int offset) {
         return 0 == offset ?
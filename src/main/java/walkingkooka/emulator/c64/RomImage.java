@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.text.CharSequences;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable ROM image shared by reference by every {@link Rom} created from it. The bundled BASIC, KERNAL and
+ * character generator images are loaded once per process on first use, and ROM files are loaded once per path.
+ */
+public final class RomImage {
+
+    /**
+     * The BASIC ROM.
+     * <pre>
+     * https://www.commodore.ca/manuals/funet/cbm/firmware/computers/c64/basic.901226-01.bin
+     * </pre>
+     */
+    public static RomImage basic() {
+        return Basic.INSTANCE;
+    }
+
+    private static class Basic {
+        final static RomImage INSTANCE = resource("basic.901226-01.bin");
+    }
+
+    /**
+     * The character generator ROM.
+     * <pre>
+     * https://www.commodore.ca/manuals/funet/cbm/firmware/computers/c64/characters.901225-01.bin
+     * </pre>
+     */
+    public static RomImage characterGenerator() {
+        return CharacterGenerator.INSTANCE;
+    }
+
+    private static class CharacterGenerator {
+        final static RomImage INSTANCE = resource("characters.901225-01.bin");
+    }
+
+    /**
+     * The KERNAL ROM.
+     * <pre>
+     * https://www.commodore.ca/manuals/funet/cbm/firmware/computers/c64/kernal.901227-03.bin
+     * </pre>
+     */
+    public static RomImage kernal() {
+        return Kernal.INSTANCE;
+    }
+
+    private static class Kernal {
+        final static RomImage INSTANCE = resource("kernal.901227-03.bin");
+    }
+
+    private static RomImage resource(final String name) {
+        try (final InputStream inputStream = RomImage.class.getResourceAsStream("/walkingkooka/emulator/c64/" + name)) {
+            if (null == inputStream) {
+                throw new IllegalStateException("Unable to load ROM file " + CharSequences.quote(name));
+            }
+            return new RomImage(
+                name,
+                inputStream.readAllBytes()
+            );
+        } catch (final IOException cause) {
+            throw new IllegalStateException("Reading ROM file " + CharSequences.quote(name) + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Reads a ROM file into memory, returning the same {@link RomImage} for every later load of the same file. The size must be a power of two so offsets can be masked.
+     */
+    public static RomImage load(final Path path) throws IOException {
+        Objects.requireNonNull(path, "path");
+
+        final Path real = path.toRealPath();
+        RomImage image = FILES.get(real);
+        if (null == image) {
+            image = read(real);
+
+            final RomImage previous = FILES.putIfAbsent(real, image);
+            if (null != previous) {
+                image = previous;
+            }
+        }
+        return image;
+    }
+
+    private static RomImage read(final Path path) throws IOException {
+        final long size = Files.size(path);
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("ROM file " + CharSequences.quote(path.toString()) + " too large " + size + " > " + MAX_SIZE);
+        }
+
+        return with(
+            path.getFileName().toString(),
+            Files.readAllBytes(path)
+        );
+    }
+
+    /**
+     * ROM files already loaded by {@link #load(Path)} by real path.
+     */
+    private final static Map<Path, RomImage> FILES = new ConcurrentHashMap<>();
+
+    /**
+     * The largest ROM that may be loaded, the entire 64k address space.
+     */
+    private final static int MAX_SIZE = 64 * 1024;
+
+    /**
+     * Creates a {@link RomImage} taking ownership of the given array, which must not be modified afterwards.
+     */
+    static RomImage with(final String name,
+                         final byte[] values) {
+        final int size = values.length;
+        if (0 == size || 0 != (size & (size - 1))) {
+            throw new IllegalArgumentException("ROM " + CharSequences.quote(name) + " size " + size + " is not a power of two");
+        }
+        return new RomImage(name, values);
+    }
+
+    private RomImage(final String name,
+                     final byte[] values) {
+        super();
+        this.name = name;
+        this.values = values;
+    }
+
+    /**
+     * Returns a copy of this ROM with the bytes at the given offsets replaced. Each key is an offset from the start of
+     * the ROM, not a CPU address.
+     */
+    RomImage patch(final Map<Integer, Byte> patches) {
+        final byte[] values = this.values.clone();
+        final int size = values.length;
+
+        for (final Map.Entry<Integer, Byte> patch : patches.entrySet()) {
+            final int offset = patch.getKey();
+            if (offset < 0 || offset >= size) {
+                throw new IllegalArgumentException("Invalid patch offset " + offset + " < 0 or >= " + size);
+            }
+            values[offset] = patch.getValue();
+        }
+
+        return new RomImage(
+            this.name + " patched",
+            values
+        );
+    }
+
+    /**
+     * Returns a read only {@link ByteBuffer} positioned at the start of this ROM.
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(this.values)
+            .asReadOnlyBuffer();
+    }
+
+    /**
+     * The number of bytes in this ROM.
+     */
+    public int size() {
+        return this.values.length;
+    }
+
+    /**
+     * The ROM bytes, shared with every {@link Rom} and never modified.
+     */
+    byte[] values() {
+        return this.values;
+    }
+
+    private final String name;
+
+    private final byte[] values;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.name + " " + this.values.length + " bytes";
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by devices whose state may be saved and later restored, so a machine can return to a previous state
+ * without repeating the work that produced it.
+ */
+interface Snapshotable {
+
+    /**
+     * Writes the state of this device to the given {@link ByteBuffer}.
+     */
+    void save(final ByteBuffer buffer);
+
+    /**
+     * Replaces the state of this device with one previously written by {@link #save(ByteBuffer)}.
+     */
+    void restore(final ByteBuffer buffer);
+
+    static void putBoolean(final ByteBuffer buffer,
+                           final boolean value) {
+        buffer.put(
+            (byte) (value ? 1 : 0)
+        );
+    }
+
+    static boolean getBoolean(final ByteBuffer buffer) {
+        return 0 != buffer.get();
+    }
+}
@@ -20,13 +20,15 @@ package walkingkooka.emulator.c64;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.ToStringBuilderOption;
 
+import java.nio.ByteBuffer;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
- * Represents the time of day clock within a CIA chip. The alarm test is always performed after an update, and the watcher
- * notified when a match happens.
+ * Represents the time of day clock within a CIA chip. An update only advances an elapsed tick counter and tests it
+ * against the alarm deadline, the time is derived from the elapsed ticks when it is read. The watcher is notified
+ * when the alarm deadline is reached.
  * <br>
  * Related features for TOD that must be done externally in the CIA chip itself include:
  * <ul>
@@ -36,7 +38,7 @@ import java.util.Objects;
  * <li>Reading and formatting the value and alarm from/to with millis</li>
  * </ul>
  */
-final class TimeOfDayClock implements Updatable {
+final class TimeOfDayClock implements Updatable, Snapshotable {
 
     /**
      * Creates a new {@link TimeOfDayClock}.
@@ -54,47 +56,73 @@ final class TimeOfDayClock implements Updatable {
 
     @Override
     public void update(final int cycles) {
-        long time = this.time;
-        final long alarm = this.alarm;
-
-        final boolean maybeFire = time < alarm;
-
-        time = time + cycles;
+        final long elapsed = this.elapsed + cycles;
+        this.elapsed = elapsed;
 
-        final boolean fire = time >= alarm;
-        if (time > TICKS_DAY) {
-            time = time - TICKS_DAY;
-        }
-        this.time = time;
-        if (maybeFire && fire) {
+        if (elapsed >= this.alarmDeadline) {
+            // the alarm will next match a day later
+            this.alarmDeadline += TICKS_DAY;
             this.watcher.run();
         }
     }
 
+    /**
+     * Returns the number of ticks that {@link #update(int)} must be given before the alarm fires, or -1 if no alarm
+     * is set.
+     */
+    long ticksUntilAlarm() {
+        return -1 == this.alarm ?
+            -1 :
+            this.alarmDeadline - this.elapsed;
+    }
+
     int timeHours() {
-        return extractHours(this.time);
+        return extractHours(this.time());
     }
 
     int timeMinutes() {
-        return extractMinutes(this.time);
+        return extractMinutes(this.time());
     }
 
     int timeSeconds() {
-        return extractSeconds(this.time);
+        return extractSeconds(this.time());
     }
 
     int timeNano() {
-        return extractNano(this.time);
+        return extractNano(this.time());
     }
 
     void setTime(final int hours,
                  final int minutes,
                  final int seconds,
                  final int nano) {
-        this.time = computeTicks(hours, minutes, seconds, nano);
+        this.baseTime = computeTicks(hours, minutes, seconds, nano);
+        this.baseElapsed = this.elapsed;
+
+        this.computeAlarmDeadline();
     }
 
-    private long time;
+    /**
+     * Derives the time from the ticks elapsed since it was last set.
+     */
+    private long time() {
+        return (this.baseTime + this.elapsed - this.baseElapsed) % TICKS_DAY;
+    }
+
+    /**
+     * The time when it was last set.
+     */
+    private long baseTime;
+
+    /**
+     * The value of {@link #elapsed} when the time was last set.
+     */
+    private long baseElapsed;
+
+    /**
+     * The total ticks given to {@link #update(int)}.
+     */
+    private long elapsed;
 
     int alarmHours() {
         final long alarm = this.alarm;
@@ -129,6 +157,25 @@ final class TimeOfDayClock implements Updatable {
                   final int seconds,
                   final int nano) {
         this.alarm = computeTicks(hours, minutes, seconds, nano);
+
+        this.computeAlarmDeadline();
+    }
+
+    /**
+     * Computes the {@link #elapsed} value when the time will next pass the alarm, a time already at or past the alarm
+     * matches after midnight.
+     */
+    private void computeAlarmDeadline() {
+        final long alarm = this.alarm;
+
+        if (-1 != alarm) {
+            final long time = this.time();
+
+            this.alarmDeadline = this.elapsed +
+                (time < alarm ?
+                    alarm - time :
+                    TICKS_DAY - time + alarm);
+        }
     }
 
     /**
@@ -136,6 +183,11 @@ final class TimeOfDayClock implements Updatable {
      */
     private long alarm = -1;
 
+    /**
+     * The {@link #elapsed} value when the alarm next fires, never reached when no alarm is set.
+     */
+    private long alarmDeadline = Long.MAX_VALUE;
+
     // helpers..........................................................................................................
 
     private static int extractHours(final long value) {
@@ -182,6 +234,26 @@ final class TimeOfDayClock implements Updatable {
      */
     private final Runnable watcher;
 
+    // Snapshotable.....................................................................................................
+
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.putLong(this.baseTime);
+        buffer.putLong(this.baseElapsed);
+        buffer.putLong(this.elapsed);
+        buffer.putLong(this.alarm);
+        buffer.putLong(this.alarmDeadline);
+    }
+
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        this.baseTime = buffer.getLong();
+        this.baseElapsed = buffer.getLong();
+        this.elapsed = buffer.getLong();
+        this.alarm = buffer.getLong();
+        this.alarmDeadline = buffer.getLong();
+    }
+
     // toString.........................................................................................................
 
     @Override
@@ -17,11 +17,12 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
  * One of the individual 16-bit {@link Timer timers} within a  CIA chip.
- * The given {@link Runnable} will be called upon underflow, the latch value is not reloaded on underflow.
+ * The given {@link Runnable} will be called upon each underflow, the latch value is not reloaded on underflow.
  * <br>
  * Numerous features of a CIA chip related to timers will have to be emulated by the chip and not this timer.
  * These includes:
@@ -32,7 +33,7 @@ import java.util.Objects;
  * <li>Any write to bit(s) that is enabled by writing to a non Timer register</li>
  * </ul>
  */
-final class Timer implements Updatable {
+final class Timer implements Updatable, Snapshotable {
 
     /**
      * The initial default value for a {@link Timer} without any {@link #loadLatch()}.
@@ -66,18 +67,37 @@ final class Timer implements Updatable {
         this.value = this.latch;
     }
 
+    /**
+     * Counts down by the given cycles, calling the underflow {@link Runnable} once for every underflow. When the
+     * {@link Runnable} reloads the latch the count down continues with the remaining cycles, so several periods may
+     * pass in one update, leaving the value at <code>latch - ((overshoot - 1) % (latch + 1))</code>.
+     */
     @Override
     public void update(final int cycles) {
-        final int before = this.value;
-        if (before >= 0) {
-            this.value = before - cycles;
-            if (this.value < 0) {
-                this.value = -1;
-                this.underflow.run();
-            }
+        int remaining = cycles;
+
+        while (this.value >= 0 && remaining > this.value) {
+            remaining = remaining - this.value - 1;
+            this.value = -1;
+            this.underflow.run();
+        }
+
+        if (this.value >= 0) {
+            this.value = this.value - remaining;
         }
     }
 
+    /**
+     * Returns the number of cycles that {@link #update(int)} must be given before the next underflow, or -1 if the
+     * timer has already underflowed and will not underflow again until the latch is loaded.
+     */
+    int cyclesUntilUnderflow() {
+        final int value = this.value;
+        return value >= 0 ?
+            value + 1 :
+            -1;
+    }
+
     /**
      * Reads the current countdown value.
      */
@@ -95,6 +115,20 @@ final class Timer implements Updatable {
      */
     private final Runnable underflow;
 
+    // Snapshotable.....................................................................................................
+
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.putInt(this.value);
+        buffer.putInt(this.latch);
+    }
+
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        this.value = buffer.getInt();
+        this.latch = buffer.getInt();
+    }
+
     // Object...........................................................................................................
 
     @Override
@@ -0,0 +1,681 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.color.Color;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * The VIC-II registers, which are repeated every 64 bytes across $D000-$D3FF. The raster line is not stored but
+ * computed from the CPU cycle count, so it is always correct no matter how many cycles have passed since it was
+ * last read.
+ * <br>
+ * Once {@link #pixels()} is first called, raster lines are rendered into a reusable ARGB frame buffer. With a
+ * {@link CycleScheduler} each line is drawn when the scheduler reaches its end, so memory and register changes between
+ * lines appear on the correct line. Without one, lines are only drawn when a register is written or the pixels are
+ * requested, reading memory as it is at that time. Character, bitmap, multicolour and extended colour modes are drawn,
+ * sprites are not, and memory is read when a line is rendered rather than cycle by cycle.
+ * <br>
+ * <a href="https://www.c64-wiki.com/wiki/Page_208-211">VIC-II registers</a>
+ */
+final class Vic implements AddressBus, Snapshotable {
+
+    /**
+     * The number of CPU cycles taken to draw a single raster line on a PAL machine.
+     */
+    final static int CYCLES_PER_LINE = 63;
+
+    /**
+     * The number of raster lines in a PAL frame, including the vertical blank.
+     */
+    final static int LINES = 312;
+
+    /**
+     * The number of CPU cycles in a single PAL frame.
+     */
+    final static int CYCLES_PER_FRAME = CYCLES_PER_LINE * LINES;
+
+    /**
+     * Creates a PAL VIC without colour RAM that never interrupts.
+     */
+    static Vic with(final LongSupplier clock) {
+        return with(
+            VicModel.PAL,
+            clock,
+            Memory.with(1024),
+            () -> {
+            }
+        );
+    }
+
+    static Vic with(final VicModel model,
+                    final LongSupplier clock,
+                    final AddressBus colour,
+                    final Runnable interrupt) {
+        Objects.requireNonNull(model, "model");
+        Objects.requireNonNull(clock, "clock");
+        Objects.requireNonNull(colour, "colour");
+        Objects.requireNonNull(interrupt, "interrupt");
+
+        return new Vic(
+            model,
+            clock,
+            colour,
+            interrupt
+        );
+    }
+
+    private Vic(final VicModel model,
+                final LongSupplier clock,
+                final AddressBus colour,
+                final Runnable interrupt) {
+        super();
+        this.model = model;
+        this.clock = clock;
+        this.colour = colour;
+        this.interrupt = interrupt;
+    }
+
+    /**
+     * The PAL or NTSC timing and visible area.
+     */
+    VicModel model() {
+        return this.model;
+    }
+
+    private final VicModel model;
+
+    // AddressBus.......................................................................................................
+
+    private final static int MASK = 0x3f;
+
+    /**
+     * Bit 7 holds bit 8 of the raster line.
+     */
+    final static int CONTROL1 = 0x11;
+
+    /**
+     * Bits 0-7 of the raster line.
+     */
+    final static int RASTER = 0x12;
+
+    /**
+     * Horizontal scroll, 38/40 columns and multicolour mode.
+     */
+    final static int CONTROL2 = 0x16;
+
+    /**
+     * Screen and character or bitmap memory within the bank.
+     */
+    final static int MEMORY = 0x18;
+
+    /**
+     * Interrupt latch, unused bits always read as 1.
+     */
+    final static int INTERRUPT = 0x19;
+
+    /**
+     * Interrupt enable mask, unused bits always read as 1.
+     */
+    final static int INTERRUPT_ENABLE = 0x1a;
+
+    final static int BORDER = 0x20;
+
+    /**
+     * The first of the four background colours.
+     */
+    final static int BACKGROUND0 = 0x21;
+
+    /**
+     * Registers after this one are not connected and always read $FF.
+     */
+    final static int LAST = 0x2e;
+
+    @Override
+    public byte read(final int offset) {
+        final int register = offset & MASK;
+
+        final byte value;
+
+        switch (register) {
+            case CONTROL1:
+                value = (byte) ((this.registers[CONTROL1] & 0x7f) | ((this.raster() >> 1) & 0x80));
+                break;
+            case RASTER:
+                value = (byte) this.raster();
+                break;
+            case INTERRUPT:
+                value = (byte) (this.registers[INTERRUPT] | 0x70);
+                break;
+            case INTERRUPT_ENABLE:
+                value = (byte) (this.registers[INTERRUPT_ENABLE] | 0xf0);
+                break;
+            default:
+                value = register > LAST ?
+                    (byte) 0xff :
+                    this.registers[register];
+                break;
+        }
+
+        return value;
+    }
+
+    /**
+     * Lines up to the current raster line are rendered before the register is written.
+     */
+    @Override
+    public void write(final int offset, final byte value) {
+        this.render();
+
+        final int register = offset & MASK;
+
+        switch (register) {
+            case CONTROL1:
+            case RASTER:
+                this.registers[register] = value;
+                this.reschedule();
+                break;
+            case INTERRUPT:
+                // writing a 1 acknowledges that interrupt
+                this.setInterrupt(this.registers[INTERRUPT] & ~value);
+                break;
+            case INTERRUPT_ENABLE:
+                this.registers[INTERRUPT_ENABLE] = value;
+                this.setInterrupt(this.registers[INTERRUPT]);
+                break;
+            default:
+                this.registers[register] = value;
+                break;
+        }
+    }
+
+    @Override
+    public int size() {
+        return 0x400;
+    }
+
+    private final byte[] registers = new byte[MASK + 1];
+
+    /**
+     * The raster line currently being drawn.
+     */
+    int raster() {
+        final VicModel model = this.model;
+        return (int) ((this.clock.getAsLong() / model.cyclesPerLine) % model.lines);
+    }
+
+    /**
+     * Supplies the current CPU cycle.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Receives the {@link AddressBus} for the selected bank from the {@link VicMapper}.
+     */
+    void setAddressBus(final AddressBus addressBus) {
+        this.addressBus = addressBus;
+    }
+
+    /**
+     * The memory visible to the VIC, which may be null until a bank is selected.
+     */
+    AddressBus addressBus;
+
+    /**
+     * The 1K colour RAM at $D800, which is always visible to the VIC whatever the bank.
+     */
+    private final AddressBus colour;
+
+    // interrupts.......................................................................................................
+
+    /**
+     * The raster compare interrupt bit within {@link #INTERRUPT} and {@link #INTERRUPT_ENABLE}.
+     */
+    private final static int RASTER_INTERRUPT = 0x01;
+
+    /**
+     * Updates the interrupt latch, setting bit 7 and firing an interrupt when an enabled interrupt is latched for
+     * the first time.
+     */
+    private void setInterrupt(final int latch) {
+        final byte[] registers = this.registers;
+        final boolean requested = 0 != (latch & registers[INTERRUPT_ENABLE] & 0x0f);
+        final boolean previous = 0 != (registers[INTERRUPT] & 0x80);
+
+        registers[INTERRUPT] = (byte) ((latch & 0x0f) | (requested ? 0x80 : 0));
+
+        if (requested && false == previous) {
+            this.interrupt.run();
+        }
+    }
+
+    /**
+     * Fires an interrupt on the CPU.
+     */
+    private final Runnable interrupt;
+
+    // CycleScheduler...................................................................................................
+
+    /**
+     * Attaches this VIC to the given {@link CycleScheduler}, which will latch the raster interrupt at the start of the
+     * raster compare line, and once {@link #pixels()} is requested render each line as it ends.
+     */
+    void schedule(final CycleScheduler scheduler) {
+        Objects.requireNonNull(scheduler, "scheduler");
+        if (null != this.scheduler) {
+            throw new IllegalStateException("VIC already scheduled");
+        }
+
+        this.scheduler = scheduler;
+        this.event = scheduler.register(this::scheduledEvent);
+        this.lineEvent = scheduler.register(this::lineEvent);
+
+        this.reschedule();
+        this.rescheduleLine();
+    }
+
+    /**
+     * Schedules the event for the start of the next raster compare line, or cancels it if the line is past the end of
+     * the frame and will never be reached.
+     */
+    private void reschedule() {
+        final CycleScheduler scheduler = this.scheduler;
+        if (null != scheduler) {
+            final VicModel model = this.model;
+            final byte[] registers = this.registers;
+            final int compare = (registers[RASTER] & 0xff) | ((registers[CONTROL1] & 0x80) << 1);
+
+            if (compare >= model.lines) {
+                scheduler.cancel(this.event);
+            } else {
+                final long now = scheduler.now();
+                long cycle = now - now % model.cyclesPerFrame + compare * model.cyclesPerLine;
+                if (cycle <= now) {
+                    cycle += model.cyclesPerFrame;
+                }
+
+                scheduler.schedule(
+                    this.event,
+                    cycle
+                );
+            }
+        }
+    }
+
+    private void scheduledEvent() {
+        this.setInterrupt(this.registers[INTERRUPT] | RASTER_INTERRUPT);
+        this.reschedule();
+    }
+
+    /**
+     * Schedules the line event for the end of the current raster line, but only when the {@link #pixels()} are being
+     * rendered.
+     */
+    private void rescheduleLine() {
+        final CycleScheduler scheduler = this.scheduler;
+        if (null != scheduler && null != this.pixels) {
+            final int cyclesPerLine = this.model.cyclesPerLine;
+
+            scheduler.schedule(
+                this.lineEvent,
+                (scheduler.now() / cyclesPerLine + 1) * cyclesPerLine
+            );
+        }
+    }
+
+    private void lineEvent() {
+        this.render();
+        this.rescheduleLine();
+    }
+
+    private CycleScheduler scheduler;
+
+    private int event;
+
+    private int lineEvent;
+
+    // rendering........................................................................................................
+
+    /**
+     * The width of a rendered frame, which includes the left and right borders.
+     */
+    final static int WIDTH = 384;
+
+    /**
+     * The offset of the first pixel of the 320 pixel wide graphics.
+     */
+    private final static int BORDER_LEFT = 32;
+
+    /**
+     * The raster line displaying the first pixel row when the vertical scroll is zero.
+     */
+    private final static int FIRST_GRAPHICS_LINE = 0x30;
+
+    private final static int ECM = 0x40;
+    private final static int BMM = 0x20;
+    private final static int DEN = 0x10;
+    private final static int RSEL = 0x08;
+    private final static int MCM = 0x10;
+    private final static int CSEL = 0x08;
+
+    /**
+     * Returns the frame buffer, which is updated up to the current raster line. The same array is returned every
+     * time, holding {@link VicModel#width()} by {@link VicModel#height()} ARGB pixels. The first call renders a whole
+     * frame from the current memory and registers, and when scheduled starts rendering each following line as it ends.
+     */
+    int[] pixels() {
+        int[] pixels = this.pixels;
+        if (null == pixels) {
+            pixels = new int[WIDTH * this.model.height()];
+            this.pixels = pixels;
+            this.line = new int[320 + 8];
+            this.rendered = 0;
+
+            this.rescheduleLine();
+        }
+
+        this.render();
+        return pixels;
+    }
+
+    /**
+     * Renders every line completed since the last render, at most a frame, doing nothing except advancing if the
+     * {@link #pixels()} were never requested.
+     */
+    private void render() {
+        final VicModel model = this.model;
+        final long current = this.clock.getAsLong() / model.cyclesPerLine;
+
+        final int[] pixels = this.pixels;
+        if (null != pixels) {
+            final int lines = model.lines;
+
+            for (long raster = Math.max(this.rendered, current - lines); raster < current; raster++) {
+                this.renderLine(
+                    (int) (raster % lines),
+                    pixels
+                );
+            }
+        }
+
+        this.rendered = current;
+    }
+
+    /**
+     * The absolute number of the next raster line to render, counted from cycle zero.
+     */
+    private long rendered;
+
+    private void renderLine(final int raster,
+                            final int[] pixels) {
+        final VicModel model = this.model;
+        final int row = raster - model.firstVisibleLine;
+
+        if (row >= 0 && row < model.height()) {
+            final byte[] registers = this.registers;
+            final int start = row * WIDTH;
+            final int border = PALETTE[registers[BORDER] & 0xf];
+            final int control1 = registers[CONTROL1];
+
+            final boolean rows25 = 0 != (control1 & RSEL);
+            if (0 == (control1 & DEN) || raster < (rows25 ? 51 : 55) || raster >= (rows25 ? 251 : 247)) {
+                Arrays.fill(pixels, start, start + WIDTH, border);
+            } else {
+                this.renderGraphics(raster, pixels, start + BORDER_LEFT);
+
+                final boolean columns40 = 0 != (registers[CONTROL2] & CSEL);
+                Arrays.fill(pixels, start, start + BORDER_LEFT + (columns40 ? 0 : 7), border);
+                Arrays.fill(pixels, start + BORDER_LEFT + (columns40 ? 320 : 311), start + WIDTH, border);
+            }
+        }
+    }
+
+    /**
+     * Renders the 320 pixels of graphics for the given raster line, shifted right by the horizontal scroll.
+     */
+    private void renderGraphics(final int raster,
+                                final int[] pixels,
+                                final int offset) {
+        final byte[] registers = this.registers;
+        final int control1 = registers[CONTROL1];
+        final int control2 = registers[CONTROL2];
+        final int background0 = PALETTE[registers[BACKGROUND0] & 0xf];
+
+        final int y = raster - FIRST_GRAPHICS_LINE - (control1 & 7);
+        final AddressBus addressBus = this.addressBus;
+
+        if (y < 0 || y >= 200 || null == addressBus) {
+            Arrays.fill(pixels, offset, offset + 320, background0);
+        } else {
+            final int[] line = this.line;
+            final AddressBus colour = this.colour;
+
+            final int memory = registers[MEMORY];
+            final int screen = (memory & 0xf0) << 6;
+            final int characters = (memory & 0x0e) << 10;
+            final int bitmap = (memory & 0x08) << 10;
+
+            final int background1 = PALETTE[registers[BACKGROUND0 + 1] & 0xf];
+            final int background2 = PALETTE[registers[BACKGROUND0 + 2] & 0xf];
+
+            final int mode = (control1 & (ECM | BMM)) | (control2 & MCM);
+            final int pixelRow = y & 7;
+            final int matrixStart = (y >> 3) * 40;
+
+            for (int column = 0; column < 40; column++) {
+                final int matrix = matrixStart + column;
+                final int code = addressBus.read(screen + matrix) & 0xff;
+                final int ink = colour.read(matrix) & 0xf;
+                final int x = column * 8;
+
+                switch (mode) {
+                    case 0:
+                        hires(
+                            addressBus.read(characters + code * 8 + pixelRow),
+                            PALETTE[ink],
+                            background0,
+                            line,
+                            x
+                        );
+                        break;
+                    case MCM:
+                        final int data = addressBus.read(characters + code * 8 + pixelRow);
+                        if (0 != (ink & 8)) {
+                            multicolour(
+                                data,
+                                background0,
+                                background1,
+                                background2,
+                                PALETTE[ink & 7],
+                                line,
+                                x
+                            );
+                        } else {
+                            hires(
+                                data,
+                                PALETTE[ink],
+                                background0,
+                                line,
+                                x
+                            );
+                        }
+                        break;
+                    case BMM:
+                        hires(
+                            addressBus.read(bitmap + matrix * 8 + pixelRow),
+                            PALETTE[code >> 4],
+                            PALETTE[code & 0xf],
+                            line,
+                            x
+                        );
+                        break;
+                    case BMM | MCM:
+                        multicolour(
+                            addressBus.read(bitmap + matrix * 8 + pixelRow),
+                            background0,
+                            PALETTE[code >> 4],
+                            PALETTE[code & 0xf],
+                            PALETTE[ink],
+                            line,
+                            x
+                        );
+                        break;
+                    case ECM:
+                        hires(
+                            addressBus.read(characters + (code & 0x3f) * 8 + pixelRow),
+                            PALETTE[ink],
+                            PALETTE[registers[BACKGROUND0 + (code >> 6)] & 0xf],
+                            line,
+                            x
+                        );
+                        break;
+                    default:
+                        // invalid modes display black
+                        Arrays.fill(line, x, x + 8, PALETTE[0]);
+                        break;
+                }
+            }
+
+            final int scroll = control2 & 7;
+            Arrays.fill(pixels, offset, offset + scroll, background0);
+            System.arraycopy(line, 0, pixels, offset + scroll, 320 - scroll);
+        }
+    }
+
+    /**
+     * Writes 8 pixels, one per bit with the most significant bit first.
+     */
+    private static void hires(final int data,
+                              final int foreground,
+                              final int background,
+                              final int[] line,
+                              final int x) {
+        for (int i = 0; i < 8; i++) {
+            line[x + i] = 0 != (data & (0x80 >> i)) ?
+                foreground :
+                background;
+        }
+    }
+
+    /**
+     * Writes 8 pixels, each pair of bits selecting one of four colours for two pixels.
+     */
+    private static void multicolour(final int data,
+                                    final int colour0,
+                                    final int colour1,
+                                    final int colour2,
+                                    final int colour3,
+                                    final int[] line,
+                                    final int x) {
+        for (int i = 0; i < 8; i += 2) {
+            final int colour;
+            switch ((data >> (6 - i)) & 3) {
+                case 0:
+                    colour = colour0;
+                    break;
+                case 1:
+                    colour = colour1;
+                    break;
+                case 2:
+                    colour = colour2;
+                    break;
+                default:
+                    colour = colour3;
+                    break;
+            }
+            line[x + i] = colour;
+            line[x + i + 1] = colour;
+        }
+    }
+
+    /**
+     * The frame buffer, which is null until {@link #pixels()} is first called.
+     */
+    private int[] pixels;
+
+    /**
+     * The graphics of a single line before the horizontal scroll is applied, reused for every line.
+     */
+    private int[] line;
+
+    /**
+     * The 16 colours as ARGB values, converted once from each {@link Color} so rendering only indexes an array.
+     */
+    private final static int[] PALETTE = argb(
+        Color.fromRgb(0x000000), // black
+        Color.fromRgb(0xffffff), // white
+        Color.fromRgb(0x68372b), // red
+        Color.fromRgb(0x70a4b2), // cyan
+        Color.fromRgb(0x6f3d86), // purple
+        Color.fromRgb(0x588d43), // green
+        Color.fromRgb(0x352879), // blue
+        Color.fromRgb(0xb8c76f), // yellow
+        Color.fromRgb(0x6f4f25), // orange
+        Color.fromRgb(0x433900), // brown
+        Color.fromRgb(0x9a6759), // light red
+        Color.fromRgb(0x444444), // dark grey
+        Color.fromRgb(0x6c6c6c), // grey
+        Color.fromRgb(0x9ad284), // light green
+        Color.fromRgb(0x6c5eb5), // light blue
+        Color.fromRgb(0x959595) // light grey
+    );
+
+    private static int[] argb(final Color... colors) {
+        final int count = colors.length;
+        final int[] argb = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            argb[i] = colors[i].argb();
+        }
+        return argb;
+    }
+
+    // Snapshotable.....................................................................................................
+
+    /**
+     * Only the registers are saved, the raster line is always derived from the clock.
+     */
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.put(this.registers);
+    }
+
+    /**
+     * Restores the registers and reschedules the raster interrupt from the current clock, which should already have
+     * been restored.
+     */
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        buffer.get(this.registers);
+
+        this.rendered = this.clock.getAsLong() / this.model.cyclesPerLine;
+        this.reschedule();
+        this.rescheduleLine();
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "VIC raster " + this.raster();
+    }
+}
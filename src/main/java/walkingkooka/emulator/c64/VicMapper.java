@@ -17,6 +17,7 @@
 
 package walkingkooka.emulator.c64;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -32,7 +33,7 @@ import java.util.function.Consumer;
  * one and the VIC-II chip would "see" the other.
  * </pre>
  */
-public final class VicMapper {
+public final class VicMapper implements Snapshotable {
 
     static VicMapper with(final AddressBus characters,
                           final AddressBus memory,
@@ -82,6 +83,25 @@ public final class VicMapper {
 
     private final Consumer<AddressBus> vicAddressBus;
 
+    // Snapshotable.....................................................................................................
+
+    @Override
+    public void save(final ByteBuffer buffer) {
+        buffer.put(
+            (byte) this.bank.number
+        );
+    }
+
+    /**
+     * Restores the bank and fires the {@link Consumer} with its address.
+     */
+    @Override
+    public void restore(final ByteBuffer buffer) {
+        this.setBank(
+            VicBank.values()[buffer.get()]
+        );
+    }
+
     @Override
     public String toString() {
         return "Bank " + this.bank.number;
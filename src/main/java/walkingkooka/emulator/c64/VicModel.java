@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+/**
+ * The timing and visible area of the PAL and NTSC VIC-II chips. Both display the same 320 x 200 pixel graphics,
+ * inside a border that is shorter on NTSC machines as there are fewer raster lines.
+ */
+public enum VicModel {
+
+    /**
+     * The 6569 used by PAL machines.
+     */
+    PAL(Vic.CYCLES_PER_LINE, Vic.LINES, 16, 272),
+
+    /**
+     * The 6567 used by NTSC machines.
+     */
+    NTSC(65, 263, 27, 234);
+
+    VicModel(final int cyclesPerLine,
+             final int lines,
+             final int firstVisibleLine,
+             final int height) {
+        this.cyclesPerLine = cyclesPerLine;
+        this.lines = lines;
+        this.cyclesPerFrame = cyclesPerLine * lines;
+        this.firstVisibleLine = firstVisibleLine;
+        this.height = height;
+    }
+
+    /**
+     * The number of CPU cycles taken to draw a single raster line.
+     */
+    final int cyclesPerLine;
+
+    /**
+     * The number of raster lines in a frame, including the vertical blank.
+     */
+    final int lines;
+
+    /**
+     * The number of CPU cycles in a single frame.
+     */
+    final int cyclesPerFrame;
+
+    /**
+     * The raster line drawn at the top of the frame buffer.
+     */
+    final int firstVisibleLine;
+
+    /**
+     * The width in pixels of a rendered frame, which includes the left and right border.
+     */
+    public int width() {
+        return Vic.WIDTH;
+    }
+
+    /**
+     * The height in pixels of a rendered frame, which includes the top and bottom border.
+     */
+    public int height() {
+        return this.height;
+    }
+
+    private final int height;
+}
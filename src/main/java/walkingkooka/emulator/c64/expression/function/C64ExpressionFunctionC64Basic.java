@@ -18,11 +18,9 @@
 package walkingkooka.emulator.c64.expression.function;
 
 import walkingkooka.Cast;
-import walkingkooka.emulator.c64.AddressBus;
-import walkingkooka.emulator.c64.AddressBuses;
-import walkingkooka.emulator.c64.Cpu;
+import walkingkooka.emulator.c64.C64;
+import walkingkooka.emulator.c64.C64Pool;
 import walkingkooka.emulator.c64.CpuContext;
-import walkingkooka.emulator.c64.CpuContexts;
 import walkingkooka.emulator.c64.CpuInstructions;
 import walkingkooka.emulator.c64.Cpus;
 import walkingkooka.emulator.c64.PageTableComAddressSymbolsFunction;
@@ -39,6 +37,7 @@ import walkingkooka.tree.expression.function.ExpressionFunction;
 import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * A function that may be executed within a terminal session and supports entering basic expressions that execute and
@@ -82,111 +81,103 @@ final class C64ExpressionFunctionC64Basic<C extends TerminalExpressionEvaluation
     @Override
     public Integer apply(final List<Object> values,
                          final C context) {
-        final Cpu cpu = Cpus.basic(
-            CpuInstructions.all()
-        );
-
-        final AddressBus ram = AddressBuses.memory(
-            256 * 256
-        );
-        final CpuContext cpuContext = CpuContexts.basic(
-            AddressBuses.cpu(
-                ram, // writable memory
-                AddressBuses.basicRom(
-                    AddressBuses.baseOffset(
-                        AddressBus.BASIC_BASE,
-                        ram
-                    ) // write
-                ),
-                AddressBuses.characterGenerator(
-                    AddressBuses.baseOffset(
-                        AddressBus.CHARACTER_GENERATOR_BASE,
-                        ram
-                    ) // write
-                ),
-                C64ExpressionFunctionC64BasicIoDevices.with(), // IODevices
-                //AddressBuses.memory(4 * 1024), // i,oDevices
-                AddressBuses.kernalRom(
-                    AddressBuses.baseOffset(
-                        AddressBus.KERNAL_BASE,
-                        ram
-                    ) // write
-                )
-            ),
-            PageTableComAddressSymbolsFunction.INSTANCE
-        );
-
-        final C64ExpressionFunctionC64BasicCpuWatcher<C> breapoints = C64ExpressionFunctionC64BasicCpuWatcher.with(context);
+        final Map<Integer, Byte> kernalPatches = C64ExpressionFunctionC64BasicCpuWatcher.KERNAL_PATCHES;
+        final C64 c64 = POOL.borrow(kernalPatches);
+        final CpuContext cpuContext = c64.context();
 
-        cpuContext.addWatcher(breapoints);
-        breapoints.addBreakpoints(cpuContext);
+        final C64ExpressionFunctionC64BasicCpuWatcher<C> watcher = C64ExpressionFunctionC64BasicCpuWatcher.with(context);
+        final Runnable removeWatcher = cpuContext.addWatcher(watcher);
+        final Runnable removeTraps = watcher.addTraps(cpuContext);
 
         int exitCode = 0;
 
-        cpuContext.writeByte(
-            (short) 0,
-            AddressBus.DEFAULT_CPU_DATA_DIRECTION
-        );
-        cpuContext.writeByte(
-            (short) 1,
-            AddressBus.DEFAULT_CPU_PORT
-        );
-        cpuContext.reset();
-
-        int fireInterruptCountdown = INSTRUCTIONS_PER_JIFFY;
-        long timeBefore = System.currentTimeMillis();
-
-        while (breapoints.shouldRun()) {
-            cpuContext.handleInterrupts();
-
-            if (DISASSEMBLE) {
-                context.output()
-                    .println(
-                        cpuContext +
-                            " " +
-                            cpu.disassemble(cpuContext)
-                    );
-            }
-            try {
-                cpu.step(cpuContext);
-            } catch (final RuntimeException cause) {
-                exitCode = 1;
-                final Printer printer = context.error();
-                printer.println(cause.getMessage());
-                printer.flush();
-                break;
-            }
+        try {
+            long sleepCountdown = CYCLES_PER_JIFFY;
+            long timeBefore = System.currentTimeMillis();
 
-            fireInterruptCountdown--;
-            if (fireInterruptCountdown <= 0) {
-                // assume 4 ticks per instruction
-                // assume PAL 60 frames a second.
+            while (watcher.shouldRun()) {
+                final long cycles;
                 try {
-                    Thread.sleep(
-                        Math.max(
-                            1000 / 60 - System.currentTimeMillis() - timeBefore,
-                            1
-                        )
-                    );
-                } catch (final InterruptedException ignored) {
-
+                    if (DISASSEMBLE) {
+                        context.output()
+                            .println(
+                                cpuContext +
+                                    " " +
+                                    c64.cpu()
+                                        .disassemble(cpuContext)
+                            );
+                        cycles = c64.runCycles(1);
+                    } else {
+                        // runs until the next jiffy, the KERNAL IRQ is fired by the CIA timer
+                        cycles = c64.runCycles(sleepCountdown);
+                    }
+                } catch (final RuntimeException cause) {
+                    exitCode = 1;
+                    final Printer printer = context.error();
+                    printer.println(cause.getMessage());
+                    printer.flush();
+                    break;
                 }
 
-                cpuContext.irq();
-
-                fireInterruptCountdown = INSTRUCTIONS_PER_JIFFY;
+                sleepCountdown -= cycles;
+                if (sleepCountdown <= 0) {
+                    // assume 60 jiffies a second.
+                    try {
+                        Thread.sleep(
+                            Math.max(
+                                1000 / 60 - System.currentTimeMillis() - timeBefore,
+                                1
+                            )
+                        );
+                    } catch (final InterruptedException ignored) {
+
+                    }
+
+                    sleepCountdown += CYCLES_PER_JIFFY;
+                }
             }
-
+        } finally {
+            removeTraps.run();
+            removeWatcher.run();
+
+            POOL.release(
+                kernalPatches,
+                c64
+            );
         }
 
         return exitCode;
     }
 
     /**
-     * Cycles are not counted for each instruction, use a rough approximation of 4 cycles which is good
-     * enough for our purposes of firing a TIMER IRQ which will trigger a SCNKEY to read any entered keys.
+     * The number of cycles of a 1MHz CPU between each TIMER IRQ, which will trigger a SCNKEY to read any entered keys.
+     */
+    private final int CYCLES_PER_JIFFY = 1 * 1000 * 1000 / 60;
+
+    /**
+     * The maximum number of idle machines kept for reuse.
      */
-    private final int INSTRUCTIONS_PER_JIFFY = 1 * 1000 * 1000 / 4 / 60;
+    private final static int POOL_SIZE = 4;
+
+    /**
+     * Machines that have already run the KERNAL reset routine and are restored to that state for each invocation.
+     */
+    private final static C64Pool<Map<Integer, Byte>> POOL = C64Pool.with(
+        POOL_SIZE,
+        C64ExpressionFunctionC64Basic::createC64
+    );
+
+    private static C64 createC64(final Map<Integer, Byte> kernalPatches) {
+        final C64 c64 = C64.with(
+            Cpus.basic(
+                CpuInstructions.all()
+            ),
+            kernalPatches,
+            PageTableComAddressSymbolsFunction.INSTANCE
+        );
+        c64.fastBoot();
+        return c64;
+    }
 
     public static void main(final String[] main) {
         final TerminalContext terminalContext = TerminalContexts.system(
@@ -17,17 +17,21 @@
 
 package walkingkooka.emulator.c64.expression.function;
 
+import walkingkooka.collect.map.Maps;
+import walkingkooka.emulator.c64.AddressBus;
 import walkingkooka.emulator.c64.CpuContext;
 import walkingkooka.emulator.c64.CpuInstructions;
 import walkingkooka.emulator.c64.CpuWatcher;
 import walkingkooka.terminal.TerminalContext;
 import walkingkooka.text.printer.Printer;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
- * A {@link CpuWatcher} that handles breakpoints which bridge a basic session with the input and output of the given
- * {@link TerminalContext}.
+ * A {@link CpuWatcher} that handles traps or breakpoints which bridge a basic session with the input and output of the
+ * given {@link TerminalContext}.
  */
 final class C64ExpressionFunctionC64BasicCpuWatcher<C extends TerminalContext> implements CpuWatcher {
 
@@ -51,6 +55,18 @@ final class C64ExpressionFunctionC64BasicCpuWatcher<C extends TerminalContext> i
     // Update the system clock
     private final static short UDTIM = (short) 0xFFEA;
 
+    /**
+     * The routines above, the index of each routine is its trap number.
+     */
+    private final static short[] TRAPS = new short[]{
+        CHROUT,
+        RDTIM,
+        SCNKEY,
+        SETTIM,
+        STOP,
+        UDTIM
+    };
+
     static <C extends TerminalContext> C64ExpressionFunctionC64BasicCpuWatcher<C> with(final C terminalContext) {
         return new C64ExpressionFunctionC64BasicCpuWatcher(
             Objects.requireNonNull(terminalContext, "terminalContext")
@@ -120,13 +136,76 @@ final class C64ExpressionFunctionC64BasicCpuWatcher<C extends TerminalContext> i
 
     private int run;
 
+    /**
+     * Patches for the kernal ROM with a {@link CpuInstructions#trap()} over each of the trapped routines, keyed by the
+     * offset within the ROM. Unlike breakpoints the trapped routines cost nothing until they are called.
+     */
+    final static Map<Integer, Byte> KERNAL_PATCHES = kernalPatches();
+
+    private static Map<Integer, Byte> kernalPatches() {
+        final Map<Integer, Byte> patches = Maps.sorted();
+        final byte trap = CpuInstructions.trap()
+            .opcode();
+
+        for (int i = 0; i < TRAPS.length; i++) {
+            final int offset = (0xffff & TRAPS[i]) - (0xffff & AddressBus.KERNAL_BASE);
+
+            patches.put(
+                offset,
+                trap
+            );
+            patches.put(
+                offset + 1,
+                (byte) i
+            );
+        }
+
+        return Maps.readOnly(patches);
+    }
+
+    /**
+     * Adds the handlers for the traps patched by {@link #KERNAL_PATCHES}, returning a {@link Runnable} that removes
+     * them all.
+     */
+    Runnable addTraps(final CpuContext cpuContext) {
+        final Runnable[] removers = new Runnable[]{
+            addTrap(CHROUT, this::chrout, cpuContext),
+            addTrap(RDTIM, this::rdtim, cpuContext),
+            addTrap(SCNKEY, this::scnkey, cpuContext),
+            addTrap(SETTIM, this::settim, cpuContext),
+            addTrap(STOP, this::stop, cpuContext),
+            addTrap(UDTIM, this::udtim, cpuContext)
+        };
+
+        return () -> {
+            for (final Runnable remover : removers) {
+                remover.run();
+            }
+        };
+    }
+
+    private static Runnable addTrap(final short routine,
+                                    final Consumer<CpuContext> handler,
+                                    final CpuContext cpuContext) {
+        int i = 0;
+        while (routine != TRAPS[i]) {
+            i++;
+        }
+
+        return cpuContext.addTrap(
+            (byte) i,
+            handler
+        );
+    }
+
+    /**
+     * Adds breakpoints for the trapped routines, an alternative to {@link #KERNAL_PATCHES} that leaves the
+     * kernal ROM unmodified.
+     */
     void addBreakpoints(final CpuContext cpuContext) {
-        cpuContext.addBreakpoint(CHROUT);
-        cpuContext.addBreakpoint(RDTIM);
-        cpuContext.addBreakpoint(SCNKEY);
-        cpuContext.addBreakpoint(SETTIM);
-        cpuContext.addBreakpoint(STOP);
-        cpuContext.addBreakpoint(UDTIM);
+        for (final short address : TRAPS) {
+            cpuContext.addBreakpoint(address);
+        }
     }
 
     // https://www.pagetable.com/c64ref/kernal/#READST
@@ -17,10 +17,12 @@
 package walkingkooka.emulator.c64;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.reflect.PublicStaticHelperTesting;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 
 public final class AddressBusesTest implements AddressBusTesting,
     PublicStaticHelperTesting<AddressBuses> {
@@ -88,6 +90,101 @@ public final class AddressBusesTest implements AddressBusTesting,
         );
     }
 
+    @Test
+    public void testPatchedRom() {
+        final AddressBus write = AddressBuses.memory(
+            8 * 1024
+        );
+        final AddressBus kernal = AddressBuses.kernalRom(
+            write
+        );
+        final Map<Integer, Byte> patches = Maps.sorted();
+        patches.put(
+            1, // offset within the rom
+            (byte) 0x02
+        );
+
+        final AddressBus rom = AddressBuses.patchedRom(
+            kernal,
+            patches
+        );
+
+        this.readAndCheck(
+            rom,
+            0, // offset
+            (byte) -123
+        );
+        this.readAndCheck(
+            rom,
+            1, // offset
+            (byte) 0x02
+        );
+        this.readAndCheck(
+            kernal,
+            1, // offset
+            (byte) 86
+        );
+
+        rom.write(
+            1,
+            (byte) 0x34
+        );
+
+        this.readAndCheck(
+            write,
+            1, // offset
+            (byte) 0x34
+        );
+    }
+
+    @Test
+    public void testMemory() {
+        this.memoryAndCheck(
+            AddressBuses.memory(256),
+            Memory.class
+        );
+    }
+
+    @Test
+    public void testMemoryOnHeap() {
+        this.memoryAndCheck(
+            AddressBuses.memory(
+                256,
+                false
+            ),
+            Memory.class
+        );
+    }
+
+    @Test
+    public void testMemoryOffHeap() {
+        this.memoryAndCheck(
+            AddressBuses.memory(
+                256,
+                true
+            ),
+            DirectMemory.class
+        );
+    }
+
+    private void memoryAndCheck(final AddressBus memory,
+                                final Class<?> type) {
+        this.checkEquals(
+            type,
+            memory.getClass()
+        );
+
+        memory.write(
+            256 + 1, // masked to 1
+            (byte) 0x34
+        );
+        this.readAndCheck(
+            memory,
+            1, // offset
+            (byte) 0x34
+        );
+    }
+
     // class............................................................................................................
 
     @Override
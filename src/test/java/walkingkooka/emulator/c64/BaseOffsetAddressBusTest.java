@@ -111,6 +111,29 @@ public final class BaseOffsetAddressBusTest extends AddressBusTestCase<BaseOffse
         }
     }
 
+    @Test
+    public void testBulkRead() {
+        final AddressBus memory = AddressBuses.memory(256);
+        memory.write(BASE_OFFSET + 1, ONE);
+        memory.write(BASE_OFFSET + 2, TWO);
+
+        this.readBulkAndCheck(
+            BaseOffsetAddressBus.with(BASE_OFFSET, memory),
+            1,
+            ONE,
+            TWO
+        );
+    }
+
+    @Test
+    public void testBulkWrite() {
+        final AddressBus memory = AddressBuses.memory(256);
+        BaseOffsetAddressBus.with(BASE_OFFSET, memory)
+            .write(1, new byte[]{ONE, TWO}, 0, 2);
+
+        this.readBulkAndCheck(memory, BASE_OFFSET + 1, ONE, TWO);
+    }
+
     @Test
     public void testToString() {
         final AddressBus memory = AddressBuses.memory(256);
@@ -22,6 +22,7 @@ import walkingkooka.ToStringTesting;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.text.CharSequences;
 
+import java.nio.ByteBuffer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -95,6 +96,100 @@ public final class BasicCpuContextTest implements CpuContextTesting2<BasicCpuCon
         );
     }
 
+    @Test
+    public void testSetMinusAndZeroZero() {
+        this.setMinusAndZeroAndCheck(
+            (byte) 0,
+            "-Z---1--"
+        );
+    }
+
+    @Test
+    public void testSetMinusAndZeroMinus() {
+        this.setMinusAndZeroAndCheck(
+            (byte) 0x80,
+            "-----1-N"
+        );
+    }
+
+    @Test
+    public void testSetMinusAndZeroPositive() {
+        this.setMinusAndZeroAndCheck(
+            (byte) 1,
+            "-----1--"
+        );
+    }
+
+    private void setMinusAndZeroAndCheck(final byte value,
+                                         final String flags) {
+        final BasicCpuContext context = this.createContext();
+        context.setFlags(
+            CpuFlags.parse("CZ----VN").value()
+        );
+        context.setMinusAndZero(value);
+        context.setCarry(false);
+        context.setOverflow(false);
+
+        this.checkEquals(
+            0 == value,
+            context.isZero(),
+            "zero"
+        );
+        this.checkEquals(
+            value < 0,
+            context.isMinus(),
+            "minus"
+        );
+        this.checkEquals(
+            CpuFlags.parse(flags).value(),
+            context.flags(),
+            "flags"
+        );
+    }
+
+    @Test
+    public void testSetMinusAndZeroThenSetZero() {
+        final BasicCpuContext context = this.createContext();
+        context.setMinusAndZero((byte) 0x80);
+        context.setZero(true);
+
+        this.checkEquals(
+            CpuFlags.parse("-Z---1-N").value(),
+            context.flags()
+        );
+    }
+
+    @Test
+    public void testSetMinusAndZeroThenSetFlags() {
+        final BasicCpuContext context = this.createContext();
+        context.setMinusAndZero((byte) 0);
+        context.setFlags(
+            CpuFlags.parse("C----1--").value()
+        );
+
+        this.checkEquals(
+            false,
+            context.isZero(),
+            "zero"
+        );
+        this.checkEquals(
+            CpuFlags.parse("C----1--").value(),
+            context.flags()
+        );
+    }
+
+    @Test
+    public void testSetMinusAndZeroToString() {
+        final BasicCpuContext context = this.createContext();
+        context.setMinusAndZero((byte) 0x80);
+
+        this.checkEquals(
+            true,
+            context.toString().endsWith("SR: -----1-N"),
+            "toString"
+        );
+    }
+
     @Test
     public void testPush() {
         final BasicCpuContext context = this.createContext();
@@ -386,6 +481,78 @@ public final class BasicCpuContextTest implements CpuContextTesting2<BasicCpuCon
         );
     }
 
+    @Test
+    public void testAddCycles() {
+        final BasicCpuContext context = this.createContext();
+        context.addCycles(2);
+        context.addCycles(3);
+
+        this.checkEquals(
+            5L,
+            context.cycles()
+        );
+    }
+
+    @Test
+    public void testHandleInterruptsIrqAddsCycles() {
+        final CpuContext context = this.createCpuContextWithRoms();
+        context.setInterruptDisabled(false);
+
+        context.irq();
+        context.handleInterrupts();
+
+        this.checkEquals(
+            7L,
+            context.cycles()
+        );
+    }
+
+    @Test
+    public void testHandleInterruptsIrqDisabledNoCycles() {
+        final CpuContext context = this.createCpuContextWithRoms();
+        context.setInterruptDisabled(true);
+
+        context.irq();
+        context.handleInterrupts();
+
+        this.checkEquals(
+            0L,
+            context.cycles()
+        );
+    }
+
+    @Test
+    public void testIsInterruptPending() {
+        final BasicCpuContext context = this.createContext();
+
+        this.checkEquals(
+            false,
+            context.isInterruptPending()
+        );
+    }
+
+    @Test
+    public void testIsInterruptPendingAfterIrq() {
+        final BasicCpuContext context = this.createCpuContextWithRoms();
+        context.setInterruptDisabled(false);
+
+        context.irq();
+
+        this.checkEquals(
+            true,
+            context.isInterruptPending(),
+            "before handleInterrupts"
+        );
+
+        context.handleInterrupts();
+
+        this.checkEquals(
+            false,
+            context.isInterruptPending(),
+            "after handleInterrupts"
+        );
+    }
+
     @Test
     public void testIrq() {
         final CpuContext context = this.createCpuContextWithRoms();
@@ -535,6 +702,218 @@ public final class BasicCpuContextTest implements CpuContextTesting2<BasicCpuCon
         );
     }
 
+    @Test
+    public void testAddTrapNullHandlerFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createContext()
+                .addTrap(
+                    (byte) 1,
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testAddTrapTwiceFails() {
+        final BasicCpuContext context = this.createContext();
+        context.addTrap(
+            (byte) 1,
+            (c) -> {
+            }
+        );
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> context.addTrap(
+                (byte) 1,
+                (c) -> {
+                }
+            )
+        );
+        this.checkEquals(
+            "Trap $01 already has a handler",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testHandleTrap() {
+        final BasicCpuContext context = this.createContext();
+        context.addTrap(
+            (byte) 0xff,
+            (c) -> c.setA((byte) 0x12)
+        );
+
+        context.handleTrap((byte) 0xff);
+
+        this.checkEquals(
+            (byte) 0x12,
+            context.a()
+        );
+    }
+
+    @Test
+    public void testHandleTrapRemoved() {
+        final BasicCpuContext context = this.createContext();
+        final Runnable remove = context.addTrap(
+            (byte) 1,
+            (c) -> {
+                throw new UnsupportedOperationException();
+            }
+        );
+        remove.run();
+
+        final StringBuilder fired = new StringBuilder();
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onInvalidOpcode(final CpuContext c) {
+                    fired.append("invalidOpcode");
+                }
+            }
+        );
+
+        context.handleTrap((byte) 1);
+
+        this.checkEquals(
+            "invalidOpcode",
+            fired.toString()
+        );
+    }
+
+    @Test
+    public void testAddTrapRemoveTwice() {
+        final BasicCpuContext context = this.createContext();
+        final Runnable remove = context.addTrap(
+            (byte) 1,
+            (c) -> {
+            }
+        );
+        remove.run();
+
+        context.addTrap(
+            (byte) 1,
+            (c) -> c.setA((byte) 0x12)
+        );
+
+        // must not remove the handler added above
+        remove.run();
+
+        context.handleTrap((byte) 1);
+
+        this.checkEquals(
+            (byte) 0x12,
+            context.a()
+        );
+    }
+
+    @Test
+    public void testHandleBreakpointsWithoutBreakpoints() {
+        final BasicCpuContext context = this.createContext();
+        context.setPc((short) 0x1000);
+
+        this.handleBreakpointsAndCheck(
+            context,
+            false
+        );
+    }
+
+    @Test
+    public void testHandleBreakpointsDifferentPc() {
+        final BasicCpuContext context = this.createContext();
+        context.addBreakpoint((short) 0x2000);
+        context.setPc((short) 0x1000);
+
+        this.handleBreakpointsAndCheck(
+            context,
+            false
+        );
+    }
+
+    @Test
+    public void testHandleBreakpointsFires() {
+        final BasicCpuContext context = this.createContext();
+        context.addBreakpoint((short) 0xffff);
+        context.setPc((short) 0xffff);
+
+        this.handleBreakpointsAndCheck(
+            context,
+            true
+        );
+    }
+
+    @Test
+    public void testHandleBreakpointsAfterRemove() {
+        final BasicCpuContext context = this.createContext();
+        context.addBreakpoint((short) 0x1000)
+            .run();
+        context.setPc((short) 0x1000);
+
+        this.handleBreakpointsAndCheck(
+            context,
+            false
+        );
+    }
+
+    @Test
+    public void testHandleBreakpointsAddedTwiceRemovedOnce() {
+        final BasicCpuContext context = this.createContext();
+        final Runnable remover = context.addBreakpoint((short) 0x1000);
+        context.addBreakpoint((short) 0x1000);
+
+        remover.run();
+        remover.run(); // repeated removes are ignored
+
+        context.setPc((short) 0x1000);
+
+        this.handleBreakpointsAndCheck(
+            context,
+            true
+        );
+    }
+
+    @Test
+    public void testHandleBreakpointsAddedTwiceRemovedTwice() {
+        final BasicCpuContext context = this.createContext();
+        final Runnable remover1 = context.addBreakpoint((short) 0x1000);
+        final Runnable remover2 = context.addBreakpoint((short) 0x1000);
+
+        remover1.run();
+        remover2.run();
+
+        context.setPc((short) 0x1000);
+
+        this.handleBreakpointsAndCheck(
+            context,
+            false
+        );
+    }
+
+    private void handleBreakpointsAndCheck(final BasicCpuContext context,
+                                           final boolean expected) {
+        final int[] fired = new int[1];
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext c) {
+                    fired[0]++;
+                }
+            }
+        );
+
+        this.checkEquals(
+            expected,
+            context.handleBreakpoints(),
+            "handleBreakpoints"
+        );
+        this.checkEquals(
+            expected ? 1 : 0,
+            fired[0],
+            "watcher fired count"
+        );
+    }
+
     @Override
     public BasicCpuContext createContext() {
         return BasicCpuContext.with(
@@ -582,6 +961,44 @@ public final class BasicCpuContextTest implements CpuContextTesting2<BasicCpuCon
         }
     }
 
+    // Snapshotable.....................................................................................................
+
+    @Test
+    public void testSaveRestore() {
+        final BasicCpuContext context = this.createContext();
+        context.setA((byte) 1);
+        context.setX((byte) 2);
+        context.setY((byte) 3);
+        context.setStackPointer((byte) 4);
+        context.setPc((short) 0x1234);
+        context.setCarry(true);
+        context.setMinusAndZero((byte) -1);
+        context.addCycles(99);
+        context.irq();
+
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        context.save(buffer);
+        buffer.flip();
+
+        final BasicCpuContext restored = this.createContext();
+        restored.restore(buffer);
+
+        this.checkEquals(
+            context.toString(),
+            restored.toString()
+        );
+        this.checkEquals(
+            99L,
+            restored.cycles(),
+            "cycles"
+        );
+        this.checkEquals(
+            true,
+            restored.isInterruptPending(),
+            "interruptPending"
+        );
+    }
+
     // toString.........................................................................................................
 
     @Test
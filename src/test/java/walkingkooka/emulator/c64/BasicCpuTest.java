@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class BasicCpuTest implements CpuTesting<BasicCpu> {
@@ -41,6 +43,26 @@ public final class BasicCpuTest implements CpuTesting<BasicCpu> {
 
     // with.............................................................................................................
 
+    @Test
+    public void testWithAllShared() {
+        assertSame(
+            BasicCpu.with(CpuInstructions.all()),
+            BasicCpu.with(CpuInstructions.all())
+        );
+    }
+
+    @Test
+    public void testWithOtherInstructionsNotShared() {
+        final List<CpuInstruction> instructions = Lists.of(
+            CpuInstructions.nop()
+        );
+
+        assertNotSame(
+            BasicCpu.with(instructions),
+            BasicCpu.with(instructions)
+        );
+    }
+
     @Test
     public void testWithNullInstructionsFails() {
         assertThrows(
@@ -274,6 +296,314 @@ public final class BasicCpuTest implements CpuTesting<BasicCpu> {
         );
     }
 
+    @Test
+    public void testStepAfterSelfModifyingCode() {
+        final CpuInstruction inx = CpuInstructions.inx();
+        final CpuInstruction iny = CpuInstructions.iny();
+
+        final BasicCpu cpu = BasicCpu.with(
+            Lists.of(
+                inx,
+                iny
+            )
+        );
+
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(
+                256 * 256
+            ),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        final short pc = 0x1000;
+        context.writeByte(
+            pc,
+            inx.opcode()
+        );
+        context.setX((byte) 0);
+        context.setY((byte) 0);
+
+        context.setPc(pc);
+        cpu.step(context);
+
+        // replace the INX with INY, the next step should execute the INY
+        context.writeByte(
+            pc,
+            iny.opcode()
+        );
+
+        context.setPc(pc);
+        cpu.step(context);
+
+        this.xAndCheck(
+            context,
+            (byte) 1
+        );
+        this.yAndCheck(
+            context,
+            (byte) 1
+        );
+    }
+
+    // step cycles......................................................................................................
+
+    @Test
+    public void testStepReturnsCycles() {
+        this.stepAndCheckCycles(
+            CpuInstructions.ldaImm(),
+            (short) 0x1000,
+            (byte) 0x12,
+            (byte) 0,
+            2
+        );
+    }
+
+    @Test
+    public void testStepIndexedSamePage() {
+        this.stepAndCheckCycles(
+            CpuInstructions.ldaAbsX(),
+            (short) 0x1000,
+            (byte) 0x00,
+            (byte) 0x1,
+            4
+        );
+    }
+
+    @Test
+    public void testStepIndexedPageCrossed() {
+        this.stepAndCheckCycles(
+            CpuInstructions.ldaAbsX(),
+            (short) 0x1000,
+            (byte) 0xff,
+            (byte) 0x1,
+            5
+        );
+    }
+
+    @Test
+    public void testStepStoreIndexedPageCrossedIgnored() {
+        this.stepAndCheckCycles(
+            CpuInstructions.staAbsX(),
+            (short) 0x1000,
+            (byte) 0xff,
+            (byte) 0x1,
+            5
+        );
+    }
+
+    @Test
+    public void testStepBranchNotTaken() {
+        this.stepAndCheckCycles(
+            CpuInstructions.bne(),
+            (short) 0x1000,
+            (byte) 0x10,
+            (byte) 0,
+            2
+        );
+    }
+
+    @Test
+    public void testStepBranchTaken() {
+        this.stepAndCheckCycles(
+            CpuInstructions.beq(),
+            (short) 0x1000,
+            (byte) 0x10,
+            (byte) 0,
+            3
+        );
+    }
+
+    @Test
+    public void testStepBranchTakenPageCrossed() {
+        this.stepAndCheckCycles(
+            CpuInstructions.beq(),
+            (short) 0x1000,
+            (byte) 0x80,
+            (byte) 0,
+            4
+        );
+    }
+
+    private void stepAndCheckCycles(final CpuInstruction instruction,
+                                    final short pc,
+                                    final byte operand,
+                                    final byte x,
+                                    final int expected) {
+        final BasicCpu cpu = BasicCpu.with(
+            Lists.of(
+                instruction
+            )
+        );
+
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(
+                256 * 256
+            ),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        context.setPc(pc);
+        context.writeByte(
+            pc,
+            instruction.opcode()
+        );
+        context.writeByte(
+            (short) (pc + 1),
+            operand
+        );
+        context.writeByte(
+            (short) (pc + 2),
+            (byte) 0x20
+        );
+        context.setX(x);
+        context.setZero(true);
+
+        this.checkEquals(
+            expected,
+            cpu.step(context),
+            () -> instruction + " cycles"
+        );
+        this.checkEquals(
+            (long) expected,
+            context.cycles(),
+            () -> instruction + " context cycles"
+        );
+    }
+
+    // run..............................................................................................................
+
+    @Test
+    public void testRunZeroCycleBudget() {
+        this.runAndCheck(
+            this.createInxCpuContext(),
+            0,
+            0,
+            (short) 0x1000
+        );
+    }
+
+    @Test
+    public void testRunUntilCycleBudget() {
+        final CpuContext context = this.createInxCpuContext();
+
+        this.runAndCheck(
+            context,
+            10,
+            10,
+            (short) 0x1005
+        );
+
+        this.xAndCheck(
+            context,
+            (byte) 5
+        );
+    }
+
+    @Test
+    public void testRunCompletesInstructionAfterCycleBudget() {
+        this.runAndCheck(
+            this.createInxCpuContext(),
+            3,
+            4,
+            (short) 0x1002
+        );
+    }
+
+    @Test
+    public void testRunHandlesPendingInterrupt() {
+        final CpuContext context = this.createInxCpuContext();
+        context.writeAddress(
+            (short) 0xfffe,
+            (short) 0x1010
+        );
+        context.setInterruptDisabled(false);
+        context.irq();
+
+        this.runAndCheck(
+            context,
+            1,
+            7 + 2,
+            (short) 0x1011
+        );
+    }
+
+    @Test
+    public void testRunReturnsAfterBreakpoint() {
+        final CpuContext context = this.createInxCpuContext();
+
+        final byte newYValue = 1;
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext context) {
+                    context.setY(newYValue);
+                }
+            }
+        );
+        context.addBreakpoint(
+            (short) 0x1001
+        );
+
+        this.runAndCheck(
+            context,
+            100,
+            4,
+            (short) 0x1002
+        );
+
+        this.yAndCheck(
+            context,
+            newYValue
+        );
+    }
+
+    private CpuContext createInxCpuContext() {
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(
+                256 * 256
+            ),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        for (int i = 0; i < 256; i++) {
+            context.writeByte(
+                (short) (0x1000 + i),
+                CpuInstructions.inx()
+                    .opcode()
+            );
+        }
+
+        context.setPc(
+            (short) 0x1000
+        );
+        context.setX(
+            (byte) 0
+        );
+
+        return context;
+    }
+
+    private void runAndCheck(final CpuContext context,
+                             final long cycleBudget,
+                             final long expected,
+                             final short pc) {
+        this.checkEquals(
+            expected,
+            BasicCpu.with(
+                CpuInstructions.all()
+            ).run(
+                context,
+                cycleBudget
+            ),
+            () -> "run " + cycleBudget
+        );
+
+        this.pcAndCheck(
+            context,
+            pc
+        );
+    }
+
     // disassemble......................................................................................................
 
     @Test
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reports the average wall clock time from reset until BASIC prints READY, using {@link C64#boot()},
+ * {@link C64#fastBoot()} and restoring a {@link C64Snapshot} taken after booting.
+ * <pre>
+ * java walkingkooka.emulator.c64.C64BootBenchmark [iterations]
+ * </pre>
+ */
+public final class C64BootBenchmark {
+
+    public static void main(final String[] args) {
+        final int iterations = args.length > 0 ?
+            Integer.parseInt(args[0]) :
+            20;
+
+        final C64 c64 = C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+        c64.fastBoot();
+        final C64Snapshot snapshot = c64.snapshot();
+
+        report("boot", iterations, C64::boot);
+        report("fastBoot", iterations, C64::fastBoot);
+        report("restore", iterations, (c) -> c.restore(snapshot));
+    }
+
+    private static void report(final String label,
+                               final int iterations,
+                               final Consumer<C64> boot) {
+        final C64 c64 = C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+
+        // warm up
+        for (int i = 0; i < iterations; i++) {
+            runUntilReady(c64, boot);
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            runUntilReady(c64, boot);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.printf(
+            "%-10s %8.3f ms to READY%n",
+            label,
+            elapsed / 1e6 / iterations
+        );
+    }
+
+    private static void runUntilReady(final C64 c64,
+                                      final Consumer<C64> boot) {
+        boot.accept(c64);
+
+        while (false == isReady(c64)) {
+            c64.runFrame();
+        }
+    }
+
+    /**
+     * Tests if the screen line following the banner holds "READY."
+     */
+    private static boolean isReady(final C64 c64) {
+        final AddressBus ram = c64.ram();
+        final int line = 0x400 + 5 * 40;
+
+        for (int i = 0; i < READY.length(); i++) {
+            final int code = ram.read(line + i) & 0x3f;
+            if ((READY.charAt(i) & 0x3f) != code) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final static String READY = "READY.";
+
+    /**
+     * Stop creation.
+     */
+    private C64BootBenchmark() {
+        throw new UnsupportedOperationException();
+    }
+}
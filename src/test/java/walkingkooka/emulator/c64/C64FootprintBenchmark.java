@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Reports the approximate heap retained by each {@link C64}, by creating many machines and comparing the heap used
+ * before and after. Machines booted independently are compared with forks of a single booted machine, which share
+ * their untouched RAM pages.
+ * <pre>
+ * java walkingkooka.emulator.c64.C64FootprintBenchmark [machines]
+ * </pre>
+ */
+public final class C64FootprintBenchmark {
+
+    public static void main(final String[] args) {
+        final int count = args.length > 0 ?
+            Integer.parseInt(args[0]) :
+            200;
+
+        report(
+            "created",
+            count,
+            C64FootprintBenchmark::create
+        );
+        report(
+            "fastBoot",
+            count,
+            () -> {
+                final C64 c64 = create();
+                c64.fastBoot();
+                return c64;
+            }
+        );
+
+        final C64 booted = create();
+        booted.fastBoot();
+        report(
+            "fork",
+            count,
+            booted::fork
+        );
+    }
+
+    private static C64 create() {
+        return C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+    }
+
+    private static void report(final String label,
+                               final int count,
+                               final Supplier<C64> factory) {
+        // warm up so lazily created shared tables are not counted
+        factory.get()
+            .runFrame();
+
+        final C64[] machines = new C64[count];
+        final long before = usedHeap();
+
+        for (int i = 0; i < count; i++) {
+            final C64 c64 = factory.get();
+            c64.runFrame();
+            machines[i] = c64;
+        }
+
+        final long after = usedHeap();
+
+        System.out.printf(
+            "%-10s %8d bytes per machine%n",
+            label,
+            (after - before) / machines.length
+        );
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Stop creation.
+     */
+    private C64FootprintBenchmark() {
+        throw new UnsupportedOperationException();
+    }
+}
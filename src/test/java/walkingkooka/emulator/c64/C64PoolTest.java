@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class C64PoolTest implements ClassTesting2<C64Pool<?>> {
+
+    private final static String KEY = "key";
+
+    private final static int SIZE = 2;
+
+    private final static long PRISTINE_CYCLES = 1000;
+
+    @Test
+    public void testWithZeroSizeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> C64Pool.with(
+                0,
+                this::createC64
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullFactoryFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64Pool.with(
+                SIZE,
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testBorrowNullKeyFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createPool()
+                .borrow(null)
+        );
+    }
+
+    @Test
+    public void testReleaseNullKeyFails() {
+        final C64Pool<String> pool = this.createPool();
+        final C64 c64 = pool.borrow(KEY);
+
+        assertThrows(
+            NullPointerException.class,
+            () -> pool.release(
+                null,
+                c64
+            )
+        );
+    }
+
+    @Test
+    public void testReleaseNullC64Fails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createPool()
+                .release(
+                    KEY,
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testReleaseUnknownKeyFails() {
+        final C64Pool<String> pool = this.createPool();
+        final C64 c64 = pool.borrow(KEY);
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> pool.release(
+                "unknown",
+                c64
+            )
+        );
+    }
+
+    @Test
+    public void testBorrowCreates() {
+        final C64 c64 = this.createPool()
+            .borrow(KEY);
+
+        this.checkEquals(
+            true,
+            c64.cycles() >= PRISTINE_CYCLES,
+            "cycles " + c64.cycles()
+        );
+    }
+
+    @Test
+    public void testBorrowTwiceCreatesTwo() {
+        final C64Pool<String> pool = this.createPool();
+
+        assertNotSame(
+            pool.borrow(KEY),
+            pool.borrow(KEY)
+        );
+    }
+
+    @Test
+    public void testReleaseBorrowRestores() {
+        final C64Pool<String> pool = this.createPool();
+
+        final C64 c64 = pool.borrow(KEY);
+        final long cycles = c64.cycles();
+        final String context = c64.context()
+            .toString();
+
+        c64.runCycles(10000);
+        c64.ram()
+            .write(0x400, (byte) 1);
+
+        pool.release(
+            KEY,
+            c64
+        );
+
+        assertSame(
+            c64,
+            pool.borrow(KEY)
+        );
+        this.checkEquals(
+            cycles,
+            c64.cycles(),
+            "cycles"
+        );
+        this.checkEquals(
+            context,
+            c64.context()
+                .toString(),
+            "context"
+        );
+        this.checkEquals(
+            (byte) 0,
+            c64.ram()
+                .read(0x400),
+            "ram"
+        );
+    }
+
+    @Test
+    public void testReleaseMoreThanSizeDiscarded() {
+        final C64Pool<String> pool = this.createPool();
+
+        final C64 c64a = pool.borrow(KEY);
+        final C64 c64b = pool.borrow(KEY);
+        final C64 c64c = pool.borrow(KEY);
+
+        pool.release(KEY, c64a);
+        pool.release(KEY, c64b);
+        pool.release(KEY, c64c);
+
+        assertSame(c64b, pool.borrow(KEY));
+        assertSame(c64a, pool.borrow(KEY));
+
+        final C64 created = pool.borrow(KEY);
+        assertNotSame(c64c, created);
+    }
+
+    @Test
+    public void testDifferentKeys() {
+        final C64Pool<String> pool = this.createPool();
+
+        final C64 c64 = pool.borrow(KEY);
+        pool.release(KEY, c64);
+
+        assertNotSame(
+            c64,
+            pool.borrow("different")
+        );
+    }
+
+    private C64Pool<String> createPool() {
+        return C64Pool.with(
+            SIZE,
+            this::createC64
+        );
+    }
+
+    private C64 createC64(final String key) {
+        final C64 c64 = C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+        c64.reset();
+        c64.runCycles(PRISTINE_CYCLES);
+        return c64;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<C64Pool<?>> type() {
+        return Cast.to(C64Pool.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class C64SnapshotTest implements ClassTesting2<C64Snapshot>,
+    ToStringTesting<C64Snapshot> {
+
+    @Test
+    public void testSize() {
+        this.checkEquals(
+            3,
+            C64Snapshot.with(new byte[3])
+                .size()
+        );
+    }
+
+    @Test
+    public void testBuffer() {
+        final ByteBuffer buffer = C64Snapshot.with(new byte[]{1, 2, 3})
+            .buffer();
+
+        this.checkEquals(
+            0,
+            buffer.position(),
+            "position"
+        );
+        this.checkEquals(
+            3,
+            buffer.remaining(),
+            "remaining"
+        );
+        this.checkEquals(
+            (byte) 1,
+            buffer.get(),
+            "first"
+        );
+    }
+
+    @Test
+    public void testBufferReadOnly() {
+        assertThrows(
+            ReadOnlyBufferException.class,
+            () -> C64Snapshot.with(new byte[3])
+                .buffer()
+                .put((byte) 1)
+        );
+    }
+
+    // write/read.....................................................................................................
+
+    @Test
+    public void testWriteNullChannelFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64Snapshot.with(new byte[3])
+                .write(null)
+        );
+    }
+
+    @Test
+    public void testReadNullChannelFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64Snapshot.read(null)
+        );
+    }
+
+    @Test
+    public void testWriteHeader() throws IOException {
+        final ByteBuffer written = ByteBuffer.wrap(
+            this.write(new byte[]{1, 2, 3})
+        );
+
+        this.checkEquals(
+            C64Snapshot.HEADER_SIZE + 3,
+            written.remaining(),
+            "size"
+        );
+        this.checkEquals(
+            C64Snapshot.MAGIC,
+            written.getInt(),
+            "magic"
+        );
+        this.checkEquals(
+            C64Snapshot.VERSION,
+            written.getShort(),
+            "version"
+        );
+        this.checkEquals(
+            3,
+            written.getInt(),
+            "length"
+        );
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        final byte[] bytes = new byte[]{1, 2, 3, 4, 5};
+        final C64Snapshot read = this.read(
+            this.write(bytes)
+        );
+
+        this.checkEquals(
+            5,
+            read.size(),
+            "size"
+        );
+        this.checkEquals(
+            Arrays.toString(bytes),
+            Arrays.toString(bytes(read)),
+            "bytes"
+        );
+    }
+
+    @Test
+    public void testReadInvalidMagicFails() throws IOException {
+        final byte[] written = this.write(new byte[3]);
+        written[0] = 'X';
+
+        this.readFails(
+            written,
+            "Invalid snapshot magic 0x58363453"
+        );
+    }
+
+    @Test
+    public void testReadInvalidVersionFails() throws IOException {
+        final byte[] written = this.write(new byte[3]);
+        written[5] = 99;
+
+        this.readFails(
+            written,
+            "Unsupported snapshot version 99 expected 1"
+        );
+    }
+
+    @Test
+    public void testReadInvalidSizeFails() throws IOException {
+        final byte[] written = this.write(new byte[3]);
+        written[6] = (byte) 0x80;
+
+        this.readFails(
+            written,
+            "Invalid snapshot size -2147483645"
+        );
+    }
+
+    @Test
+    public void testReadInvalidChecksumFails() throws IOException {
+        final byte[] written = this.write(new byte[]{1, 2, 3});
+        written[written.length - 1] = 99;
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.read(written)
+        );
+        this.checkEquals(
+            true,
+            thrown.getMessage().startsWith("Invalid snapshot checksum"),
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testReadTruncatedFails() throws IOException {
+        final byte[] written = this.write(new byte[]{1, 2, 3});
+
+        final EOFException thrown = assertThrows(
+            EOFException.class,
+            () -> this.read(
+                Arrays.copyOf(written, written.length - 2)
+            )
+        );
+        this.checkEquals(
+            "Snapshot truncated, missing 2 bytes",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSaveLoad() throws IOException {
+        final Path path = Files.createTempFile("snapshot", ".c64s");
+        try {
+            final byte[] bytes = new byte[]{9, 8, 7};
+
+            C64Snapshot.with(bytes)
+                .save(path);
+
+            this.checkEquals(
+                Arrays.toString(bytes),
+                Arrays.toString(
+                    bytes(
+                        C64Snapshot.load(path)
+                    )
+                )
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testSaveReplaces() throws IOException {
+        final Path path = Files.createTempFile("snapshot", ".c64s");
+        try {
+            C64Snapshot.with(new byte[100])
+                .save(path);
+            C64Snapshot.with(new byte[]{1})
+                .save(path);
+
+            this.checkEquals(
+                1,
+                C64Snapshot.load(path)
+                    .size()
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private byte[] write(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        C64Snapshot.with(bytes)
+            .write(Channels.newChannel(output));
+        return output.toByteArray();
+    }
+
+    private C64Snapshot read(final byte[] written) throws IOException {
+        return C64Snapshot.read(
+            Channels.newChannel(
+                new ByteArrayInputStream(written)
+            )
+        );
+    }
+
+    private void readFails(final byte[] written,
+                           final String message) {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.read(written)
+        );
+        this.checkEquals(
+            message,
+            thrown.getMessage(),
+            "message"
+        );
+    }
+
+    private static byte[] bytes(final C64Snapshot snapshot) {
+        final ByteBuffer buffer = snapshot.buffer();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            C64Snapshot.with(new byte[3]),
+            "C64Snapshot 3 bytes"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<C64Snapshot> type() {
+        return C64Snapshot.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,961 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class C64Test implements ClassTesting2<C64> {
+
+    private final static int JIFFY_CLOCK = 0xa2;
+
+    private final static int SCREEN = 0x400;
+
+    private final static int BOOT_FRAMES = 150;
+
+    @Test
+    public void testWithNullCpuFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64.with(
+                null,
+                Maps.empty(),
+                (a) -> Optional.empty()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullKernalPatchesFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64.with(
+                Cpus.basic(CpuInstructions.all()),
+                null,
+                (a) -> Optional.empty()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullAddressSymbolsFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64.with(
+                Cpus.basic(CpuInstructions.all()),
+                Maps.empty(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullVicModelFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64.with(
+                Cpus.basic(CpuInstructions.all()),
+                Maps.empty(),
+                null,
+                (a) -> Optional.empty()
+            )
+        );
+    }
+
+    @Test
+    public void testRunCyclesNegativeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createC64()
+                .runCycles(-1)
+        );
+    }
+
+    @Test
+    public void testRunCycles() {
+        final C64 c64 = this.createC64();
+
+        final long cycles = c64.runCycles(1000);
+        this.checkEquals(
+            true,
+            cycles >= 1000,
+            "cycles " + cycles
+        );
+        this.checkEquals(
+            cycles,
+            c64.cycles()
+        );
+    }
+
+    @Test
+    public void testRunFrameEndsOnFrame() {
+        final C64 c64 = this.createC64();
+        c64.runCycles(100);
+
+        final long before = c64.cycles();
+        final long cycles = c64.runFrame();
+
+        this.checkEquals(
+            before + cycles,
+            c64.cycles()
+        );
+        this.checkEquals(
+            true,
+            c64.cycles() >= Vic.CYCLES_PER_FRAME,
+            "cycles " + c64.cycles()
+        );
+        this.checkEquals(
+            true,
+            c64.cycles() % Vic.CYCLES_PER_FRAME < 10,
+            "frame overshoot " + c64.cycles() % Vic.CYCLES_PER_FRAME
+        );
+    }
+
+    @Test
+    public void testBootReady() {
+        final C64 c64 = this.boot();
+
+        this.checkEquals(
+            "READY.",
+            this.screenLine(c64, 5)
+                .trim()
+        );
+    }
+
+    @Test
+    public void testBootBanner() {
+        final C64 c64 = this.boot();
+
+        this.checkEquals(
+            "**** COMMODORE 64 BASIC V2 ****",
+            this.screenLine(c64, 1)
+                .trim()
+        );
+    }
+
+    @Test
+    public void testCiaTimerInterruptAdvancesJiffyClock() {
+        final C64 c64 = this.boot();
+
+        final AddressBus ram = c64.ram();
+        final int before = ram.read(JIFFY_CLOCK) & 0xff;
+
+        // the KERNAL programs CIA1 timer A for 60 interrupts a second, 10 frames should be 12 jiffies on PAL
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        final int after = ram.read(JIFFY_CLOCK) & 0xff;
+        this.checkEquals(
+            12,
+            (after - before) & 0xff,
+            "jiffies"
+        );
+    }
+
+    @Test
+    public void testBootStopsBeforeBasic() {
+        final C64 c64 = this.createC64();
+        c64.boot();
+
+        final CpuContext context = c64.context();
+        this.checkEquals(
+            (short) 0xFCFF,
+            context.pc(),
+            "pc"
+        );
+        this.checkEquals(
+            false,
+            context.isInterruptDisabled(),
+            "interrupts enabled"
+        );
+        this.checkEquals(
+            "",
+            this.screenLine(c64, 1)
+                .trim(),
+            "nothing printed"
+        );
+    }
+
+    @Test
+    public void testBootThenRunReady() {
+        final C64 c64 = this.createC64();
+        c64.boot();
+
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        this.checkEquals(
+            "READY.",
+            this.screenLine(c64, 5)
+                .trim()
+        );
+    }
+
+    @Test
+    public void testFastBootSameAsBoot() {
+        final C64 c64 = this.createC64();
+        c64.boot();
+
+        final C64 fast = this.createC64();
+        fast.fastBoot();
+
+        this.checkEquals(
+            c64.cycles(),
+            fast.cycles(),
+            "cycles"
+        );
+        this.checkEquals(
+            bytes(c64.snapshot()),
+            bytes(fast.snapshot())
+        );
+    }
+
+    @Test
+    public void testFastBootAfterRunSameAsBoot() {
+        final C64 c64 = this.boot();
+        c64.boot();
+
+        final C64 fast = this.boot();
+        fast.fastBoot();
+
+        this.checkEquals(
+            bytes(c64.snapshot()),
+            bytes(fast.snapshot())
+        );
+    }
+
+    @Test
+    public void testFastBootSameAsBootAfterRamtasReturns() {
+        // CINT reloads timer A before the boot finishes, so compare while the timer is still counting from IOINIT
+        this.checkEquals(
+            this.snapshotAfterRamtas(false),
+            this.snapshotAfterRamtas(true)
+        );
+    }
+
+    private String snapshotAfterRamtas(final boolean fast) {
+        final C64 c64 = this.createC64();
+        final CpuContext context = c64.context();
+
+        final short address = (short) 0xFD15; // RESTOR, called immediately after RAMTAS
+        final String[] snapshot = new String[1];
+
+        context.addBreakpoint(address);
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext context) {
+                    if (address == context.pc()) {
+                        snapshot[0] = bytes(c64.snapshot());
+                    }
+                }
+
+                @Override
+                public void onReset(final CpuContext context) {
+                    // nop
+                }
+            }
+        );
+
+        if (fast) {
+            c64.fastBoot();
+        } else {
+            c64.boot();
+        }
+
+        return snapshot[0];
+    }
+
+    @Test
+    public void testFastBootThenRunReady() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        this.checkEquals(
+            "READY.",
+            this.screenLine(c64, 5)
+                .trim()
+        );
+    }
+
+    @Test
+    public void testWithKernalPatchAddressFails() {
+        final Map<Integer, Byte> patches = Maps.sorted();
+        patches.put(0xFFD2, CpuInstructions.trap().opcode()); // CPU address not ROM offset
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> C64.with(
+                Cpus.basic(CpuInstructions.all()),
+                patches,
+                (a) -> Optional.empty()
+            )
+        );
+    }
+
+    @Test
+    public void testBootWithKernalPatches() {
+        final Map<Integer, Byte> patches = Maps.sorted();
+        patches.put(0x1FD2, CpuInstructions.trap().opcode()); // CHROUT $FFD2
+        patches.put(0x1FD3, (byte) 0);
+
+        final C64 c64 = C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            patches,
+            (a) -> Optional.empty()
+        );
+        c64.boot();
+
+        final StringBuilder printed = new StringBuilder();
+        c64.context()
+            .addTrap(
+                (byte) 0,
+                (context) -> {
+                    printed.append((char) (context.a() & 0xff));
+                    CpuInstructions.rts()
+                        .execute(context);
+                    context.setCarry(false); // success
+                }
+            );
+
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        this.checkEquals(
+            true,
+            printed.toString()
+                .contains("READY."),
+            printed.toString()
+        );
+    }
+
+    @Test
+    public void testStopInsideBreakpoint() {
+        final C64 c64 = this.createC64();
+        final CpuContext context = c64.context();
+
+        final short address = (short) 0xFCE2; // first instruction of the kernal reset routine
+        context.addBreakpoint(address);
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext context) {
+                    c64.stop();
+                }
+
+                @Override
+                public void onReset(final CpuContext context) {
+                    // nop
+                }
+            }
+        );
+
+        final long cycles = c64.runCycles(Vic.CYCLES_PER_FRAME);
+        this.checkEquals(
+            true,
+            cycles < 100,
+            "cycles " + cycles
+        );
+    }
+
+    @Test
+    public void testRunAfterRamWrittenRunsNewCode() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        final int routine = 0xC000;
+        final int result = 0xC100;
+
+        final AddressBus ram = c64.ram();
+        final byte[] code = new byte[]{
+            (byte) 0xA9, 0x01, // LDA #$01
+            (byte) 0x8D, 0x00, (byte) 0xC1, // STA $C100
+            0x4C, 0x05, (byte) 0xC0 // JMP $C005
+        };
+        ram.write(
+            routine,
+            code,
+            0,
+            code.length
+        );
+
+        final CpuContext context = c64.context();
+        context.setPc((short) routine);
+        c64.runCycles(1000);
+
+        this.checkEquals(
+            (byte) 0x01,
+            ram.read(result),
+            "first run"
+        );
+
+        // replace the routine without passing through the cpu
+        ram.write(routine, (byte) 0xEE); // INC $C100
+        ram.write(routine + 1, (byte) 0x00);
+        ram.write(routine + 2, (byte) 0xC1);
+        ram.write(routine + 3, (byte) 0xEA); // NOP
+        ram.write(routine + 4, (byte) 0xEA); // NOP
+
+        context.setPc((short) routine);
+        c64.runCycles(1000);
+
+        this.checkEquals(
+            (byte) 0x02,
+            ram.read(result),
+            "second run"
+        );
+    }
+
+    // snapshot.........................................................................................................
+
+    @Test
+    public void testRestoreNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createC64()
+                .restore(null)
+        );
+    }
+
+    @Test
+    public void testRestoreInvalidSnapshotFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createC64()
+                .restore(
+                    C64Snapshot.with(new byte[10])
+                )
+        );
+    }
+
+    @Test
+    public void testRestoreSnapshotTooLongFails() {
+        final C64 c64 = this.createC64();
+        final C64Snapshot snapshot = c64.snapshot();
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> c64.restore(
+                C64Snapshot.with(new byte[snapshot.size() + 1])
+            )
+        );
+    }
+
+    @Test
+    public void testSnapshotRestoreSameMachine() {
+        final C64 c64 = this.createC64();
+        c64.boot();
+
+        final C64Snapshot snapshot = c64.snapshot();
+        final String context = c64.context().toString();
+        final long cycles = c64.cycles();
+
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        c64.restore(snapshot);
+
+        this.checkEquals(
+            context,
+            c64.context().toString(),
+            "context"
+        );
+        this.checkEquals(
+            cycles,
+            c64.cycles(),
+            "cycles"
+        );
+        this.checkEquals(
+            "",
+            this.screenLine(c64, 5)
+                .trim(),
+            "screen"
+        );
+    }
+
+    @Test
+    public void testSnapshotRestoreRunsIdentically() {
+        final C64 c64 = this.createC64();
+        c64.boot();
+
+        final C64Snapshot snapshot = c64.snapshot();
+
+        for (int i = 0; i < 20; i++) {
+            c64.runFrame();
+        }
+        final C64Snapshot expected = c64.snapshot();
+
+        final C64 other = this.createC64();
+        other.restore(snapshot);
+
+        for (int i = 0; i < 20; i++) {
+            other.runFrame();
+        }
+
+        this.checkEquals(
+            bytes(expected),
+            bytes(other.snapshot())
+        );
+    }
+
+    @Test
+    public void testSnapshotWriteReadRestoreRunsIdentically() throws IOException {
+        final C64 c64 = this.createC64();
+        c64.boot();
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        c64.snapshot()
+            .write(Channels.newChannel(output));
+
+        for (int i = 0; i < 20; i++) {
+            c64.runFrame();
+        }
+
+        final C64 other = this.createC64();
+        other.restore(
+            C64Snapshot.read(
+                Channels.newChannel(
+                    new ByteArrayInputStream(output.toByteArray())
+                )
+            )
+        );
+
+        for (int i = 0; i < 20; i++) {
+            other.runFrame();
+        }
+
+        this.checkEquals(
+            bytes(c64.snapshot()),
+            bytes(other.snapshot())
+        );
+    }
+
+    // dirty RAM pages................................................................................................
+
+    @Test
+    public void testForEachDirtyRamPageNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createC64()
+                .forEachDirtyRamPage(null)
+        );
+    }
+
+    @Test
+    public void testForEachDirtyRamPageAfterClear() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+        c64.clearDirtyRamPages();
+
+        this.checkEquals(
+            "",
+            this.dirtyRamPages(c64)
+        );
+
+        // prints the banner and READY
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        final String dirty = this.dirtyRamPages(c64);
+        this.checkEquals(
+            true,
+            dirty.contains(" 4 "),
+            "screen page $0400 should be dirty " + dirty
+        );
+        this.checkEquals(
+            false,
+            dirty.contains(" 80 "),
+            "page $5000 should be clean " + dirty
+        );
+    }
+
+    private String dirtyRamPages(final C64 c64) {
+        final StringBuilder b = new StringBuilder();
+        c64.forEachDirtyRamPage((p) -> b.append(' ').append(p).append(' '));
+        return b.toString();
+    }
+
+    // fork.............................................................................................................
+
+    @Test
+    public void testForkSameSnapshot() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        final C64 fork = c64.fork();
+
+        this.checkEquals(
+            bytes(c64.snapshot()),
+            bytes(fork.snapshot())
+        );
+    }
+
+    @Test
+    public void testForkRunsIdentically() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        final C64 fork = c64.fork();
+
+        for (int i = 0; i < 20; i++) {
+            c64.runFrame();
+            fork.runFrame();
+        }
+
+        this.checkEquals(
+            bytes(c64.snapshot()),
+            bytes(fork.snapshot())
+        );
+    }
+
+    @Test
+    public void testForkIndependent() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        final C64 fork = c64.fork();
+        final C64Snapshot before = c64.snapshot();
+
+        for (int i = 0; i < 20; i++) {
+            fork.runFrame();
+        }
+
+        this.checkEquals(
+            bytes(before),
+            bytes(c64.snapshot()),
+            "original changed by running fork"
+        );
+        this.checkEquals(
+            "READY.",
+            this.screenLine(fork, 5)
+                .trim()
+        );
+        this.checkEquals(
+            "",
+            this.screenLine(c64, 5)
+                .trim()
+        );
+    }
+
+    // mapped...........................................................................................................
+
+    @Test
+    public void testMappedNullRamFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> C64.mapped(
+                Cpus.basic(CpuInstructions.all()),
+                Maps.empty(),
+                VicModel.PAL,
+                (a) -> Optional.empty(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testMappedWithoutHeaderNotReset() throws IOException {
+        final Path ram = Files.createTempFile("c64", ".ram");
+        try {
+            final C64 c64 = this.createMappedC64(ram);
+
+            this.checkEquals(
+                0L,
+                c64.cycles()
+            );
+            this.checkEquals(
+                false,
+                Files.exists(header(ram)),
+                "header"
+            );
+        } finally {
+            Files.delete(ram);
+        }
+    }
+
+    @Test
+    public void testMappedForceResume() throws IOException {
+        final Path ram = Files.createTempFile("c64", ".ram");
+        try {
+            final C64 c64 = this.createMappedC64(ram);
+            c64.reset();
+            c64.fastBoot();
+
+            for (int i = 0; i < 20; i++) {
+                c64.runFrame();
+            }
+            c64.force();
+
+            final C64 resumed = this.createMappedC64(ram);
+
+            this.checkEquals(
+                bytes(c64.snapshot()),
+                bytes(resumed.snapshot())
+            );
+            this.checkEquals(
+                "READY.",
+                this.screenLine(resumed, 5)
+                    .trim()
+            );
+        } finally {
+            Files.delete(ram);
+            Files.deleteIfExists(header(ram));
+        }
+    }
+
+    @Test
+    public void testMappedRestoreSnapshotTooShortFails() throws IOException {
+        final Path ram = Files.createTempFile("c64", ".ram");
+        try {
+            final C64 c64 = this.createMappedC64(ram);
+
+            final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> c64.restore(
+                    C64Snapshot.with(new byte[10])
+                )
+            );
+            this.checkEquals(
+                "Invalid snapshot, too short",
+                thrown.getMessage()
+            );
+        } finally {
+            Files.delete(ram);
+            Files.deleteIfExists(header(ram));
+        }
+    }
+
+    @Test
+    public void testForceNotMapped() throws IOException {
+        this.createC64()
+            .force();
+    }
+
+    private C64 createMappedC64(final Path ram) throws IOException {
+        return C64.mapped(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            VicModel.PAL,
+            (a) -> Optional.empty(),
+            ram
+        );
+    }
+
+    private static Path header(final Path ram) {
+        return ram.resolveSibling(ram.getFileName() + C64.HEADER_SUFFIX);
+    }
+
+    // vicModel.........................................................................................................
+
+    @Test
+    public void testVicModel() {
+        this.checkEquals(
+            VicModel.PAL,
+            this.createC64()
+                .vicModel()
+        );
+    }
+
+    @Test
+    public void testPalDetected() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        this.checkEquals(
+            ONE,
+            c64.ram()
+                .read(PAL_NTSC)
+        );
+    }
+
+    @Test
+    public void testNtscDetectedThenRunReady() {
+        final C64 c64 = C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            VicModel.NTSC,
+            (a) -> Optional.empty()
+        );
+        c64.reset();
+        c64.fastBoot();
+
+        this.checkEquals(
+            ZERO,
+            c64.ram()
+                .read(PAL_NTSC)
+        );
+
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        this.checkEquals(
+            true,
+            c64.cycles() % (65 * 263) < 10,
+            "frame overshoot " + c64.cycles() % (65 * 263)
+        );
+        this.checkEquals(
+            "READY.",
+            this.screenLine(c64, 5)
+                .trim()
+        );
+    }
+
+    @Test
+    public void testFrameReady() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        for (int i = 0; i < 10; i++) {
+            c64.runFrame();
+        }
+
+        final int[] frame = c64.frame();
+        this.checkEquals(
+            VicModel.PAL.width() * VicModel.PAL.height(),
+            frame.length,
+            "length"
+        );
+
+        // the R of READY. on row 5 is light blue on blue, with a light blue border
+        final int top = (51 + 5 * 8 - 16) * VicModel.PAL.width() + 32;
+        this.checkEquals(
+            Integer.toHexString(LIGHT_BLUE),
+            Integer.toHexString(frame[top - 1]),
+            "border"
+        );
+        this.checkEquals(
+            Integer.toHexString(BLUE),
+            Integer.toHexString(frame[top]),
+            "background"
+        );
+        this.checkEquals(
+            Integer.toHexString(LIGHT_BLUE),
+            Integer.toHexString(frame[top + 1]),
+            "R"
+        );
+    }
+
+    @Test
+    public void testFrameReused() {
+        final C64 c64 = this.createC64();
+        c64.fastBoot();
+
+        final int[] frame = c64.frame();
+        c64.runFrame();
+
+        assertSame(
+            frame,
+            c64.frame()
+        );
+    }
+
+    /**
+     * The KERNAL sets this to 1 on PAL machines after checking if the VIC reaches raster line 311.
+     */
+    private final static int PAL_NTSC = 0x2a6;
+
+    private final static byte ZERO = 0;
+
+    private final static byte ONE = 1;
+
+    private final static int BLUE = 0xff352879;
+
+    private final static int LIGHT_BLUE = 0xff6c5eb5;
+
+    private static String bytes(final C64Snapshot snapshot) {
+        final ByteBuffer buffer = snapshot.buffer();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return Arrays.toString(bytes);
+    }
+
+    private C64 boot() {
+        final C64 c64 = this.createC64();
+
+        for (int i = 0; i < BOOT_FRAMES; i++) {
+            c64.runFrame();
+        }
+        return c64;
+    }
+
+    private C64 createC64() {
+        final C64 c64 = C64.with(
+            Cpus.basic(CpuInstructions.all()),
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+        c64.reset();
+        return c64;
+    }
+
+    /**
+     * Converts the given line of screen codes into text, upper case letters only.
+     */
+    private String screenLine(final C64 c64,
+                              final int line) {
+        final AddressBus ram = c64.ram();
+        final StringBuilder b = new StringBuilder();
+
+        for (int i = 0; i < 40; i++) {
+            final int code = ram.read(SCREEN + line * 40 + i) & 0x7f;
+            b.append(
+                (char) (code < 32 ? code + 64 : code)
+            );
+        }
+
+        return b.toString();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<C64> type() {
+        return C64.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
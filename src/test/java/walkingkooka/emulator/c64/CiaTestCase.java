@@ -20,7 +20,10 @@ package walkingkooka.emulator.c64;
 import org.junit.jupiter.api.Test;
 import walkingkooka.ToStringTesting;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> implements ToStringTesting<C> {
 
@@ -163,9 +166,9 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         cia.write(Cia.TA_HI, ZERO);
         cia.write(Cia.TA_LO, lo);
 
-        cia.write(Cia.CRA, Cia.TIMER_START.set(Cia.TIMER_LOAD_LATCH.set())); // start and load timer
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW)); // start and load timer, stopping after underflow
 
-        cia.update(6); // timer A underflows
+        cia.update(4); // timer A underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.TIMERA_UNDERFLOW.set());
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerA underflow cleared
@@ -183,9 +186,9 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         final byte lo = 3;
         cia.write(Cia.TB_HI, ZERO);
         cia.write(Cia.TB_LO, lo);
-        cia.write(Cia.CRB, Cia.TIMER_START.set(Cia.TIMER_LOAD_LATCH.set())); // start and load timer
+        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW)); // start and load timer, stopping after underflow
 
-        cia.update(6); // timer B underflows
+        cia.update(4); // timer B underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.TIMERB_UNDERFLOW.set());
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerB underflow cleared
@@ -205,8 +208,8 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         cia.write(Cia.TA_HI, hi);
         cia.write(Cia.TA_LO, lo);
 
-        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_RESTART_AFTER_UNDERFLOW));
-        cia.update(6); // timer A underflows
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+        cia.update(4); // timer A underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.TIMERA_UNDERFLOW.set());
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerA underflow cleared
@@ -226,9 +229,9 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         cia.write(Cia.TB_HI, hi);
         cia.write(Cia.TB_LO, lo);
 
-        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_RESTART_AFTER_UNDERFLOW));
+        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
 
-        cia.update(6); // timer B underflows
+        cia.update(4); // timer B underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.TIMERB_UNDERFLOW.set());
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerB underflow cleared
@@ -237,6 +240,66 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         this.readAndCheck(cia, Cia.TB_LO, lo);
     }
 
+    @Test
+    public final void testTimerALatchLoThenHi() {
+        this.timerLatchAndCheck(
+            4, // TA_LO
+            5, // TA_HI
+            Cia.CRA,
+            (byte) 0x34,
+            (byte) 0x12
+        );
+    }
+
+    @Test
+    public final void testTimerALatchLoNotSignExtended() {
+        this.timerLatchAndCheck(
+            4, // TA_LO
+            5, // TA_HI
+            Cia.CRA,
+            (byte) 0x80,
+            (byte) 0x01
+        );
+    }
+
+    @Test
+    public final void testTimerBLatchLoThenHi() {
+        this.timerLatchAndCheck(
+            6, // TB_LO
+            7, // TB_HI
+            Cia.CRB,
+            (byte) 0x34,
+            (byte) 0x12
+        );
+    }
+
+    @Test
+    public final void testTimerBLatchLoNotSignExtended() {
+        this.timerLatchAndCheck(
+            6, // TB_LO
+            7, // TB_HI
+            Cia.CRB,
+            (byte) 0x80,
+            (byte) 0x01
+        );
+    }
+
+    private void timerLatchAndCheck(final int loRegister,
+                                    final int hiRegister,
+                                    final int controlRegister,
+                                    final byte lo,
+                                    final byte hi) {
+        final C cia = this.createCiaInterruptFails();
+
+        cia.write(Cia.ICR, ZERO); // disable interrupts
+        cia.write(loRegister, lo);
+        cia.write(hiRegister, hi);
+        cia.write(controlRegister, Cia.TIMER_LOAD_LATCH.set()); // load but do not start
+
+        this.readAndCheck(cia, loRegister, lo);
+        this.readAndCheck(cia, hiRegister, hi);
+    }
+
     @Test
     public final void testSetClockrAInterruptDisabledOtherInterruptsEnabledUnderflows() {
         final C cia = this.createCiaInterruptFails();
@@ -246,11 +309,11 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         final byte lo = 3;
         cia.write(Cia.TA_HI, ZERO);
         cia.write(Cia.TA_LO, lo);
-        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW));
 
         cia.write(Cia.ICR, Cia.TIMERA_UNDERFLOW.not());
 
-        cia.update(6); // timer A underflows
+        cia.update(4); // timer A underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.TIMERA_UNDERFLOW.set());
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerA underflow cleared
@@ -268,10 +331,10 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         final byte lo = 3;
         cia.write(Cia.TB_HI, ZERO);
         cia.write(Cia.TB_LO, lo);
-        cia.write(Cia.CRB, Cia.TIMER_START.set(Cia.TIMER_LOAD_LATCH.set())); // start and load timer
+        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW)); // start and load timer, stopping after underflow
 
         cia.write(Cia.ICR, Cia.TIMERB_UNDERFLOW.not());
-        cia.update(6); // timer B underflows
+        cia.update(4); // timer B underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.TIMERB_UNDERFLOW.set());
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerB underflow cleared
@@ -293,10 +356,10 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         cia.write(Cia.TA_HI, ZERO);
         cia.write(Cia.TA_LO, lo);
 
-        this.writeAndReadCheck(cia, Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+        this.writeAndReadCheck(cia, Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW));
 
         cia.write(Cia.ICR, Cia.IRQ.or(Cia.TIMERA_UNDERFLOW)); // enable interrupt for timerA
-        cia.update(6); // timer A underflows
+        cia.update(4); // timer A underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.IRQ.set(Cia.TIMERA_UNDERFLOW.set()));
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerA underflow cleared
@@ -307,6 +370,149 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         this.interruptCheck(cia, true);
     }
 
+    @Test
+    public final void testScheduledTimerAUnderflows() {
+        final C cia = this.createCiaInterruptable();
+
+        final long[] now = new long[]{1000};
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        cia.schedule(scheduler);
+
+        this.checkEquals(
+            CycleScheduler.NONE,
+            scheduler.next(),
+            "nothing scheduled before timer started"
+        );
+
+        final byte lo = 3;
+        cia.write(Cia.TA_HI, ZERO);
+        cia.write(Cia.TA_LO, lo);
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW));
+        cia.write(Cia.ICR, Cia.IRQ.or(Cia.TIMERA_UNDERFLOW)); // enable interrupt for timerA
+
+        this.checkEquals(
+            1000L + 3 + 1,
+            scheduler.next(),
+            "underflow scheduled"
+        );
+
+        now[0] = 1002;
+        this.readAndCheck(cia, Cia.TA_LO, (byte) 1); // value computed from scheduler cycle
+        this.interruptCheck(cia, false);
+
+        now[0] = 1004;
+        scheduler.fire();
+
+        this.interruptCheck(cia, true);
+        this.checkEquals(
+            CycleScheduler.NONE,
+            scheduler.next(),
+            "nothing scheduled after one shot underflow"
+        );
+
+        this.readAndCheck(cia, Cia.ICR, Cia.IRQ.set(Cia.TIMERA_UNDERFLOW.set()));
+        this.readAndCheck(cia, Cia.TA_HI, NEGATIVE_ONE);
+        this.readAndCheck(cia, Cia.TA_LO, NEGATIVE_ONE);
+    }
+
+    @Test
+    public final void testScheduledTimerBRestartsAfterUnderflow() {
+        final C cia = this.createCiaInterruptFails();
+
+        final long[] now = new long[]{0};
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        cia.schedule(scheduler);
+
+        final byte lo = 9;
+        cia.write(Cia.ICR, ZERO); // disable interrupts
+        cia.write(Cia.TB_HI, ZERO);
+        cia.write(Cia.TB_LO, lo);
+        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+
+        this.checkEquals(
+            10L,
+            scheduler.next()
+        );
+
+        now[0] = 10;
+        scheduler.fire();
+
+        this.checkEquals(
+            20L,
+            scheduler.next(),
+            "reloaded from latch"
+        );
+        this.readAndCheck(cia, Cia.ICR, Cia.TIMERB_UNDERFLOW.set());
+    }
+
+    @Test
+    public final void testScheduledTimerASeveralPeriodsInOneSync() {
+        final C cia = this.createCiaInterruptFails();
+
+        final long[] now = new long[]{0};
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        cia.schedule(scheduler);
+
+        final byte lo = 9;
+        cia.write(Cia.ICR, ZERO); // disable interrupts
+        cia.write(Cia.TA_HI, ZERO);
+        cia.write(Cia.TA_LO, lo);
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+
+        // timer B counts timer A underflows
+        cia.write(Cia.TB_HI, ZERO);
+        cia.write(Cia.TB_LO, (byte) 100);
+        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_COUNT_TIMERA));
+
+        // 3 full periods of 10 cycles and 4 cycles into the fourth without firing the scheduler
+        now[0] = 34;
+        this.readAndCheck(cia, Cia.TA_HI, ZERO);
+        this.readAndCheck(cia, Cia.TA_LO, (byte) 5);
+        this.readAndCheck(cia, Cia.TB_LO, (byte) (100 - 3));
+
+        scheduler.fire(); // the event due at 10 finds the timer already synced
+
+        this.checkEquals(
+            40L,
+            scheduler.next(),
+            "next timer A underflow"
+        );
+    }
+
+    @Test
+    public final void testTimerBCountsTimerAUnderflowsUntilUnderflow() {
+        final C cia = this.createCiaInterruptable();
+
+        cia.write(Cia.TA_HI, ZERO);
+        cia.write(Cia.TA_LO, (byte) 1);
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+
+        cia.write(Cia.TB_HI, ZERO);
+        cia.write(Cia.TB_LO, (byte) 2);
+        cia.write(Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_COUNT_TIMERA, Cia.TIMER_STOP_AFTER_UNDERFLOW));
+        cia.write(Cia.ICR, Cia.IRQ.or(Cia.TIMERB_UNDERFLOW)); // enable interrupt for timerB
+
+        cia.update(2 * 3 - 1); // timer A underflowed twice
+        this.interruptCheck(cia, false);
+        this.readAndCheck(cia, Cia.TB_LO, ZERO);
+
+        cia.update(1); // third timer A underflow
+        this.interruptCheck(cia, true);
+    }
+
+    @Test
+    public final void testScheduleTwiceFails() {
+        final C cia = this.createCiaInterruptFails();
+
+        final CycleScheduler scheduler = CycleScheduler.with(() -> 0);
+        cia.schedule(scheduler);
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> cia.schedule(scheduler)
+        );
+    }
+
     @Test
     public final void testSetClockrBInterruptEnabledUnderflows() {
         final C cia = this.createCiaInterruptable();
@@ -317,10 +523,10 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         cia.write(Cia.TB_HI, ZERO);
         cia.write(Cia.TB_LO, lo);
 
-        this.writeAndReadCheck(cia, Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+        this.writeAndReadCheck(cia, Cia.CRB, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH, Cia.TIMER_STOP_AFTER_UNDERFLOW));
 
         cia.write(Cia.ICR, Cia.IRQ.or(Cia.TIMERB_UNDERFLOW)); // enable interrupt for timerB
-        cia.update(6); // timer B underflows
+        cia.update(4); // timer B underflows and reloads the latch
 
         this.readAndCheck(cia, Cia.ICR, Cia.IRQ.set(Cia.TIMERB_UNDERFLOW.set()));
         this.readAndCheck(cia, Cia.ICR, ZERO); // timerB underflow cleared
@@ -731,6 +937,63 @@ public abstract class CiaTestCase<C extends Cia> extends AddressBusTestCase<C> i
         this.interruptCheck(cia, false);
     }
 
+    // Snapshotable.....................................................................................................
+
+    @Test
+    public final void testSaveRestore() {
+        final C cia = this.createCiaInterruptFails();
+
+        cia.write(Cia.DDRA, FIVE);
+        cia.write(Cia.TA_HI, ONE);
+        cia.write(Cia.TA_LO, TWO);
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+        cia.update(10);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        cia.save(buffer);
+        buffer.flip();
+
+        final C restored = this.createCiaInterruptFails();
+        restored.restore(buffer);
+
+        this.checkEquals(
+            false,
+            buffer.hasRemaining(),
+            "all read"
+        );
+        this.checkEquals(
+            cia.toString(),
+            restored.toString()
+        );
+        this.readAndCheck(restored, Cia.TA_HI, ZERO);
+        this.readAndCheck(restored, Cia.TA_LO, (byte) (0x102 - 10));
+    }
+
+    @Test
+    public final void testSaveRestoreReschedules() {
+        final C cia = this.createCiaInterruptFails();
+        cia.write(Cia.ICR, ZERO); // disable interrupts
+        cia.write(Cia.TA_HI, ZERO);
+        cia.write(Cia.TA_LO, (byte) 99);
+        cia.write(Cia.CRA, Cia.TIMER_START.or(Cia.TIMER_LOAD_LATCH));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        cia.save(buffer);
+        buffer.flip();
+
+        final long[] now = new long[]{1000};
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+
+        final C restored = this.createCiaInterruptFails();
+        restored.schedule(scheduler);
+        restored.restore(buffer);
+
+        this.checkEquals(
+            1000L + 100,
+            scheduler.next()
+        );
+    }
+
     // toString.........................................................................................................
 
     @Test
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CopyOnWriteMemoryTest extends AddressBusTestCase<CopyOnWriteMemory> {
+
+    @Test
+    public void testWithInvalidSizeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> CopyOnWriteMemory.with(255)
+        );
+    }
+
+    @Test
+    public void testWith() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        this.checkEquals(
+            512,
+            memory.size(),
+            "size"
+        );
+        this.readAndCheck(memory, 0, ZERO);
+        this.readAndCheck(memory, 511, ZERO);
+        this.checkEquals(
+            true,
+            memory.isShared(0),
+            "shared"
+        );
+    }
+
+    @Test
+    public void testWrite() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(256);
+        this.writeAndReadCheck(memory, 1, (byte) 1);
+    }
+
+    @Test
+    public void testWrite2() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(1024);
+
+        for (int i = 0; i < 1024; i++) {
+            this.writeAndReadCheck(memory, i, (byte) i);
+        }
+    }
+
+    @Test
+    public void testWriteCopiesOnlyPageWritten() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(1024);
+        memory.write(0x101, ONE);
+
+        this.checkEquals(
+            true,
+            memory.isShared(0),
+            "page 0 shared"
+        );
+        this.checkEquals(
+            false,
+            memory.isShared(0x100),
+            "page 1 shared"
+        );
+        this.readAndCheck(memory, 0x1, ZERO);
+        this.readAndCheck(memory, 0x201, ZERO);
+    }
+
+    @Test
+    public void testReadMasksHighBits() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(256);
+        memory.write(0x10, (byte) 0xff);
+        this.readAndCheck(memory, 0x4010, (byte) 0xff);
+    }
+
+    @Test
+    public void testWriteMasksHighBits() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(256);
+        memory.write(0x4010, (byte) 0xff);
+        this.readAndCheck(memory, 0x10, (byte) 0xff);
+    }
+
+    @Test
+    public void testFork() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        memory.write(1, ONE);
+        memory.write(0x101, TWO);
+
+        final CopyOnWriteMemory fork = memory.fork();
+        this.readAndCheck(fork, 1, ONE);
+        this.readAndCheck(fork, 0x101, TWO);
+
+        this.checkEquals(
+            true,
+            memory.isShared(0),
+            "original shared"
+        );
+        this.checkEquals(
+            true,
+            fork.isShared(0),
+            "fork shared"
+        );
+    }
+
+    @Test
+    public void testForkWriteFork() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        memory.write(1, ONE);
+
+        final CopyOnWriteMemory fork = memory.fork();
+        fork.write(1, TWO);
+
+        this.readAndCheck(memory, 1, ONE);
+        this.readAndCheck(fork, 1, TWO);
+
+        this.checkEquals(
+            false,
+            fork.isShared(0),
+            "fork page 0 shared"
+        );
+        this.checkEquals(
+            true,
+            fork.isShared(0x100),
+            "fork page 1 shared"
+        );
+    }
+
+    @Test
+    public void testForkWriteOriginal() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        memory.write(1, ONE);
+
+        final CopyOnWriteMemory fork = memory.fork();
+        memory.write(1, TWO);
+
+        this.readAndCheck(memory, 1, TWO);
+        this.readAndCheck(fork, 1, ONE);
+    }
+
+    @Test
+    public void testForkFork() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(256);
+        memory.write(1, ONE);
+
+        final CopyOnWriteMemory fork = memory.fork();
+        final CopyOnWriteMemory fork2 = fork.fork();
+        fork.write(1, TWO);
+        fork2.write(1, THREE);
+
+        this.readAndCheck(memory, 1, ONE);
+        this.readAndCheck(fork, 1, TWO);
+        this.readAndCheck(fork2, 1, THREE);
+    }
+
+    @Test
+    public void testSaveRestore() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        memory.write(1, ONE);
+        memory.write(511, TWO);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(512);
+        memory.save(buffer);
+        buffer.flip();
+
+        final CopyOnWriteMemory restored = CopyOnWriteMemory.with(512);
+        restored.restore(buffer);
+
+        this.readAndCheck(restored, 0, ZERO);
+        this.readAndCheck(restored, 1, ONE);
+        this.readAndCheck(restored, 511, TWO);
+    }
+
+    @Test
+    public void testRestoreLeavesForkUnchanged() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(256);
+        memory.write(1, ONE);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        CopyOnWriteMemory.with(256)
+            .save(buffer);
+        buffer.flip();
+
+        final CopyOnWriteMemory fork = memory.fork();
+        memory.restore(buffer);
+
+        this.readAndCheck(memory, 1, ZERO);
+        this.readAndCheck(fork, 1, ONE);
+    }
+
+    @Test
+    public void testWriteMarksDirty() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(1024);
+        memory.write(0x201, ONE);
+        memory.write(0x202, TWO);
+
+        this.checkEquals(
+            "2",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testForkCopiesDirty() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(1024);
+        memory.write(0x101, ONE);
+
+        final CopyOnWriteMemory fork = memory.fork();
+        fork.write(0x201, TWO);
+        memory.dirtyPages()
+            .clear();
+
+        this.checkEquals(
+            "1,2",
+            fork.dirtyPages()
+                .toString()
+        );
+        this.checkEquals(
+            "",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testRestoreMarksDirty() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(512);
+        memory.save(buffer);
+        buffer.flip();
+        memory.restore(buffer);
+
+        this.checkEquals(
+            "0,1",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBulkRead() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(1024);
+        memory.write(0xff, ONE);
+        memory.write(0x100, TWO);
+        memory.write(0x101, THREE);
+
+        this.readBulkAndCheck(memory, 0xff, ONE, TWO, THREE);
+    }
+
+    @Test
+    public void testBulkReadWraps() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        memory.write(511, ONE);
+        memory.write(0, TWO);
+
+        this.readBulkAndCheck(memory, 511, ONE, TWO);
+    }
+
+    @Test
+    public void testBulkWrite() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(1024);
+        memory.write(0x1ff, new byte[]{ONE, TWO, THREE}, 0, 3);
+
+        this.readBulkAndCheck(memory, 0x1fe, ZERO, ONE, TWO, THREE, ZERO);
+        this.checkEquals(
+            "1,2",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBulkWriteFork() {
+        final CopyOnWriteMemory memory = CopyOnWriteMemory.with(512);
+        memory.write(1, ONE);
+
+        final CopyOnWriteMemory fork = memory.fork();
+        fork.write(0, new byte[]{TWO, THREE}, 0, 2);
+
+        this.readBulkAndCheck(memory, 0, ZERO, ONE);
+        this.readBulkAndCheck(fork, 0, TWO, THREE);
+        this.checkEquals(
+            true,
+            fork.isShared(0x100),
+            "page 1 shared"
+        );
+    }
+
+    @Test
+    public void testBufferEmpty() {
+        this.checkEquals(
+            Optional.empty(),
+            CopyOnWriteMemory.with(256)
+                .buffer()
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            CopyOnWriteMemory.with(256),
+            "CopyOnWriteMemory 0xff"
+        );
+    }
+
+    @Override
+    public CopyOnWriteMemory createAddressBus() {
+        return CopyOnWriteMemory.with(256);
+    }
+
+    @Override
+    public Class<CopyOnWriteMemory> type() {
+        return CopyOnWriteMemory.class;
+    }
+}
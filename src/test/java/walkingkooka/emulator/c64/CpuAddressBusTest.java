@@ -19,6 +19,8 @@ package walkingkooka.emulator.c64;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -109,7 +111,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
 
         this.readBelowBasicAndCheck(bus, MEMORY);
         this.readBasicAndCheck(bus, MEMORY);
-        this.readIoAndCheck(bus, CHARGEN);
+        this.readIoAndCheck(bus, MEMORY);
         this.readKernalAndCheck(bus, MEMORY);
     }
 
@@ -117,6 +119,8 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
     public void testReadBasicRom() {
         final CpuAddressBus bus = this.createAddressBus();
         bus.basicRomMapped = true;
+        bus.chargenMapped = true;
+        bus.mapPages();
 
         this.readBelowBasicAndCheck(bus, MEMORY);
         this.readBasicAndCheck(bus, BASIC);
@@ -128,6 +132,8 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
     public void testReadChargen() {
         final CpuAddressBus bus = this.createAddressBus();
         bus.ioDevicesMapped = false;
+        bus.chargenMapped = true;
+        bus.mapPages();
 
         this.readBelowBasicAndCheck(bus, MEMORY);
         this.readBasicAndCheck(bus, MEMORY);
@@ -139,6 +145,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
     public void testReadIoDevices() {
         final CpuAddressBus bus = this.createAddressBus();
         bus.ioDevicesMapped = true;
+        bus.mapPages();
 
         this.readBelowBasicAndCheck(bus, MEMORY);
         this.readBasicAndCheck(bus, MEMORY);
@@ -150,6 +157,8 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
     public void testReadKernalRom() {
         final CpuAddressBus bus = this.createAddressBus();
         bus.kernalRomMapped = true;
+        bus.chargenMapped = true;
+        bus.mapPages();
 
         this.readBelowBasicAndCheck(bus, MEMORY);
         this.readBasicAndCheck(bus, MEMORY);
@@ -168,35 +177,74 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
     private final boolean KERNAL_TRUE = true;
     private final boolean KERNAL_FALSE = false;
 
+    private final boolean CHARGEN_TRUE = true;
+    private final boolean CHARGEN_FALSE = false;
+
     @Test
     public void testWriteDataDirectionZeroPortZero() {
         this.writeBankAndCheck(0x7,
             0,
             BASIC_FALSE,
             IO_FALSE,
+            CHARGEN_FALSE,
             KERNAL_FALSE);
     }
 
     @Test
-    public void testWriteDataDirectionBasicPortBasicTrue() {
+    public void testWriteDataDirectionBasicPortBasicWithoutKernal() {
         final byte value = CpuAddressBus.LORAM.set();
         this.writeBankAndCheck(value,
             value,
-            BASIC_TRUE,
+            BASIC_FALSE,
             IO_FALSE,
+            CHARGEN_TRUE,
             KERNAL_FALSE);
     }
 
     @Test
-    public void testWriteDataDirectionIoPortIoTrue() {
+    public void testWriteDataDirectionIoPortIoWithoutBasicOrKernal() {
         final byte value = CpuAddressBus.CHAREN.set();
+        this.writeBankAndCheck(value,
+            value,
+            BASIC_FALSE,
+            IO_FALSE,
+            CHARGEN_FALSE,
+            KERNAL_FALSE);
+    }
+
+    @Test
+    public void testWriteDataDirectionBasicAndIo() {
+        final byte value = CpuAddressBus.LORAM.or(CpuAddressBus.CHAREN);
         this.writeBankAndCheck(value,
             value,
             BASIC_FALSE,
             IO_TRUE,
+            CHARGEN_FALSE,
             KERNAL_FALSE);
     }
 
+    @Test
+    public void testWriteDataDirectionBasicAndKernal() {
+        final byte value = CpuAddressBus.LORAM.or(CpuAddressBus.HIRAM);
+        this.writeBankAndCheck(value,
+            value,
+            BASIC_TRUE,
+            IO_FALSE,
+            CHARGEN_TRUE,
+            KERNAL_TRUE);
+    }
+
+    @Test
+    public void testWriteDataDirectionIoAndKernal() {
+        final byte value = CpuAddressBus.CHAREN.or(CpuAddressBus.HIRAM);
+        this.writeBankAndCheck(value,
+            value,
+            BASIC_FALSE,
+            IO_TRUE,
+            CHARGEN_FALSE,
+            KERNAL_TRUE);
+    }
+
     @Test
     public void testWriteDataDirectionKernalPortKernalTrue() {
         final byte value = CpuAddressBus.HIRAM.set();
@@ -204,6 +252,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
             value,
             BASIC_FALSE,
             IO_FALSE,
+            CHARGEN_TRUE,
             KERNAL_TRUE);
     }
 
@@ -213,6 +262,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
             CpuAddressBus.LORAM.or(CpuAddressBus.CHAREN, CpuAddressBus.HIRAM),
             BASIC_FALSE,
             IO_FALSE,
+            CHARGEN_FALSE,
             KERNAL_FALSE);
     }
 
@@ -223,6 +273,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
             value,
             BASIC_TRUE,
             IO_TRUE,
+            CHARGEN_FALSE,
             KERNAL_TRUE);
     }
 
@@ -230,6 +281,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
                                    final int port,
                                    final boolean basic,
                                    final boolean ioDevices,
+                                   final boolean chargen,
                                    final boolean kernal) {
         final CpuAddressBus bus = CpuAddressBus.with(AddressBuses.memory(0x10000),
             this.basic(),
@@ -242,6 +294,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
 
         assertEquals(basic, bus.basicRomMapped, () -> "basicRomMapped " + bus);
         assertEquals(ioDevices, bus.ioDevicesMapped, () -> "ioDevicesMapped " + bus);
+        assertEquals(chargen, bus.chargenMapped, () -> "chargenMapped " + bus);
         assertEquals(kernal, bus.kernalRomMapped, () -> "kernalRomMapped " + bus);
     }
 
@@ -288,6 +341,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
 
         final CpuAddressBus bus = CpuAddressBus.with(memory, basic, chargen, ioDevices, kernal);
         bus.basicRomMapped = true;
+        bus.mapPages();
 
         this.write2(bus,
             CpuAddressBus.BASIC_ROM_BEGIN,
@@ -295,6 +349,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
             BASIC);
 
         bus.basicRomMapped = false;
+        bus.mapPages();
 
         this.readBasicAndCheck(bus, BASIC);
     }
@@ -339,6 +394,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
 
         final CpuAddressBus bus = CpuAddressBus.with(memory, basic, chargen, ioDevices, kernal);
         bus.ioDevicesMapped = true;
+        bus.mapPages();
 
         this.write2(
             bus,
@@ -350,6 +406,8 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         this.readIoAndCheck(bus, IO);
 
         bus.ioDevicesMapped = false;
+        bus.chargenMapped = true;
+        bus.mapPages();
         this.readIoAndCheck(bus, CHARGEN);
     }
 
@@ -368,6 +426,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
 
         final CpuAddressBus bus = CpuAddressBus.with(memory, basic, chargen, ioDevices, kernal);
         bus.kernalRomMapped = true;
+        bus.mapPages();
 
         this.write2(
             bus,
@@ -377,6 +436,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         );
 
         bus.kernalRomMapped = false;
+        bus.mapPages();
 
         this.readBasicAndCheck(bus, KERNAL);
     }
@@ -407,6 +467,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         bus.basicRomMapped = true;
         bus.ioDevicesMapped = true;
         bus.kernalRomMapped = true;
+        bus.mapPages();
 
         this.readBasicAndCheck(
             bus,
@@ -538,6 +599,37 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         }
     }
 
+    // Snapshotable.....................................................................................................
+
+    @Test
+    public void testSaveRestore() {
+        final CpuAddressBus bus = this.createAddressBusWithMemory();
+        bus.write(CpuAddressBus.DATA_DIRECTION, (byte) 0x7);
+        bus.write(CpuAddressBus.PORT, (byte) 0x5); // RAM, IO, RAM
+
+        final ByteBuffer buffer = ByteBuffer.allocate(2);
+        bus.save(buffer);
+        buffer.flip();
+
+        final CpuAddressBus restored = this.createAddressBusWithMemory();
+        restored.restore(buffer);
+
+        this.checkEquals(
+            bus.toString(),
+            restored.toString()
+        );
+        this.checkEquals(
+            false,
+            restored.kernalRomMapped,
+            "kernalRomMapped"
+        );
+        this.checkEquals(
+            true,
+            restored.ioDevicesMapped,
+            "ioDevicesMapped"
+        );
+    }
+
     // helpers..........................................................................................................
 
     @Override
@@ -549,6 +641,14 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
             this.kernal());
     }
 
+    private CpuAddressBus createAddressBusWithMemory() {
+        return CpuAddressBus.with(AddressBuses.memory(0x10000),
+            this.basic(),
+            this.chargen(),
+            this.ioDevices(),
+            this.kernal());
+    }
+
     private AddressBus memory() {
         return this.memory(
             0,
@@ -646,6 +746,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         final CpuAddressBus bus = this.createAddressBus();
         bus.basicRomMapped = true;
         bus.ioDevicesMapped = false;
+        bus.chargenMapped = true;
         bus.kernalRomMapped = false;
 
         this.toStringAndCheck(
@@ -659,6 +760,7 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         final CpuAddressBus bus = this.createAddressBus();
         bus.basicRomMapped = false;
         bus.ioDevicesMapped = false;
+        bus.chargenMapped = true;
         bus.kernalRomMapped = false;
 
         this.toStringAndCheck(
@@ -667,6 +769,16 @@ public final class CpuAddressBusTest extends AddressBusTestCase<CpuAddressBus> {
         );
     }
 
+    @Test
+    public void testToStringRam() {
+        final CpuAddressBus bus = this.createAddressBus();
+
+        this.toStringAndCheck(
+            bus,
+            "RAM"
+        );
+    }
+
     @Test
     public void testToStringIo() {
         final CpuAddressBus bus = this.createAddressBus();
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Optional;
+
+/**
+ * Reports the wall clock time taken by {@link Cpus#basic(java.util.Collection)} to boot to READY, which is almost
+ * entirely KERNAL code, and to run a BASIC loop, which is almost entirely BASIC interpreter code.
+ * <pre>
+ * java walkingkooka.emulator.c64.CpuBenchmark [iterations]
+ * </pre>
+ */
+public final class CpuBenchmark {
+
+    public static void main(final String[] args) {
+        final int iterations = args.length > 0 ?
+            Integer.parseInt(args[0]) :
+            20;
+
+        final Cpu cpu = Cpus.basic(CpuInstructions.all());
+
+        // warm up
+        for (int i = 0; i < iterations; i++) {
+            boot(cpu);
+            basic(cpu);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            boot(cpu);
+        }
+        final long boot = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            basic(cpu);
+        }
+        final long basic = System.nanoTime() - start;
+
+        System.out.printf(
+            "boot %8.3f ms, BASIC %8.3f ms per %d cycles%n",
+            boot / 1e6 / iterations,
+            basic / 1e6 / iterations,
+            BASIC_CYCLES
+        );
+    }
+
+    private static C64 boot(final Cpu cpu) {
+        final C64 c64 = C64.with(
+            cpu,
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+        c64.boot();
+        return c64;
+    }
+
+    /**
+     * Loads a tokenized <code>10 FOR I=1 TO 30000:A=A+I:NEXT</code> and types RUN.
+     */
+    private static void basic(final Cpu cpu) {
+        final C64 c64 = C64.with(
+            cpu,
+            Maps.empty(),
+            (a) -> Optional.empty()
+        );
+        c64.fastBoot();
+        c64.runCycles(20 * Vic.CYCLES_PER_FRAME);
+
+        final AddressBus ram = c64.ram();
+        ram.write(
+            0x801,
+            PROGRAM,
+            0,
+            PROGRAM.length
+        );
+        final int end = 0x801 + PROGRAM.length;
+        ram.write(0x2d, (byte) end); // VARTAB
+        ram.write(0x2e, (byte) (end >> 8));
+
+        ram.write(
+            0x277,
+            RUN,
+            0,
+            RUN.length
+        );
+        ram.write(0xc6, (byte) RUN.length);
+
+        c64.runCycles(BASIC_CYCLES);
+    }
+
+    private final static byte[] PROGRAM = new byte[]{
+        0x18, 0x08, // next line
+        10, 0, // line number
+        (byte) 0x81, 'I', (byte) 0xb2, '1', (byte) 0xa4, '3', '0', '0', '0', '0', // FOR I=1 TO 30000
+        ':', 'A', (byte) 0xb2, 'A', (byte) 0xaa, 'I', // :A=A+I
+        ':', (byte) 0x82, 0, // :NEXT
+        0, 0 // end of program
+    };
+
+    private final static byte[] RUN = new byte[]{
+        'R', 'U', 'N', '\r'
+    };
+
+    private final static int BASIC_CYCLES = 10_000_000;
+
+    /**
+     * Stop creation.
+     */
+    private CpuBenchmark() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -17,11 +17,79 @@
 
 package walkingkooka.emulator.c64;
 
+import org.junit.jupiter.api.Test;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
 
 public final class CpuInstructionSharedBinaryFunctionTest implements ClassTesting<CpuInstructionSharedBinaryFunction> {
 
+    @Test
+    public void testIndex() {
+        this.checkEquals(
+            0x11234,
+            CpuInstructionSharedBinaryFunction.index(
+                (byte) 0x12,
+                (byte) 0x34,
+                true
+            )
+        );
+    }
+
+    @Test
+    public void testIndexWithoutCarry() {
+        this.checkEquals(
+            0xFF80,
+            CpuInstructionSharedBinaryFunction.index(
+                (byte) 0xFF,
+                (byte) 0x80,
+                false
+            )
+        );
+    }
+
+    @Test
+    public void testTable() {
+        final short[] table = CpuInstructionSharedBinaryFunction.table(
+            (left, right, carry) -> (left ^ right) + (carry ? CpuInstructionSharedBinaryFunction.RESULT_CARRY : 0)
+        );
+
+        this.checkEquals(
+            2 * 256 * 256,
+            table.length,
+            "length"
+        );
+        this.checkEquals(
+            (short) (0x12 ^ 0x34),
+            table[CpuInstructionSharedBinaryFunction.index((byte) 0x12, (byte) 0x34, false)]
+        );
+        this.checkEquals(
+            (short) (CpuInstructionSharedBinaryFunction.RESULT_CARRY | (0x12 ^ 0x34)),
+            table[CpuInstructionSharedBinaryFunction.index((byte) 0x12, (byte) 0x34, true)]
+        );
+    }
+
+    @Test
+    public void testResult() {
+        final BasicCpuContext context = BasicCpuContext.with(
+            AddressBuses.memory(256 * 256),
+            (a) -> {
+                throw new UnsupportedOperationException();
+            }
+        );
+
+        this.checkEquals(
+            (byte) 0x80,
+            CpuInstructionSharedBinaryFunction.result(
+                (short) (0x80 | CpuInstructionSharedBinaryFunction.RESULT_CARRY | CpuInstructionSharedBinaryFunction.RESULT_OVERFLOW),
+                context
+            )
+        );
+        this.checkEquals(
+            CpuFlags.parse("C----1VN").value(),
+            context.flags()
+        );
+    }
+
     // class............................................................................................................
 
     @Override
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class CpuInstructionSharedTrapTest extends CpuInstructionSharedTestCase<CpuInstructionSharedTrap> {
+
+    @Test
+    public void testStep() {
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(256 * 256),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        context.setPc((short) 0x1000);
+        context.writeByte(
+            (short) 0x1000,
+            (byte) 0x12 // trap number
+        );
+
+        context.setStackPointer(
+            (byte) 0xff
+        );
+
+        context.addTrap(
+            (byte) 0x12,
+            (c) -> {
+                assertSame(context, c);
+                c.setA((byte) 0x34);
+            }
+        );
+
+        this.executeAndCheck(
+            this.createCpuInstruction(),
+            context,
+            (byte) 0x34,
+            context.x(),
+            context.y(),
+            CpuFlags.parse("-----1--"),
+            (byte) 0xff, // stackPointer
+            (short) 0x1001
+        );
+    }
+
+    @Test
+    public void testStepWithoutHandlerInvalidOpcode() {
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(256 * 256),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        context.setPc((short) 0x1000);
+        context.writeByte(
+            (short) 0x1000,
+            (byte) 0x12 // trap number
+        );
+
+        context.setStackPointer(
+            (byte) 0xff
+        );
+
+        final byte value = (byte) 0xff;
+
+        context.addTrap(
+            (byte) 0x34,
+            (c) -> {
+                throw new UnsupportedOperationException();
+            }
+        );
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onInvalidOpcode(final CpuContext context) {
+                    context.setA(value);
+                }
+            }
+        );
+
+        this.executeAndCheck(
+            this.createCpuInstruction(),
+            context,
+            value,
+            context.x(),
+            context.y(),
+            CpuFlags.parse("--------"),
+            (byte) 0xff, // stackPointer
+            (short) 0x1000
+        );
+    }
+
+    @Test
+    public void testStepWithoutHandlerPcAfterOpcode() {
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(256 * 256),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        context.setPc((short) 0x1000);
+        context.writeByte(
+            (short) 0x1000,
+            (byte) 0x12 // trap number
+        );
+
+        context.setStackPointer(
+            (byte) 0xff
+        );
+
+        final StringBuilder fired = new StringBuilder();
+        context.addWatcher(
+            new FakeCpuWatcher() {
+                @Override
+                public void onInvalidOpcode(final CpuContext c) {
+                    fired.append(
+                        Integer.toHexString(c.pc())
+                    );
+                }
+            }
+        );
+
+        this.executeAndCheck(
+            this.createCpuInstruction(),
+            context,
+            context.a(),
+            context.x(),
+            context.y(),
+            CpuFlags.parse("-----1--"),
+            (byte) 0xff, // stackPointer
+            (short) 0x1000 // same as CpuInstructionSharedInvalidOpcode
+        );
+
+        this.checkEquals(
+            "1000",
+            fired.toString(),
+            "pc when onInvalidOpcode fired"
+        );
+    }
+
+    @Test
+    public void testDisassemble() {
+        final CpuContext context = CpuContexts.basic(
+            AddressBuses.memory(256 * 256),
+            SYMBOL_LOOKUP_UOE
+        );
+
+        context.setPc((short) 0x1000);
+        context.writeByte(
+            (short) 0x1000,
+            (byte) 0x12
+        );
+
+        this.disassembleAndCheck(
+            this.createCpuInstruction(),
+            context,
+            "TRAP $12"
+        );
+    }
+
+    @Override
+    public CpuInstructionSharedTrap createCpuInstruction() {
+        return CpuInstructionSharedTrap.instance();
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CpuInstructionSharedTrap> type() {
+        return CpuInstructionSharedTrap.class;
+    }
+}
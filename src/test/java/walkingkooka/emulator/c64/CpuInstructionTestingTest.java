@@ -432,6 +432,11 @@ public final class CpuInstructionTestingTest implements CpuInstructionTesting<Te
 
         private final int length;
 
+        @Override
+        public int cycles() {
+            return 2;
+        }
+
         @Override
         public void execute(final CpuContext context) {
             Objects.requireNonNull(context, "context");
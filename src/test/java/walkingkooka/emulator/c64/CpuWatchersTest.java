@@ -17,11 +17,14 @@
 
 package walkingkooka.emulator.c64;
 
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.Test;
 import walkingkooka.reflect.ClassTesting2;
 import walkingkooka.reflect.JavaVisibility;
 
+import java.lang.management.ManagementFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -52,6 +55,257 @@ public final class CpuWatchersTest implements ClassTesting2<CpuWatchers> {
         );
     }
 
+    @Test
+    public void testFireInvalidOpcodeNmiReset() {
+        final CpuWatchers watchers = CpuWatchers.empty();
+
+        final CpuContext context = CpuContexts.fake();
+
+        final StringBuilder fired = new StringBuilder();
+        watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onInvalidOpcode(final CpuContext c) {
+                    assertSame(context, c);
+                    fired.append("invalidOpcode ");
+                }
+
+                @Override
+                public void onNmi(final CpuContext c) {
+                    assertSame(context, c);
+                    fired.append("nmi ");
+                }
+
+                @Override
+                public void onReset(final CpuContext c) {
+                    assertSame(context, c);
+                    fired.append("reset");
+                }
+            }
+        );
+
+        watchers.onInvalidOpcode(context);
+        watchers.onNmi(context);
+        watchers.onReset(context);
+
+        this.checkEquals(
+            "invalidOpcode nmi reset",
+            fired.toString()
+        );
+    }
+
+    @Test
+    public void testAddRemove() {
+        final CpuWatchers watchers = CpuWatchers.empty();
+
+        final AtomicInteger fired = new AtomicInteger();
+        final CpuWatcher watcher1 = new FakeCpuWatcher() {
+            @Override
+            public void onBreakpoint(final CpuContext c) {
+                fired.addAndGet(1);
+            }
+        };
+        final CpuWatcher watcher2 = new FakeCpuWatcher() {
+            @Override
+            public void onBreakpoint(final CpuContext c) {
+                fired.addAndGet(10);
+            }
+        };
+
+        final Runnable remove1 = watchers.add(watcher1);
+        watchers.add(watcher2);
+
+        remove1.run();
+
+        watchers.onBreakpoint(CpuContexts.fake());
+
+        this.checkEquals(
+            10,
+            fired.get()
+        );
+    }
+
+    @Test
+    public void testAddSameWatcherTwiceRemoveTwice() {
+        final CpuWatchers watchers = CpuWatchers.empty();
+
+        final AtomicInteger fired = new AtomicInteger();
+        final CpuWatcher watcher = new FakeCpuWatcher() {
+            @Override
+            public void onBreakpoint(final CpuContext c) {
+                fired.incrementAndGet();
+            }
+        };
+
+        final Runnable remove = watchers.add(watcher);
+        watchers.add(watcher);
+
+        // second run must not remove the other registration
+        remove.run();
+        remove.run();
+
+        watchers.onBreakpoint(CpuContexts.fake());
+
+        this.checkEquals(
+            1,
+            fired.get()
+        );
+    }
+
+    @Test
+    public void testFireDuringRemoveUsesSnapshot() {
+        final CpuWatchers watchers = CpuWatchers.empty();
+
+        final AtomicInteger fired = new AtomicInteger();
+        final Runnable[] remove = new Runnable[1];
+
+        remove[0] = watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext c) {
+                    remove[0].run();
+                    fired.incrementAndGet();
+                }
+            }
+        );
+        watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext c) {
+                    fired.incrementAndGet();
+                }
+            }
+        );
+
+        watchers.onBreakpoint(CpuContexts.fake());
+        watchers.onBreakpoint(CpuContexts.fake());
+
+        this.checkEquals(
+            3,
+            fired.get()
+        );
+    }
+
+    @Test
+    public void testFireWatcherFailsContinues() {
+        final CpuWatchers watchers = CpuWatchers.empty();
+
+        final AtomicInteger fired = new AtomicInteger();
+        watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext c) {
+                    fired.addAndGet(1);
+                    throw new IllegalStateException("Fail!");
+                }
+            }
+        );
+        watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext c) {
+                    fired.addAndGet(10);
+                }
+            }
+        );
+
+        watchers.onBreakpoint(CpuContexts.fake());
+
+        this.checkEquals(
+            11,
+            fired.get()
+        );
+    }
+
+    @Test
+    public void testFireInvalidOpcodeNmiResetWatcherFailsContinues() {
+        final CpuWatchers watchers = CpuWatchers.empty();
+
+        final StringBuilder fired = new StringBuilder();
+        watchers.add(new FakeCpuWatcher()); // every event throws UnsupportedOperationException
+        watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onInvalidOpcode(final CpuContext c) {
+                    fired.append("invalidOpcode ");
+                }
+
+                @Override
+                public void onNmi(final CpuContext c) {
+                    fired.append("nmi ");
+                }
+
+                @Override
+                public void onReset(final CpuContext c) {
+                    fired.append("reset");
+                }
+            }
+        );
+
+        final CpuContext context = CpuContexts.fake();
+        watchers.onInvalidOpcode(context);
+        watchers.onNmi(context);
+        watchers.onReset(context);
+
+        this.checkEquals(
+            "invalidOpcode nmi reset",
+            fired.toString()
+        );
+    }
+
+    @Test
+    public void testFireDoesNotAllocate() {
+        // per thread allocation counts are only available from the HotSpot ThreadMXBean
+        final Object bean = ManagementFactory.getThreadMXBean();
+        if (false == bean instanceof ThreadMXBean) {
+            return;
+        }
+        final ThreadMXBean threads = (ThreadMXBean) bean;
+        if (false == threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+
+        final CpuWatchers watchers = CpuWatchers.empty();
+        final CpuContext context = CpuContexts.fake();
+
+        final int[] fired = new int[1];
+        watchers.add(
+            new FakeCpuWatcher() {
+                @Override
+                public void onBreakpoint(final CpuContext c) {
+                    fired[0]++;
+                }
+            }
+        );
+
+        final int count = 100_000;
+
+        // warm up
+        for (int i = 0; i < count; i++) {
+            watchers.onBreakpoint(context);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < count; i++) {
+            watchers.onBreakpoint(context);
+        }
+
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        this.checkEquals(
+            2 * count,
+            fired[0],
+            "fired"
+        );
+        this.checkEquals(
+            true,
+            allocated < count,
+            "allocated " + allocated + " bytes firing " + count + " events"
+        );
+    }
+
     // class............................................................................................................
 
     @Override
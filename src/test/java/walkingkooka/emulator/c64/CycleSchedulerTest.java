@@ -0,0 +1,304 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CycleSchedulerTest implements ClassTesting2<CycleScheduler>,
+    ToStringTesting<CycleScheduler> {
+
+    @Test
+    public void testWithNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> CycleScheduler.with(null)
+        );
+    }
+
+    @Test
+    public void testRegisterNullEventFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createScheduler()
+                .register(null)
+        );
+    }
+
+    @Test
+    public void testScheduleUnknownEventFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createScheduler()
+                .schedule(0, 1)
+        );
+    }
+
+    @Test
+    public void testNextNothingScheduled() {
+        this.nextAndCheck(
+            this.createScheduler(),
+            CycleScheduler.NONE
+        );
+    }
+
+    @Test
+    public void testScheduleNext() {
+        final CycleScheduler scheduler = this.createScheduler();
+        final int event1 = scheduler.register(this.event("1"));
+        final int event2 = scheduler.register(this.event("2"));
+        final int event3 = scheduler.register(this.event("3"));
+
+        scheduler.schedule(event1, 30);
+        scheduler.schedule(event2, 10);
+        scheduler.schedule(event3, 20);
+
+        this.nextAndCheck(
+            scheduler,
+            10
+        );
+    }
+
+    @Test
+    public void testScheduleMovesEvent() {
+        final CycleScheduler scheduler = this.createScheduler();
+        final int event1 = scheduler.register(this.event("1"));
+        final int event2 = scheduler.register(this.event("2"));
+
+        scheduler.schedule(event1, 10);
+        scheduler.schedule(event2, 20);
+        scheduler.schedule(event1, 30);
+
+        this.nextAndCheck(
+            scheduler,
+            20
+        );
+        this.toStringAndCheck(
+            scheduler,
+            "[1@20, 0@30]"
+        );
+    }
+
+    @Test
+    public void testCancel() {
+        final CycleScheduler scheduler = this.createScheduler();
+        final int event1 = scheduler.register(this.event("1"));
+        final int event2 = scheduler.register(this.event("2"));
+
+        scheduler.schedule(event1, 10);
+        scheduler.schedule(event2, 20);
+        scheduler.cancel(event1);
+        scheduler.cancel(event1);
+
+        this.nextAndCheck(
+            scheduler,
+            20
+        );
+    }
+
+    @Test
+    public void testFireInCycleOrder() {
+        final CycleScheduler scheduler = this.createScheduler();
+
+        for (int i = 0; i < 20; i++) {
+            scheduler.schedule(
+                scheduler.register(this.event(String.valueOf(i))),
+                100 - (i * 7) % 20
+            );
+        }
+
+        this.now = 90;
+        scheduler.fire();
+
+        this.checkEquals(
+            "17 14 11 8 5 2 19 16 13 10 ",
+            this.fired.toString(),
+            "fired"
+        );
+
+        this.now = 100;
+        scheduler.fire();
+
+        this.checkEquals(
+            "17 14 11 8 5 2 19 16 13 10 7 4 1 18 15 12 9 6 3 0 ",
+            this.fired.toString(),
+            "fired"
+        );
+        this.nextAndCheck(
+            scheduler,
+            CycleScheduler.NONE
+        );
+    }
+
+    @Test
+    public void testFireEventReschedules() {
+        final CycleScheduler scheduler = this.createScheduler();
+        final int[] event = new int[1];
+        event[0] = scheduler.register(
+            () -> {
+                this.fired.append(this.now)
+                    .append(' ');
+                scheduler.schedule(
+                    event[0],
+                    this.now + 10
+                );
+            }
+        );
+        scheduler.schedule(event[0], 10);
+
+        this.now = 10;
+        scheduler.fire();
+
+        this.now = 15;
+        scheduler.fire();
+
+        this.checkEquals(
+            "10 ",
+            this.fired.toString()
+        );
+        this.nextAndCheck(
+            scheduler,
+            20
+        );
+    }
+
+    @Test
+    public void testRunNegativeCyclesFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createScheduler()
+                .run(
+                    Cpus.basic(CpuInstructions.all()),
+                    CpuContexts.fake(),
+                    -1
+                )
+        );
+    }
+
+    @Test
+    public void testRunFiresEventsAtDeadlines() {
+        final AddressBus memory = AddressBuses.memory(256 * 256);
+        for (int i = 0; i < memory.size(); i++) {
+            memory.write(
+                i,
+                CpuInstructions.nop()
+                    .opcode()
+            );
+        }
+        final CpuContext context = CpuContexts.basic(
+            memory,
+            (a) -> Optional.empty()
+        );
+        context.setPc((short) 0x1000);
+
+        final CycleScheduler scheduler = CycleScheduler.with(context::cycles);
+        final int event = scheduler.register(
+            () -> this.fired.append(context.cycles())
+                .append(' ')
+        );
+        scheduler.schedule(event, 101);
+
+        this.checkEquals(
+            200L,
+            scheduler.run(
+                Cpus.basic(CpuInstructions.all()),
+                context,
+                200
+            ),
+            "cycles"
+        );
+
+        // each NOP takes 2 cycles so the event fires at the first instruction boundary after its deadline
+        this.checkEquals(
+            "102 ",
+            this.fired.toString(),
+            "fired"
+        );
+    }
+
+    @Test
+    public void testRunStop() {
+        final AddressBus memory = AddressBuses.memory(256 * 256);
+        for (int i = 0; i < memory.size(); i++) {
+            memory.write(
+                i,
+                CpuInstructions.nop()
+                    .opcode()
+            );
+        }
+        final CpuContext context = CpuContexts.basic(
+            memory,
+            (a) -> Optional.empty()
+        );
+        context.setPc((short) 0x1000);
+
+        final CycleScheduler scheduler = CycleScheduler.with(context::cycles);
+        final int event = scheduler.register(scheduler::stop);
+        scheduler.schedule(event, 100);
+
+        this.checkEquals(
+            100L,
+            scheduler.run(
+                Cpus.basic(CpuInstructions.all()),
+                context,
+                1000
+            ),
+            "cycles"
+        );
+    }
+
+    private CycleScheduler createScheduler() {
+        return CycleScheduler.with(() -> this.now);
+    }
+
+    private Runnable event(final String name) {
+        return () -> this.fired.append(name)
+            .append(' ');
+    }
+
+    private void nextAndCheck(final CycleScheduler scheduler,
+                              final long expected) {
+        this.checkEquals(
+            expected,
+            scheduler.next(),
+            scheduler.toString()
+        );
+    }
+
+    private long now;
+
+    private final StringBuilder fired = new StringBuilder();
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CycleScheduler> type() {
+        return CycleScheduler.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DirectMemoryTest extends AddressBusTestCase<DirectMemory> {
+
+    @Test
+    public void testWrite() {
+        final DirectMemory memory = DirectMemory.with(256);
+        this.writeAndReadCheck(memory, 1, (byte) 1);
+    }
+
+    @Test
+    public void testWrite2() {
+        final DirectMemory memory = DirectMemory.with(256);
+
+        for (int i = 0; i < 256; i++) {
+            this.writeAndReadCheck(memory, i, (byte) i);
+        }
+    }
+
+    @Test
+    public void testReadMasksHighBits() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(0x10, (byte) 0xff);
+        this.readAndCheck(memory, 0x4010, (byte) 0xff);
+    }
+
+    @Test
+    public void testWriteMasksHighBits() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(0x4010, (byte) 0xff);
+        this.readAndCheck(memory, 0x10, (byte) 0xff);
+    }
+
+    @Test
+    public void testBaseOffsetReadAndWrite() {
+        final DirectMemory memory = DirectMemory.with(256);
+
+        final int baseOffset = 128;
+        for (int i = 0; i < 128; i++) {
+            memory.write(baseOffset + i, (byte) i);
+        }
+
+        final DirectMemory base = memory.setBaseOffset(-baseOffset);
+        for (int i = 0; i < 128; i++) {
+            this.readAndCheck(base, i, (byte) i);
+            base.write(i, (byte) (~i));
+        }
+
+        for (int i = 0; i < 128; i++) {
+            this.readAndCheck(memory, baseOffset + i, (byte) ~i);
+        }
+    }
+
+    @Test
+    public void testSaveRestore() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(1, ONE);
+        memory.write(255, TWO);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        memory.save(buffer);
+        buffer.flip();
+
+        final DirectMemory restored = DirectMemory.with(256);
+        restored.restore(buffer);
+
+        this.readAndCheck(restored, 0, ZERO);
+        this.readAndCheck(restored, 1, ONE);
+        this.readAndCheck(restored, 255, TWO);
+    }
+
+    @Test
+    public void testSaveRestoreSurroundingBytes() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(0, ONE);
+        memory.write(255, TWO);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + 256 + 1);
+        buffer.put(THREE);
+        memory.save(buffer);
+        buffer.put(THREE);
+        buffer.flip();
+
+        this.checkEquals(THREE, buffer.get(), "before");
+
+        final DirectMemory restored = DirectMemory.with(256);
+        restored.restore(buffer);
+
+        this.checkEquals(THREE, buffer.get(), "after");
+        this.readAndCheck(restored, 0, ONE);
+        this.readAndCheck(restored, 255, TWO);
+    }
+
+    @Test
+    public void testSaveMemoryRestoreDirectMemory() {
+        final Memory memory = Memory.with(256);
+        memory.write(1, ONE);
+        memory.write(254, TWO);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        memory.save(buffer);
+        buffer.flip();
+
+        final DirectMemory restored = DirectMemory.with(256);
+        restored.restore(buffer);
+
+        this.readBulkAndCheck(restored, 0, ZERO, ONE, ZERO);
+        this.readBulkAndCheck(restored, 253, ZERO, TWO, ZERO);
+    }
+
+    @Test
+    public void testWriteMarksDirty() {
+        final DirectMemory memory = DirectMemory.with(1024);
+        memory.write(0x201, ONE);
+
+        this.checkEquals(
+            "2",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBaseOffsetWriteMarksDirty() {
+        final DirectMemory memory = DirectMemory.with(1024);
+        memory.setBaseOffset(0x100)
+            .write(0x201, ONE);
+
+        this.checkEquals(
+            "3",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testRestoreMarksDirty() {
+        final DirectMemory memory = DirectMemory.with(512);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(512);
+        memory.save(buffer);
+        buffer.flip();
+        memory.restore(buffer);
+
+        this.checkEquals(
+            "0,1",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testRestoreTooShortFails() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(1, ONE);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(255);
+        assertThrows(
+            BufferUnderflowException.class,
+            () -> memory.restore(buffer)
+        );
+
+        this.checkEquals(
+            0,
+            buffer.position(),
+            "position"
+        );
+        this.readAndCheck(
+            memory,
+            1,
+            ONE
+        );
+    }
+
+    @Test
+    public void testBulkReadNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> DirectMemory.with(256)
+                .read(0, null, 0, 1)
+        );
+    }
+
+    @Test
+    public void testBulkReadOutOfBoundsFails() {
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> DirectMemory.with(256)
+                .read(0, new byte[2], 1, 2)
+        );
+    }
+
+    @Test
+    public void testBulkRead() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(10, ONE);
+        memory.write(11, TWO);
+        memory.write(12, THREE);
+
+        this.readBulkAndCheck(memory, 10, ONE, TWO, THREE);
+    }
+
+    @Test
+    public void testBulkReadWraps() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(255, ONE);
+        memory.write(0, TWO);
+        memory.write(1, THREE);
+
+        this.readBulkAndCheck(memory, 255, ONE, TWO, THREE);
+    }
+
+    @Test
+    public void testBulkReadBaseOffset() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(129, ONE);
+        memory.write(130, TWO);
+
+        this.readBulkAndCheck(memory.setBaseOffset(128), 1, ONE, TWO);
+    }
+
+    @Test
+    public void testBulkWrite() {
+        final DirectMemory memory = DirectMemory.with(1024);
+        memory.write(0x1ff, new byte[]{0, ONE, TWO, THREE, 0}, 1, 3);
+
+        this.readBulkAndCheck(memory, 0x1fe, ZERO, ONE, TWO, THREE, ZERO);
+        this.checkEquals(
+            "1,2",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBulkWriteWraps() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(0x4ff, new byte[]{ONE, TWO}, 0, 2);
+
+        this.readAndCheck(memory, 255, ONE);
+        this.readAndCheck(memory, 0, TWO);
+    }
+
+    @Test
+    public void testBuffer() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(1, ONE);
+
+        final ByteBuffer buffer = memory.buffer()
+            .get();
+        this.checkEquals(
+            256,
+            buffer.remaining(),
+            "remaining"
+        );
+        this.checkEquals(
+            ONE,
+            buffer.get(1),
+            "get"
+        );
+        this.checkEquals(
+            true,
+            buffer.isReadOnly(),
+            "isReadOnly"
+        );
+
+        memory.write(2, TWO);
+        this.checkEquals(
+            TWO,
+            buffer.get(2),
+            "get after write"
+        );
+    }
+
+    @Test
+    public void testBufferDirect() {
+        this.checkEquals(
+            true,
+            DirectMemory.with(256)
+                .buffer()
+                .get()
+                .isDirect()
+        );
+    }
+
+    @Test
+    public void testBufferBaseOffset() {
+        this.checkEquals(
+            Optional.empty(),
+            DirectMemory.with(256)
+                .setBaseOffset(1)
+                .buffer()
+        );
+    }
+
+    @Test
+    public void testMapNullPathFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> DirectMemory.map(null, 256)
+        );
+    }
+
+    @Test
+    public void testMapInvalidSizeFails() throws IOException {
+        final Path path = Files.createTempFile("memory", ".ram");
+        try {
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> DirectMemory.map(path, 0)
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testMapExtendsFile() throws IOException {
+        final Path path = Files.createTempFile("memory", ".ram");
+        try {
+            final DirectMemory memory = DirectMemory.map(path, 256);
+            this.readAndCheck(memory, 255, ZERO);
+
+            this.checkEquals(
+                256L,
+                Files.size(path)
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testMapReadsExistingFile() throws IOException {
+        final Path path = Files.createTempFile("memory", ".ram");
+        try {
+            final byte[] bytes = new byte[256];
+            bytes[1] = ONE;
+            bytes[255] = TWO;
+            Files.write(path, bytes);
+
+            final DirectMemory memory = DirectMemory.map(path, 256);
+            this.readAndCheck(memory, 1, ONE);
+            this.readAndCheck(memory, 255, TWO);
+            this.readAndCheck(memory, 0x4101, ONE);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testMapWriteForceRemap() throws IOException {
+        final Path path = Files.createTempFile("memory", ".ram");
+        try {
+            final DirectMemory memory = DirectMemory.map(path, 1024);
+            memory.setBaseOffset(0x100)
+                .write(0x201, ONE);
+            memory.write(0x3ff, new byte[]{TWO, THREE}, 0, 2);
+            memory.force();
+
+            this.checkEquals(
+                "0,3",
+                memory.dirtyPages()
+                    .toString()
+            );
+
+            final byte[] bytes = Files.readAllBytes(path);
+            this.checkEquals(ONE, bytes[0x301], "file 0x301");
+            this.checkEquals(TWO, bytes[0x3ff], "file 0x3ff");
+            this.checkEquals(THREE, bytes[0], "file 0");
+
+            this.readBulkAndCheck(
+                DirectMemory.map(path, 1024),
+                0x3ff,
+                TWO,
+                THREE
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testForkMappedIndependent() throws IOException {
+        final Path path = Files.createTempFile("memory", ".ram");
+        try {
+            final DirectMemory memory = DirectMemory.map(path, 256);
+            memory.write(1, ONE);
+
+            final DirectMemory fork = memory.fork();
+            this.readAndCheck(fork, 1, ONE);
+            this.checkEquals(
+                "0",
+                fork.dirtyPages()
+                    .toString()
+            );
+
+            fork.write(2, TWO);
+            this.readAndCheck(memory, 2, ZERO);
+
+            memory.force();
+            this.checkEquals(
+                ZERO,
+                Files.readAllBytes(path)[2],
+                "file 2"
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testForceNotMapped() {
+        DirectMemory.with(256)
+            .force();
+    }
+
+    @Test
+    public void testToString() {
+        final DirectMemory memory = DirectMemory.with(256);
+        memory.write(1, (byte) 1);
+        memory.write(2, (byte) 2);
+        this.toStringAndCheck(memory, "DirectMemory 0xff");
+    }
+
+    @Override
+    public DirectMemory createAddressBus() {
+        return DirectMemory.with(256);
+    }
+
+    @Override
+    public Class<DirectMemory> type() {
+        return DirectMemory.class;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DirtyPagesTest implements ClassTesting2<DirtyPages>,
+    ToStringTesting<DirtyPages> {
+
+    @Test
+    public void testWithInvalidPageCountFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> DirtyPages.with(0)
+        );
+    }
+
+    @Test
+    public void testWithClean() {
+        final DirtyPages pages = DirtyPages.with(256);
+
+        this.countAndCheck(pages, 0);
+        this.checkEquals(
+            false,
+            pages.isDirty(0),
+            "isDirty"
+        );
+    }
+
+    @Test
+    public void testMark() {
+        final DirtyPages pages = DirtyPages.with(256);
+        pages.mark(1);
+        pages.mark(64);
+        pages.mark(255);
+
+        this.countAndCheck(pages, 3);
+        this.checkEquals(
+            true,
+            pages.isDirty(64),
+            "isDirty 64"
+        );
+        this.checkEquals(
+            false,
+            pages.isDirty(65),
+            "isDirty 65"
+        );
+    }
+
+    @Test
+    public void testMarkTwice() {
+        final DirtyPages pages = DirtyPages.with(256);
+        pages.mark(1);
+        pages.mark(1);
+
+        this.countAndCheck(pages, 1);
+    }
+
+    @Test
+    public void testMarkAll() {
+        final DirtyPages pages = DirtyPages.with(100);
+        pages.markAll();
+
+        this.countAndCheck(pages, 100);
+    }
+
+    @Test
+    public void testForEach() {
+        final DirtyPages pages = DirtyPages.with(256);
+        pages.mark(200);
+        pages.mark(3);
+        pages.mark(63);
+        pages.mark(64);
+
+        final StringBuilder b = new StringBuilder();
+        pages.forEach((p) -> b.append(p).append(' '));
+
+        this.checkEquals(
+            "3 63 64 200 ",
+            b.toString()
+        );
+    }
+
+    @Test
+    public void testClear() {
+        final DirtyPages pages = DirtyPages.with(256);
+        pages.mark(1);
+        pages.mark(255);
+        pages.clear();
+
+        this.countAndCheck(pages, 0);
+    }
+
+    @Test
+    public void testCopy() {
+        final DirtyPages pages = DirtyPages.with(256);
+        pages.mark(1);
+
+        final DirtyPages copy = pages.copy();
+        copy.mark(2);
+        pages.clear();
+
+        this.countAndCheck(pages, 0);
+        this.toStringAndCheck(copy, "1,2");
+    }
+
+    private void countAndCheck(final DirtyPages pages,
+                               final int count) {
+        this.checkEquals(
+            count,
+            pages.count(),
+            "count " + pages
+        );
+    }
+
+    @Test
+    public void testToString() {
+        final DirtyPages pages = DirtyPages.with(256);
+        pages.mark(2);
+        pages.mark(128);
+
+        this.toStringAndCheck(
+            pages,
+            "2,128"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<DirtyPages> type() {
+        return DirtyPages.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
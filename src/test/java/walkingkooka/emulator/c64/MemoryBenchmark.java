@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import java.util.function.IntFunction;
+
+/**
+ * Reports the read and write throughput of the heap {@link Memory} and the off heap {@link DirectMemory}, one byte at
+ * a time and in bulk.
+ * <pre>
+ * java walkingkooka.emulator.c64.MemoryBenchmark [passes]
+ * </pre>
+ */
+public final class MemoryBenchmark {
+
+    public static void main(final String[] args) {
+        final int passes = args.length > 0 ?
+            Integer.parseInt(args[0]) :
+            2000;
+
+        report("Memory", passes, Memory::with);
+        report("DirectMemory", passes, DirectMemory::with);
+    }
+
+    private static void report(final String label,
+                               final int passes,
+                               final IntFunction<AddressBus> factory) {
+        final AddressBus memory = factory.apply(SIZE);
+
+        // warm up
+        for (int i = 0; i < 3; i++) {
+            run(memory, passes);
+        }
+
+        final long[] elapsed = run(memory, passes);
+        final double megabytes = (double) SIZE * passes / (1024 * 1024);
+
+        System.out.printf(
+            "%-14s write %8.1f MB/s read %8.1f MB/s bulk write %8.1f MB/s bulk read %8.1f MB/s (checksum %d)%n",
+            label,
+            megabytes / (elapsed[0] / 1e9),
+            megabytes / (elapsed[1] / 1e9),
+            megabytes / (elapsed[2] / 1e9),
+            megabytes / (elapsed[3] / 1e9),
+            elapsed[4]
+        );
+    }
+
+    /**
+     * Returns the nanos taken to write, read, bulk write and bulk read, followed by a checksum that stops the reads
+     * from being optimised away.
+     */
+    private static long[] run(final AddressBus memory,
+                              final int passes) {
+        final long[] elapsed = new long[5];
+        long checksum = 0;
+
+        long start = System.nanoTime();
+        for (int p = 0; p < passes; p++) {
+            for (int i = 0; i < SIZE; i++) {
+                memory.write(i, (byte) (i + p));
+            }
+        }
+        elapsed[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int p = 0; p < passes; p++) {
+            for (int i = 0; i < SIZE; i++) {
+                checksum += memory.read(i);
+            }
+        }
+        elapsed[1] = System.nanoTime() - start;
+
+        final byte[] page = new byte[256];
+
+        start = System.nanoTime();
+        for (int p = 0; p < passes; p++) {
+            for (int i = 0; i < SIZE; i += page.length) {
+                memory.write(i, page, 0, page.length);
+            }
+        }
+        elapsed[2] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int p = 0; p < passes; p++) {
+            for (int i = 0; i < SIZE; i += page.length) {
+                memory.read(i, page, 0, page.length);
+                checksum += page[p & 0xff];
+            }
+        }
+        elapsed[3] = System.nanoTime() - start;
+
+        elapsed[4] = checksum;
+        return elapsed;
+    }
+
+    private final static int SIZE = 64 * 1024;
+
+    /**
+     * Stop creation.
+     */
+    private MemoryBenchmark() {
+        throw new UnsupportedOperationException();
+    }
+}
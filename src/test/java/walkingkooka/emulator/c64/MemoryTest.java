@@ -19,6 +19,11 @@ package walkingkooka.emulator.c64;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public final class MemoryTest extends AddressBusTestCase<Memory> {
 
     @Test
@@ -70,6 +75,175 @@ public final class MemoryTest extends AddressBusTestCase<Memory> {
         }
     }
 
+    @Test
+    public void testSaveRestore() {
+        final Memory memory = Memory.with(256);
+        memory.write(1, ONE);
+        memory.write(255, TWO);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        memory.save(buffer);
+        buffer.flip();
+
+        final Memory restored = Memory.with(256);
+        restored.restore(buffer);
+
+        this.readAndCheck(restored, 0, ZERO);
+        this.readAndCheck(restored, 1, ONE);
+        this.readAndCheck(restored, 255, TWO);
+    }
+
+    @Test
+    public void testWriteMarksDirty() {
+        final Memory memory = Memory.with(1024);
+        memory.write(0x201, ONE);
+
+        this.checkEquals(
+            "2",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBaseOffsetWriteMarksDirty() {
+        final Memory memory = Memory.with(1024);
+        memory.setBaseOffset(0x100)
+            .write(0x201, ONE);
+
+        this.checkEquals(
+            "3",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testRestoreMarksDirty() {
+        final Memory memory = Memory.with(512);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(512);
+        memory.save(buffer);
+        buffer.flip();
+        memory.restore(buffer);
+
+        this.checkEquals(
+            "0,1",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBulkReadNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Memory.with(256)
+                .read(0, null, 0, 1)
+        );
+    }
+
+    @Test
+    public void testBulkReadOutOfBoundsFails() {
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> Memory.with(256)
+                .read(0, new byte[2], 1, 2)
+        );
+    }
+
+    @Test
+    public void testBulkRead() {
+        final Memory memory = Memory.with(256);
+        memory.write(10, ONE);
+        memory.write(11, TWO);
+        memory.write(12, THREE);
+
+        this.readBulkAndCheck(memory, 10, ONE, TWO, THREE);
+    }
+
+    @Test
+    public void testBulkReadWraps() {
+        final Memory memory = Memory.with(256);
+        memory.write(255, ONE);
+        memory.write(0, TWO);
+        memory.write(1, THREE);
+
+        this.readBulkAndCheck(memory, 255, ONE, TWO, THREE);
+    }
+
+    @Test
+    public void testBulkReadBaseOffset() {
+        final Memory memory = Memory.with(256);
+        memory.write(129, ONE);
+        memory.write(130, TWO);
+
+        this.readBulkAndCheck(memory.setBaseOffset(128), 1, ONE, TWO);
+    }
+
+    @Test
+    public void testBulkWrite() {
+        final Memory memory = Memory.with(1024);
+        memory.write(0x1ff, new byte[]{0, ONE, TWO, THREE, 0}, 1, 3);
+
+        this.readBulkAndCheck(memory, 0x1fe, ZERO, ONE, TWO, THREE, ZERO);
+        this.checkEquals(
+            "1,2",
+            memory.dirtyPages()
+                .toString()
+        );
+    }
+
+    @Test
+    public void testBulkWriteWraps() {
+        final Memory memory = Memory.with(256);
+        memory.write(0x4ff, new byte[]{ONE, TWO}, 0, 2);
+
+        this.readAndCheck(memory, 255, ONE);
+        this.readAndCheck(memory, 0, TWO);
+    }
+
+    @Test
+    public void testBuffer() {
+        final Memory memory = Memory.with(256);
+        memory.write(1, ONE);
+
+        final ByteBuffer buffer = memory.buffer()
+            .get();
+        this.checkEquals(
+            256,
+            buffer.remaining(),
+            "remaining"
+        );
+        this.checkEquals(
+            ONE,
+            buffer.get(1),
+            "get"
+        );
+        this.checkEquals(
+            true,
+            buffer.isReadOnly(),
+            "isReadOnly"
+        );
+
+        memory.write(2, TWO);
+        this.checkEquals(
+            TWO,
+            buffer.get(2),
+            "get after write"
+        );
+    }
+
+    @Test
+    public void testBufferBaseOffset() {
+        this.checkEquals(
+            Optional.empty(),
+            Memory.with(256)
+                .setBaseOffset(1)
+                .buffer()
+        );
+    }
+
     @Test
     public void testToString() {
         final Memory memory = Memory.with(256);
@@ -173,6 +173,31 @@ public final class PagedAddressBusTest extends AddressBusTestCase<PagedAddressBu
         this.readAndCheck(paged, 512 + offset, value);
     }
 
+    @Test
+    public void testBulkReadAcrossPages() {
+        final AddressBus zero = AddressBuses.memory(256);
+        zero.write(255, ONE);
+
+        final AddressBus one = AddressBuses.memory(256);
+        one.write(0, TWO);
+        one.write(1, THREE);
+
+        final PagedAddressBus paged = PagedAddressBus.with(Lists.of(zero, one));
+        this.readBulkAndCheck(paged, 255, ONE, TWO, THREE);
+    }
+
+    @Test
+    public void testBulkWriteAcrossPages() {
+        final AddressBus zero = AddressBuses.memory(256);
+        final AddressBus one = AddressBuses.memory(256);
+
+        final PagedAddressBus paged = PagedAddressBus.with(Lists.of(zero, one));
+        paged.write(255, new byte[]{ONE, TWO, THREE}, 0, 3);
+
+        this.readAndCheck(zero, 255, ONE);
+        this.readBulkAndCheck(one, 0, TWO, THREE);
+    }
+
     @Test
     public void testToString() {
         final AddressBus zero = AddressBuses.fake();
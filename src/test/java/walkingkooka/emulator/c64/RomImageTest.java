@@ -0,0 +1,268 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class RomImageTest implements ClassTesting2<RomImage>,
+    ToStringTesting<RomImage> {
+
+    @Test
+    public void testBasic() {
+        this.sizeAndCheck(
+            RomImage.basic(),
+            8192
+        );
+    }
+
+    @Test
+    public void testBasicShared() {
+        assertSame(
+            RomImage.basic(),
+            RomImage.basic()
+        );
+    }
+
+    @Test
+    public void testCharacterGenerator() {
+        this.sizeAndCheck(
+            RomImage.characterGenerator(),
+            4096
+        );
+    }
+
+    @Test
+    public void testKernal() {
+        final RomImage kernal = RomImage.kernal();
+        this.sizeAndCheck(
+            kernal,
+            8192
+        );
+
+        // reset vector $FCE2
+        final ByteBuffer buffer = kernal.buffer();
+        this.checkEquals(
+            (byte) 0xe2,
+            buffer.get(0x1ffc),
+            "reset lo"
+        );
+        this.checkEquals(
+            (byte) 0xfc,
+            buffer.get(0x1ffd),
+            "reset hi"
+        );
+    }
+
+    @Test
+    public void testKernalRomSharesImage() {
+        final AddressBus rom = AddressBuses.kernalRom(AddressBuses.fake());
+        final ByteBuffer buffer = RomImage.kernal()
+            .buffer();
+
+        for (int i = 0; i < 8192; i++) {
+            if (buffer.get(i) != rom.read(i)) {
+                this.checkEquals(
+                    buffer.get(i),
+                    rom.read(i),
+                    "offset " + i
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testBufferReadOnly() {
+        assertThrows(
+            ReadOnlyBufferException.class,
+            () -> RomImage.basic()
+                .buffer()
+                .put((byte) 0)
+        );
+    }
+
+    @Test
+    public void testPatchNegativeOffsetFails() {
+        this.patchInvalidOffsetFails(-1);
+    }
+
+    @Test
+    public void testPatchOffsetTooLargeFails() {
+        this.patchInvalidOffsetFails(4);
+    }
+
+    @Test
+    public void testPatchAddressInsteadOfOffsetFails() {
+        this.patchInvalidOffsetFails(0xFFD2);
+    }
+
+    private void patchInvalidOffsetFails(final int offset) {
+        final RomImage image = RomImage.with(
+            "test",
+            new byte[]{1, 2, 3, 4}
+        );
+        final Map<Integer, Byte> patches = Maps.sorted();
+        patches.put(offset, (byte) 99);
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> image.patch(patches)
+        );
+        this.checkEquals(
+            "Invalid patch offset " + offset + " < 0 or >= 4",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testPatch() {
+        final RomImage image = RomImage.with(
+            "test",
+            new byte[]{1, 2, 3, 4}
+        );
+        final Map<Integer, Byte> patches = Maps.sorted();
+        patches.put(1, (byte) 99);
+
+        final RomImage patched = image.patch(patches);
+
+        this.checkEquals(
+            (byte) 99,
+            patched.buffer()
+                .get(1),
+            "patched"
+        );
+        this.checkEquals(
+            (byte) 2,
+            image.buffer()
+                .get(1),
+            "original"
+        );
+        this.toStringAndCheck(
+            patched,
+            "test patched 4 bytes"
+        );
+    }
+
+    @Test
+    public void testWithInvalidSizeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> RomImage.with(
+                "test",
+                new byte[3]
+            )
+        );
+    }
+
+    @Test
+    public void testLoadNullPathFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> RomImage.load(null)
+        );
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        final Path path = Files.createTempFile("rom", ".bin");
+        try {
+            Files.write(path, new byte[]{1, 2, 3, 4});
+
+            final RomImage image = RomImage.load(path);
+            this.sizeAndCheck(
+                image,
+                4
+            );
+            this.checkEquals(
+                (byte) 3,
+                image.buffer()
+                    .get(2)
+            );
+            assertSame(
+                image,
+                RomImage.load(path),
+                "loaded once"
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testLoadInvalidSizeFails() throws IOException {
+        final Path path = Files.createTempFile("rom", ".bin");
+        try {
+            Files.write(path, new byte[3]);
+
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> RomImage.load(path)
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private void sizeAndCheck(final RomImage image,
+                              final int size) {
+        this.checkEquals(
+            size,
+            image.size(),
+            "size"
+        );
+        this.checkEquals(
+            size,
+            image.buffer()
+                .remaining(),
+            "buffer remaining"
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            RomImage.basic(),
+            "basic.901226-01.bin 8192 bytes"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<RomImage> type() {
+        return RomImage.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -19,6 +19,9 @@ package walkingkooka.emulator.c64;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class RomTest extends AddressBusTestCase<Rom> {
@@ -26,7 +29,14 @@ public final class RomTest extends AddressBusTestCase<Rom> {
     @Test
     public void testWithNullValuesFails() {
         assertThrows(NullPointerException.class, () -> {
-            Rom.with(null, AddressBuses.fake());
+            Rom.with((byte[]) null, AddressBuses.fake());
+        });
+    }
+
+    @Test
+    public void testWithNullRomImageFails() {
+        assertThrows(NullPointerException.class, () -> {
+            Rom.with((RomImage) null, AddressBuses.fake());
         });
     }
 
@@ -101,6 +111,79 @@ public final class RomTest extends AddressBusTestCase<Rom> {
         }
     }
 
+    @Test
+    public void testBulkRead() {
+        final Rom rom = Rom.with(this.values(), AddressBuses.fake());
+        this.readBulkAndCheck(rom, 1, (byte) (128 ^ 1), (byte) (128 ^ 2));
+    }
+
+    @Test
+    public void testBulkReadWraps() {
+        final Rom rom = Rom.with(this.values(), AddressBuses.fake());
+        this.readBulkAndCheck(rom, 255, (byte) (128 ^ 255), (byte) 128);
+    }
+
+    @Test
+    public void testBulkWrite() {
+        final AddressBus memory = AddressBuses.memory(256);
+        final Rom rom = Rom.with(this.values(), memory);
+
+        rom.write(254, new byte[]{ONE, TWO, THREE}, 0, 3);
+
+        this.readBulkAndCheck(memory, 254, ONE, TWO, THREE);
+        this.readAndCheck(rom, 254, (byte) (128 ^ 254));
+    }
+
+    @Test
+    public void testBuffer() {
+        final ByteBuffer buffer = Rom.with(this.values(), AddressBuses.fake())
+            .buffer()
+            .get();
+
+        this.checkEquals(
+            (byte) (128 ^ 10),
+            buffer.get(10),
+            "get"
+        );
+        this.checkEquals(
+            true,
+            buffer.isReadOnly(),
+            "isReadOnly"
+        );
+    }
+
+    @Test
+    public void testBufferBaseOffset() {
+        this.checkEquals(
+            Optional.empty(),
+            Rom.with(this.values(), AddressBuses.fake())
+                .setBaseOffset(1)
+                .buffer()
+        );
+    }
+
+    @Test
+    public void testWithRomImageShared() {
+        final RomImage image = RomImage.with(
+            "test",
+            this.values()
+        );
+        final Rom rom = Rom.with(image, AddressBuses.fake());
+        this.readAndCheck(rom, 1, (byte) (128 ^ 1));
+
+        image.values()[1] = 99;
+        this.readAndCheck(rom, 1, (byte) 99);
+    }
+
+    @Test
+    public void testWithValuesCopied() {
+        final byte[] values = this.values();
+        final Rom rom = Rom.with(values, AddressBuses.fake());
+
+        values[1] = 99;
+        this.readAndCheck(rom, 1, (byte) (128 ^ 1));
+    }
+
     @Test
     public void testToString() {
         this.toStringAndCheck(Rom.with(this.values(), AddressBuses.fake()),
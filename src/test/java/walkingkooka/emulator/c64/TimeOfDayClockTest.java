@@ -22,6 +22,8 @@ import walkingkooka.ToStringTesting;
 import walkingkooka.reflect.ClassTesting2;
 import walkingkooka.reflect.JavaVisibility;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public final class TimeOfDayClockTest implements ClassTesting2<TimeOfDayClock>, ToStringTesting<TimeOfDayClock> {
@@ -145,6 +147,84 @@ public final class TimeOfDayClockTest implements ClassTesting2<TimeOfDayClock>,
         this.checkAlarmFired(clock, false);
     }
 
+    @Test
+    public void testTicksUntilAlarmWithoutAlarm() {
+        final TimeOfDayClock clock = this.timeOfDayAlarmFails();
+        clock.setTime(12, 0, 0, 0);
+
+        this.ticksUntilAlarmAndCheck(
+            clock,
+            -1
+        );
+    }
+
+    @Test
+    public void testTicksUntilAlarm() {
+        final TimeOfDayClock clock = this.timeOfDay();
+        clock.setTime(12, 0, 0, 0);
+        clock.setAlarm(12, 0, 1, 0);
+
+        this.ticksUntilAlarmAndCheck(
+            clock,
+            SECOND
+        );
+
+        clock.update(SECOND - 1);
+        this.checkAlarmFired(clock, false);
+
+        clock.update(1);
+        this.checkAlarmFired(clock, true);
+    }
+
+    @Test
+    public void testTicksUntilAlarmAfterAlarm() {
+        final TimeOfDayClock clock = this.timeOfDayAlarmFails();
+        clock.setTime(23, 59, 59, 0);
+        clock.setAlarm(1, 0, 0, 0);
+
+        this.ticksUntilAlarmAndCheck(
+            clock,
+            (1 + 60 * 60) * (long) SECOND // one second to midnight then one hour
+        );
+
+        clock.update(SECOND);
+        this.checkTime(clock, 0, 0, 0, 0);
+    }
+
+    private void ticksUntilAlarmAndCheck(final TimeOfDayClock clock,
+                                         final long expected) {
+        assertEquals(
+            expected,
+            clock.ticksUntilAlarm(),
+            clock::toString
+        );
+    }
+
+    @Test
+    public void testSaveRestore() {
+        final TimeOfDayClock clock = this.timeOfDayAlarmFails();
+        clock.setTime(1, 2, 3, 0);
+        clock.setAlarm(2, 0, 0, 0);
+        clock.update(5 * SECOND);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        clock.save(buffer);
+        buffer.flip();
+
+        final TimeOfDayClock restored = this.timeOfDayAlarmFails();
+        restored.restore(buffer);
+
+        this.checkEquals(
+            clock.toString(),
+            restored.toString()
+        );
+        this.checkEquals(
+            clock.ticksUntilAlarm(),
+            restored.ticksUntilAlarm(),
+            "ticksUntilAlarm"
+        );
+    }
+
     private TimeOfDayClock timeOfDayAlarmFails() {
         return TimeOfDayClock.with(() -> {
             throw new UnsupportedOperationException();
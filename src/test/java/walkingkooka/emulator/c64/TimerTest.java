@@ -22,6 +22,8 @@ import walkingkooka.ToStringTesting;
 import walkingkooka.reflect.ClassTesting2;
 import walkingkooka.reflect.JavaVisibility;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public final class TimerTest implements ClassTesting2<Timer>, ToStringTesting<Timer> {
@@ -112,6 +114,77 @@ public final class TimerTest implements ClassTesting2<Timer>, ToStringTesting<Ti
         this.checkValue(timer, -1);
     }
 
+    @Test
+    public void testUpdateSeveralPeriodsReloadingLatch() {
+        final int[] underflows = new int[1];
+        final Timer timer = Timer.with(() -> {
+            underflows[0]++;
+            this.timer.loadLatch();
+        });
+        this.timer = timer;
+
+        timer.setLatch(9);
+        timer.loadLatch();
+
+        // 10 cycles per period, 3 full periods and 4 cycles into the fourth
+        timer.update(34);
+
+        assertEquals(3, underflows[0], "underflows");
+        this.checkValue(timer, 9 - ((34 - 9 - 1) % (9 + 1)));
+        this.checkValue(timer, 5);
+    }
+
+    @Test
+    public void testUpdateSeveralPeriodsExactlyUnderflows() {
+        final int[] underflows = new int[1];
+        final Timer timer = Timer.with(() -> {
+            underflows[0]++;
+            this.timer.loadLatch();
+        });
+        this.timer = timer;
+
+        timer.setLatch(9);
+        timer.loadLatch();
+
+        timer.update(30);
+
+        assertEquals(3, underflows[0], "underflows");
+        this.checkValue(timer, 9);
+    }
+
+    @Test
+    public void testUpdateSeveralPeriodsWithoutReloadUnderflowsOnce() {
+        final int[] underflows = new int[1];
+        final Timer timer = Timer.with(() -> underflows[0]++);
+
+        timer.setLatch(9);
+        timer.loadLatch();
+
+        timer.update(100);
+
+        assertEquals(1, underflows[0], "underflows");
+        this.checkValue(timer, -1);
+    }
+
+    @Test
+    public void testSaveRestore() {
+        final Timer timer = this.timerUnderflowFails();
+        timer.setLatch(100);
+        timer.loadLatch();
+        timer.update(10);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        timer.save(buffer);
+        buffer.flip();
+
+        final Timer restored = this.timerUnderflowFails();
+        restored.restore(buffer);
+        this.checkValue(restored, 90);
+
+        restored.loadLatch();
+        this.checkValue(restored, 100);
+    }
+
     private Timer timer;
 
     private Timer timerUnderflowFails() {
@@ -147,6 +220,47 @@ public final class TimerTest implements ClassTesting2<Timer>, ToStringTesting<Ti
         );
     }
 
+    @Test
+    public void testCyclesUntilUnderflowNotLoaded() {
+        this.cyclesUntilUnderflowAndCheck(
+            this.timerUnderflowFails(),
+            -1
+        );
+    }
+
+    @Test
+    public void testCyclesUntilUnderflow() {
+        final Timer timer = this.timerUnderflowSupported();
+        timer.setLatch(100);
+        timer.loadLatch();
+        timer.update(10);
+
+        this.cyclesUntilUnderflowAndCheck(
+            timer,
+            91
+        );
+
+        timer.update(90);
+        this.checkUnderflowed(timer, false);
+
+        timer.update(1);
+        this.checkUnderflowed(timer, true);
+
+        this.cyclesUntilUnderflowAndCheck(
+            timer,
+            -1
+        );
+    }
+
+    private void cyclesUntilUnderflowAndCheck(final Timer timer,
+                                              final int expected) {
+        assertEquals(
+            expected,
+            timer.cyclesUntilUnderflow(),
+            timer::toString
+        );
+    }
+
     @Test
     public void testSetLatchUpdateSetLatch() {
         final Timer timer = this.timerUnderflowFails();
@@ -22,6 +22,8 @@ import walkingkooka.ToStringTesting;
 import walkingkooka.reflect.ClassTesting2;
 import walkingkooka.reflect.JavaVisibility;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -165,6 +167,32 @@ public final class VicMapperTest implements AddressBusTesting,
         this.toStringAndCheck(mapper, "Bank 3");
     }
 
+    @Test
+    public void testSaveRestore() {
+        final VicMapper mapper = this.vicMapper();
+        mapper.setBank(VicBank.BANK2);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        mapper.save(buffer);
+        buffer.flip();
+
+        this.vicAddressBus = null;
+
+        final VicMapper restored = this.vicMapper();
+        restored.restore(buffer);
+
+        this.checkEquals(
+            VicBank.BANK2,
+            restored.bank(),
+            "bank"
+        );
+        this.checkNotEquals(
+            null,
+            this.vicAddressBus,
+            "vicAddressBus"
+        );
+    }
+
     // helper...........................................................................................................
 
     private VicMapper vicMapper() {
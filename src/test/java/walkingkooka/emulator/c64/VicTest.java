@@ -0,0 +1,677 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.emulator.c64;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class VicTest extends AddressBusTestCase<Vic> {
+
+    @Test
+    public void testWithNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Vic.with(null)
+        );
+    }
+
+    @Test
+    public void testWithNullModelFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Vic.with(null, () -> 0, Memory.with(1024), () -> {
+            })
+        );
+    }
+
+    @Test
+    public void testWithNullColourFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Vic.with(VicModel.PAL, () -> 0, null, () -> {
+            })
+        );
+    }
+
+    @Test
+    public void testWithNullInterruptFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> Vic.with(VicModel.PAL, () -> 0, Memory.with(1024), null)
+        );
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        this.writeAndReadCheck(
+            0x20,
+            SEVEN
+        );
+    }
+
+    @Test
+    public void testWriteAndReadRepeatedEvery64Bytes() {
+        final Vic vic = this.createAddressBus();
+        vic.write(0xd020, SEVEN);
+
+        this.readAndCheck(
+            vic,
+            0xd3e0,
+            SEVEN
+        );
+    }
+
+    @Test
+    public void testReadUnconnected() {
+        this.readAndCheck(
+            0x2f,
+            NEGATIVE_ONE
+        );
+    }
+
+    @Test
+    public void testReadRaster() {
+        this.readAndCheck(
+            Vic.with(() -> 100 * Vic.CYCLES_PER_LINE + 62),
+            Vic.RASTER,
+            (byte) 100
+        );
+    }
+
+    @Test
+    public void testReadRasterNextFrame() {
+        this.readAndCheck(
+            Vic.with(() -> 3 * Vic.CYCLES_PER_FRAME + 5 * Vic.CYCLES_PER_LINE),
+            Vic.RASTER,
+            FIVE
+        );
+    }
+
+    @Test
+    public void testReadRasterAdvancesWithClock() {
+        final long[] now = new long[]{0};
+        final Vic vic = Vic.with(() -> now[0]);
+
+        this.readAndCheck(
+            vic,
+            Vic.RASTER,
+            ZERO
+        );
+
+        now[0] = 2 * Vic.CYCLES_PER_LINE;
+
+        this.readAndCheck(
+            vic,
+            Vic.RASTER,
+            TWO
+        );
+    }
+
+    @Test
+    public void testReadControl1RasterBit8() {
+        final Vic vic = Vic.with(() -> 260 * Vic.CYCLES_PER_LINE);
+        vic.write(Vic.CONTROL1, (byte) 0x1b);
+
+        this.readAndCheck(
+            vic,
+            Vic.CONTROL1,
+            (byte) 0x9b
+        );
+        this.readAndCheck(
+            vic,
+            Vic.RASTER,
+            (byte) (260 - 256)
+        );
+    }
+
+    @Test
+    public void testReadControl1RasterBit8Clear() {
+        final Vic vic = Vic.with(() -> 10 * Vic.CYCLES_PER_LINE);
+        vic.write(Vic.CONTROL1, (byte) 0x9b);
+
+        this.readAndCheck(
+            vic,
+            Vic.CONTROL1,
+            (byte) 0x1b
+        );
+    }
+
+    @Test
+    public void testReadInterruptUnusedBitsSet() {
+        this.readAndCheck(
+            Vic.INTERRUPT,
+            (byte) 0x70
+        );
+    }
+
+    @Test
+    public void testReadInterruptEnableUnusedBitsSet() {
+        final Vic vic = this.createAddressBus();
+        vic.write(Vic.INTERRUPT_ENABLE, ONE);
+
+        this.readAndCheck(
+            vic,
+            Vic.INTERRUPT_ENABLE,
+            (byte) 0xf1
+        );
+    }
+
+    @Test
+    public void testReadRasterNtsc() {
+        this.readAndCheck(
+            Vic.with(
+                VicModel.NTSC,
+                () -> 263 * 65 + 7 * 65,
+                Memory.with(1024),
+                () -> {
+                }
+            ),
+            Vic.RASTER,
+            SEVEN
+        );
+    }
+
+    @Test
+    public void testScheduleTwiceFails() {
+        final Vic vic = this.createAddressBus();
+        final CycleScheduler scheduler = CycleScheduler.with(() -> 0);
+        vic.schedule(scheduler);
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> vic.schedule(scheduler)
+        );
+    }
+
+    @Test
+    public void testScheduleRasterCompare() {
+        final long[] now = new long[]{5 * Vic.CYCLES_PER_FRAME + 100 * Vic.CYCLES_PER_LINE};
+        final Vic vic = Vic.with(() -> now[0]);
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        vic.schedule(scheduler);
+
+        vic.write(Vic.RASTER, (byte) 200);
+        this.checkEquals(
+            5L * Vic.CYCLES_PER_FRAME + 200 * Vic.CYCLES_PER_LINE,
+            scheduler.next(),
+            "later this frame"
+        );
+
+        vic.write(Vic.RASTER, (byte) 50);
+        this.checkEquals(
+            6L * Vic.CYCLES_PER_FRAME + 50 * Vic.CYCLES_PER_LINE,
+            scheduler.next(),
+            "next frame"
+        );
+
+        vic.write(Vic.CONTROL1, (byte) 0x9b);
+        this.checkEquals(
+            5L * Vic.CYCLES_PER_FRAME + (256 + 50) * Vic.CYCLES_PER_LINE,
+            scheduler.next(),
+            "bit 8"
+        );
+    }
+
+    @Test
+    public void testScheduleRasterCompareNeverReached() {
+        final Vic vic = Vic.with(() -> 0);
+        final CycleScheduler scheduler = CycleScheduler.with(() -> 0);
+        vic.schedule(scheduler);
+
+        vic.write(Vic.CONTROL1, (byte) 0x9b);
+        vic.write(Vic.RASTER, (byte) 0x40); // 320 > 311
+
+        this.checkEquals(
+            CycleScheduler.NONE,
+            scheduler.next()
+        );
+    }
+
+    @Test
+    public void testRasterInterrupt() {
+        final long[] now = new long[]{0};
+        final int[] interrupts = new int[1];
+        final Vic vic = Vic.with(
+            VicModel.PAL,
+            () -> now[0],
+            Memory.with(1024),
+            () -> interrupts[0]++
+        );
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        vic.schedule(scheduler);
+
+        vic.write(Vic.RASTER, (byte) 10);
+        vic.write(Vic.INTERRUPT_ENABLE, ONE);
+
+        now[0] = 10 * Vic.CYCLES_PER_LINE;
+        scheduler.fire();
+
+        this.checkEquals(1, interrupts[0], "interrupts");
+        this.readAndCheck(vic, Vic.INTERRUPT, (byte) 0xf1);
+
+        // acknowledge
+        vic.write(Vic.INTERRUPT, ONE);
+        this.readAndCheck(vic, Vic.INTERRUPT, (byte) 0x70);
+
+        this.checkEquals(
+            (long) Vic.CYCLES_PER_FRAME + 10 * Vic.CYCLES_PER_LINE,
+            scheduler.next(),
+            "rescheduled"
+        );
+
+        now[0] += Vic.CYCLES_PER_FRAME;
+        scheduler.fire();
+        this.checkEquals(2, interrupts[0], "interrupts next frame");
+    }
+
+    @Test
+    public void testRasterInterruptDisabledLatched() {
+        final long[] now = new long[]{0};
+        final int[] interrupts = new int[1];
+        final Vic vic = Vic.with(
+            VicModel.PAL,
+            () -> now[0],
+            Memory.with(1024),
+            () -> interrupts[0]++
+        );
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        vic.schedule(scheduler);
+
+        vic.write(Vic.RASTER, (byte) 10);
+
+        now[0] = 10 * Vic.CYCLES_PER_LINE;
+        scheduler.fire();
+
+        this.checkEquals(0, interrupts[0], "interrupts");
+        this.readAndCheck(vic, Vic.INTERRUPT, (byte) 0x71);
+
+        // enabling an already latched interrupt fires immediately
+        vic.write(Vic.INTERRUPT_ENABLE, ONE);
+        this.checkEquals(1, interrupts[0], "interrupts after enable");
+        this.readAndCheck(vic, Vic.INTERRUPT, (byte) 0xf1);
+    }
+
+    // pixels...........................................................................................................
+
+    private final static int BLACK = 0xff000000;
+    private final static int WHITE = 0xffffffff;
+    private final static int RED = 0xff68372b;
+    private final static int CYAN = 0xff70a4b2;
+    private final static int PURPLE = 0xff6f3d86;
+    private final static int GREEN = 0xff588d43;
+    private final static int BLUE = 0xff352879;
+    private final static int YELLOW = 0xffb8c76f;
+    private final static int LIGHT_BLUE = 0xff6c5eb5;
+
+    @Test
+    public void testPixelsSize() {
+        this.checkEquals(
+            VicModel.PAL.width() * VicModel.PAL.height(),
+            this.createAddressBus()
+                .pixels()
+                .length
+        );
+    }
+
+    @Test
+    public void testPixelsSizeNtsc() {
+        this.checkEquals(
+            VicModel.NTSC.width() * VicModel.NTSC.height(),
+            Vic.with(
+                VicModel.NTSC,
+                () -> 0,
+                Memory.with(1024),
+                () -> {
+                }
+            ).pixels()
+                .length
+        );
+    }
+
+    @Test
+    public void testPixelsSameArray() {
+        final Vic vic = this.createAddressBus();
+        final int[] pixels = vic.pixels();
+        assertSame(pixels, vic.pixels());
+    }
+
+    @Test
+    public void testPixelsDisplayDisabled() {
+        final Memory memory = Memory.with(0x4000);
+        final Vic vic = this.createVic(memory, Memory.with(1024));
+        vic.write(Vic.CONTROL1, (byte) 0x0b);
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 0, 0, LIGHT_BLUE);
+        this.checkPixel(pixels, 160, 100, LIGHT_BLUE);
+    }
+
+    @Test
+    public void testPixelsText() {
+        final Memory memory = Memory.with(0x4000);
+        final Memory colour = Memory.with(1024);
+        memory.write(0x400 + 41, ONE); // row 1 column 1
+        memory.write(0x2000 + 8 + 2, (byte) 0x81); // char 1 row 2
+        colour.write(41, SEVEN);
+
+        final Vic vic = this.createVic(memory, colour);
+        vic.write(Vic.MEMORY, (byte) 0x18); // screen $400 characters $2000
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, -1, 0, LIGHT_BLUE); // border
+        this.checkPixel(pixels, 8, 10, YELLOW);
+        this.checkPixel(pixels, 9, 10, BLUE);
+        this.checkPixel(pixels, 15, 10, YELLOW);
+        this.checkPixel(pixels, 8, 9, BLUE);
+    }
+
+    @Test
+    public void testPixelsTextScrolled() {
+        final Memory memory = Memory.with(0x4000);
+        final Memory colour = Memory.with(1024);
+        memory.write(0x400, ONE);
+        memory.write(0x2000 + 8, (byte) 0x80);
+        colour.write(0, SEVEN);
+
+        final Vic vic = this.createVic(memory, colour);
+        vic.write(Vic.MEMORY, (byte) 0x18);
+        vic.write(Vic.CONTROL1, (byte) 0x1d); // y scroll 5
+        vic.write(Vic.CONTROL2, (byte) 0x0a); // x scroll 2
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 0, 0, BLUE);
+        this.checkPixel(pixels, 2, 2, YELLOW);
+    }
+
+    @Test
+    public void testPixels38Columns24Rows() {
+        final Vic vic = this.createVic(Memory.with(0x4000), Memory.with(1024));
+        vic.write(Vic.CONTROL1, (byte) 0x13);
+        vic.write(Vic.CONTROL2, (byte) 0x00);
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 6, 4, LIGHT_BLUE);
+        this.checkPixel(pixels, 7, 4, BLUE);
+        this.checkPixel(pixels, 310, 4, BLUE);
+        this.checkPixel(pixels, 311, 4, LIGHT_BLUE);
+        this.checkPixel(pixels, 100, 3, LIGHT_BLUE);
+        this.checkPixel(pixels, 100, 195, BLUE);
+        this.checkPixel(pixels, 100, 196, LIGHT_BLUE);
+    }
+
+    @Test
+    public void testPixelsMulticolourText() {
+        final Memory memory = Memory.with(0x4000);
+        final Memory colour = Memory.with(1024);
+        memory.write(0x400, ONE);
+        memory.write(0x2000 + 8, (byte) 0x1b); // 00 01 10 11
+        colour.write(0, (byte) (8 | 5));
+
+        final Vic vic = this.createVic(memory, colour);
+        vic.write(Vic.MEMORY, (byte) 0x18);
+        vic.write(Vic.CONTROL2, (byte) 0x18);
+        vic.write(Vic.BACKGROUND0 + 1, (byte) 2);
+        vic.write(Vic.BACKGROUND0 + 2, (byte) 3);
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 0, 0, BLUE);
+        this.checkPixel(pixels, 1, 0, BLUE);
+        this.checkPixel(pixels, 2, 0, RED);
+        this.checkPixel(pixels, 4, 0, CYAN);
+        this.checkPixel(pixels, 7, 0, GREEN);
+    }
+
+    @Test
+    public void testPixelsExtendedColour() {
+        final Memory memory = Memory.with(0x4000);
+        final Memory colour = Memory.with(1024);
+        memory.write(0x400, (byte) 0x81); // background 2, char 1
+        memory.write(0x2000 + 8, (byte) 0x80);
+        colour.write(0, ONE);
+
+        final Vic vic = this.createVic(memory, colour);
+        vic.write(Vic.MEMORY, (byte) 0x18);
+        vic.write(Vic.CONTROL1, (byte) 0x5b);
+        vic.write(Vic.BACKGROUND0 + 2, (byte) 4);
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 0, 0, WHITE);
+        this.checkPixel(pixels, 1, 0, PURPLE);
+        this.checkPixel(pixels, 8, 0, BLUE);
+    }
+
+    @Test
+    public void testPixelsBitmap() {
+        final Memory memory = Memory.with(0x4000);
+        memory.write(0x400 + 1, (byte) 0x72); // yellow on red
+        memory.write(0x2000 + 8 + 3, (byte) 0x40);
+
+        final Vic vic = this.createVic(memory, Memory.with(1024));
+        vic.write(Vic.MEMORY, (byte) 0x18);
+        vic.write(Vic.CONTROL1, (byte) 0x3b);
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 8, 3, RED);
+        this.checkPixel(pixels, 9, 3, YELLOW);
+        this.checkPixel(pixels, 0, 0, BLACK);
+    }
+
+    @Test
+    public void testPixelsMulticolourBitmap() {
+        final Memory memory = Memory.with(0x4000);
+        final Memory colour = Memory.with(1024);
+        memory.write(0x400, (byte) 0x72);
+        memory.write(0x2000, (byte) 0x1b);
+        colour.write(0, (byte) 5);
+
+        final Vic vic = this.createVic(memory, colour);
+        vic.write(Vic.MEMORY, (byte) 0x18);
+        vic.write(Vic.CONTROL1, (byte) 0x3b);
+        vic.write(Vic.CONTROL2, (byte) 0x18);
+
+        final int[] pixels = vic.pixels();
+        this.checkPixel(pixels, 0, 0, BLUE);
+        this.checkPixel(pixels, 2, 0, YELLOW);
+        this.checkPixel(pixels, 4, 0, RED);
+        this.checkPixel(pixels, 6, 0, GREEN);
+    }
+
+    @Test
+    public void testPixelsRegisterWriteMidFrame() {
+        final long[] now = new long[]{0};
+        final Vic vic = Vic.with(() -> now[0]);
+        vic.write(Vic.CONTROL1, (byte) 0x1b);
+        vic.write(Vic.BORDER, (byte) 14);
+        vic.pixels();
+
+        now[0] = 100 * Vic.CYCLES_PER_LINE;
+        vic.write(Vic.BORDER, (byte) 2);
+
+        now[0] = Vic.CYCLES_PER_FRAME;
+        final int[] pixels = vic.pixels();
+
+        this.checkEquals(LIGHT_BLUE, pixels[(99 - 16) * Vic.WIDTH], "line 99");
+        this.checkEquals(RED, pixels[(100 - 16) * Vic.WIDTH], "line 100");
+    }
+
+    @Test
+    public void testPixelsScheduledRendersEachLineWhenReached() {
+        final Memory memory = Memory.with(0x4000);
+        final Memory colour = Memory.with(1024);
+        memory.write(0x400, ONE);
+        for (int i = 0; i < 8; i++) {
+            memory.write(0x2000 + 8 + i, (byte) 0x80);
+        }
+        colour.write(0, SEVEN);
+
+        final long[] now = new long[]{0};
+        final Vic vic = this.createVic(memory, colour, () -> now[0]);
+        vic.write(Vic.MEMORY, (byte) 0x18);
+
+        final CycleScheduler scheduler = CycleScheduler.with(() -> now[0]);
+        vic.schedule(scheduler);
+
+        final int[] pixels = vic.pixels();
+
+        // run to the end of the line showing graphics row 1
+        final int changed = 51 + 2;
+        for (int line = 1; line <= changed; line++) {
+            now[0] = line * Vic.CYCLES_PER_LINE;
+            scheduler.fire();
+        }
+
+        // clear the character during graphics row 2 without writing a register
+        for (int i = 0; i < 8; i++) {
+            memory.write(0x2000 + 8 + i, ZERO);
+        }
+
+        for (int line = changed + 1; line <= Vic.LINES; line++) {
+            now[0] = line * Vic.CYCLES_PER_LINE;
+            scheduler.fire();
+        }
+
+        this.checkPixel(pixels, 0, 0, YELLOW);
+        this.checkPixel(pixels, 0, 1, YELLOW);
+        this.checkPixel(pixels, 0, 2, BLUE);
+        this.checkPixel(pixels, 0, 7, BLUE);
+    }
+
+    @Test
+    public void testPixelsScheduledNotRequestedSchedulesOnlyRasterCompare() {
+        final Vic vic = Vic.with(() -> 0);
+        vic.write(Vic.RASTER, (byte) 10);
+
+        final CycleScheduler scheduler = CycleScheduler.with(() -> 0);
+        vic.schedule(scheduler);
+
+        this.checkEquals(
+            10L * Vic.CYCLES_PER_LINE,
+            scheduler.next()
+        );
+
+        vic.pixels();
+
+        this.checkEquals(
+            (long) Vic.CYCLES_PER_LINE,
+            scheduler.next(),
+            "end of the current line"
+        );
+    }
+
+    /**
+     * Creates a {@link Vic} showing a standard 25 x 40 text screen with a light blue border on a blue background.
+     */
+    private Vic createVic(final AddressBus memory,
+                          final AddressBus colour) {
+        return this.createVic(
+            memory,
+            colour,
+            () -> Vic.CYCLES_PER_FRAME
+        );
+    }
+
+    private Vic createVic(final AddressBus memory,
+                          final AddressBus colour,
+                          final LongSupplier clock) {
+        final Vic vic = Vic.with(
+            VicModel.PAL,
+            clock,
+            colour,
+            () -> {
+            }
+        );
+        vic.setAddressBus(memory);
+        vic.write(Vic.CONTROL1, (byte) 0x1b);
+        vic.write(Vic.CONTROL2, (byte) 0x08);
+        vic.write(Vic.BORDER, (byte) 14);
+        vic.write(Vic.BACKGROUND0, (byte) 6);
+        return vic;
+    }
+
+    /**
+     * Checks the pixel with coordinates relative to the top left of the graphics.
+     */
+    private void checkPixel(final int[] pixels,
+                            final int x,
+                            final int y,
+                            final int argb) {
+        this.checkEquals(
+            Integer.toHexString(argb),
+            Integer.toHexString(pixels[(51 - 16 + y) * Vic.WIDTH + 32 + x]),
+            "pixel " + x + "," + y
+        );
+    }
+
+    @Test
+    public void testSaveRestore() {
+        final Vic vic = this.createAddressBus();
+        vic.write(0x20, SEVEN);
+        vic.write(Vic.CONTROL1, (byte) 0x1b);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        vic.save(buffer);
+        buffer.flip();
+
+        final Vic restored = this.createAddressBus();
+        restored.restore(buffer);
+
+        this.readAndCheck(restored, 0x20, SEVEN);
+        this.readAndCheck(restored, Vic.CONTROL1, (byte) 0x1b);
+    }
+
+    @Test
+    public void testBulkRead() {
+        final Vic vic = this.createAddressBus();
+        vic.write(0x20, ONE);
+        vic.write(0x21, TWO);
+
+        this.readBulkAndCheck(vic, 0x20, ONE, TWO);
+    }
+
+    @Test
+    public void testBulkWrite() {
+        final Vic vic = this.createAddressBus();
+        vic.write(0x20, new byte[]{ONE, TWO}, 0, 2);
+
+        this.readAndCheck(vic, 0x20, ONE);
+        this.readAndCheck(vic, 0x21, TWO);
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            Vic.with(() -> 7 * Vic.CYCLES_PER_LINE),
+            "VIC raster 7"
+        );
+    }
+
+    @Override
+    public Vic createAddressBus() {
+        return Vic.with(() -> 0);
+    }
+
+    @Override
+    public Class<Vic> type() {
+        return Vic.class;
+    }
+}